@@ -0,0 +1,98 @@
+package io.smallrye.beanbag.benchmarks;
+
+import io.smallrye.beanbag.BeanBag;
+
+/**
+ * Synthetic beans for the container benchmarks.
+ */
+public final class Beans {
+    private Beans() {
+    }
+
+    /**
+     * Create a container builder with the given number of synthetic beans in addition to the service beans.
+     * The synthetic beans are singletons which are spread evenly over several types, each with a unique name
+     * of the form {@code "bean<n>"}.
+     *
+     * @param count the number of synthetic beans
+     * @return the builder (not {@code null})
+     */
+    public static BeanBag.Builder builder(int count) {
+        final BeanBag.Builder builder = BeanBag.builder();
+        for (int i = 0; i < count; i++) {
+            addSynthetic(builder, TYPES[i % TYPES.length], i);
+        }
+        builder.addBean(SingletonService.class)
+                .setSingleton(true)
+                .setSupplier(scope -> new SingletonService())
+                .build();
+        builder.addBean(PerLookupService.class)
+                .setSupplier(scope -> new PerLookupService(scope.requireBean(SingletonService.class)))
+                .build();
+        return builder;
+    }
+
+    private static <T extends Marker> void addSynthetic(BeanBag.Builder builder, Class<T> type, int index) {
+        builder.addBean(type)
+                .setSingleton(true)
+                .setName("bean" + index)
+                .setSupplier(scope -> newInstance(type))
+                .build();
+    }
+
+    private static <T> T newInstance(Class<T> type) {
+        try {
+            return type.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static final Class<? extends Marker>[] TYPES = new Class[] {
+            Synthetic0.class, Synthetic1.class, Synthetic2.class, Synthetic3.class,
+            Synthetic4.class, Synthetic5.class, Synthetic6.class, Synthetic7.class,
+    };
+
+    public interface Marker {
+    }
+
+    public static final class Synthetic0 implements Marker {
+    }
+
+    public static final class Synthetic1 implements Marker {
+    }
+
+    public static final class Synthetic2 implements Marker {
+    }
+
+    public static final class Synthetic3 implements Marker {
+    }
+
+    public static final class Synthetic4 implements Marker {
+    }
+
+    public static final class Synthetic5 implements Marker {
+    }
+
+    public static final class Synthetic6 implements Marker {
+    }
+
+    public static final class Synthetic7 implements Marker {
+    }
+
+    public static final class SingletonService {
+    }
+
+    public static final class PerLookupService {
+        private final SingletonService singletonService;
+
+        PerLookupService(final SingletonService singletonService) {
+            this.singletonService = singletonService;
+        }
+
+        public SingletonService getSingletonService() {
+            return singletonService;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.smallrye.beanbag.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.beanbag.BeanBag;
+import io.smallrye.beanbag.DependencyFilter;
+
+/**
+ * Measure container construction, scope creation, and lookups against containers of varying size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainerBenchmark {
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int beanCount;
+
+    private BeanBag container;
+    private String lastName;
+
+    @Setup
+    public void setUp() {
+        container = Beans.builder(beanCount).build();
+        lastName = "bean" + (beanCount - 1);
+        // instantiate the singletons
+        container.getAllBeans(Beans.Marker.class);
+        container.requireBean(Beans.SingletonService.class);
+    }
+
+    @Benchmark
+    public BeanBag build() {
+        return Beans.builder(beanCount).build();
+    }
+
+    @Benchmark
+    public io.smallrye.beanbag.Scope newScope() {
+        return container.newScope();
+    }
+
+    @Benchmark
+    public Object requireByType() {
+        return container.newScope().requireBean(Beans.SingletonService.class);
+    }
+
+    @Benchmark
+    public Object requireByName() {
+        return container.newScope().requireBean(Beans.Marker.class, lastName);
+    }
+
+    @Benchmark
+    public Object requireSingleton() {
+        return container.requireBean(Beans.SingletonService.class);
+    }
+
+    @Benchmark
+    public Object requirePerLookup() {
+        return container.requireBean(Beans.PerLookupService.class);
+    }
+
+    @Benchmark
+    public List<Beans.Synthetic0> getAllBeans() {
+        return container.getAllBeans(Beans.Synthetic0.class);
+    }
+
+    @Benchmark
+    public Map<String, Beans.Synthetic0> getAllBeansWithNames() {
+        return container.newScope().getAllBeansWithNames(Beans.Synthetic0.class, DependencyFilter.ACCEPT);
+    }
+}
@@ -0,0 +1,47 @@
+package io.smallrye.beanbag.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.beanbag.BeanBag;
+
+/**
+ * Measure lookups of a shared singleton, and of a per-lookup bean which depends on it, from many threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ContentionBenchmark {
+
+    private BeanBag container;
+
+    @Setup
+    public void setUp() {
+        container = Beans.builder(100).build();
+    }
+
+    @Benchmark
+    public Object requireSingleton() {
+        return container.requireBean(Beans.SingletonService.class);
+    }
+
+    @Benchmark
+    public Object requirePerLookup() {
+        return container.requireBean(Beans.PerLookupService.class);
+    }
+}
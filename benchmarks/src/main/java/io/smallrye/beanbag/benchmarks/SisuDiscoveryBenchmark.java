@@ -0,0 +1,147 @@
+package io.smallrye.beanbag.benchmarks;
+
+import java.io.IOException;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.beanbag.BeanBag;
+import io.smallrye.beanbag.DependencyFilter;
+import io.smallrye.beanbag.maven.MavenFactory;
+import io.smallrye.beanbag.sisu.Sisu;
+
+/**
+ * Measure SISU discovery against generated JARs of 100 to 50,000 components.
+ * Every invocation scans fresh class loaders, so that class loading is included in the measurement.
+ * Besides the scan time, the number of classes loaded, the number of bytes read and the peak heap usage of each scan
+ * are reported as secondary results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SisuDiscoveryBenchmark {
+
+    @Param({ "100", "1000", "10000", "50000" })
+    public int componentCount;
+
+    @Param({ "0", "4" })
+    public int hierarchyDepth;
+
+    @Param({ "2" })
+    public int injectionPoints;
+
+    @Param({ "10" })
+    public int plexusPercent;
+
+    @Param({ "1", "4" })
+    public int jarCount;
+
+    private List<Path> jars;
+    private List<URLClassLoader> classLoaders;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        jars = new SyntheticClasspath(componentCount, hierarchyDepth, injectionPoints, plexusPercent, jarCount).getJars();
+    }
+
+    @Setup(Level.Invocation)
+    public void createClassLoaders() {
+        classLoaders = SyntheticClasspath.createClassLoaders(jars);
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeClassLoaders() throws IOException {
+        for (URLClassLoader classLoader : classLoaders) {
+            classLoader.close();
+        }
+    }
+
+    @Benchmark
+    public BeanBag sisu(Counters counters) {
+        final long loaded = counters.startClassLoading();
+        final BeanBag.Builder builder = BeanBag.builder();
+        final Sisu sisu = Sisu.createFor(builder);
+        for (ClassLoader classLoader : classLoaders) {
+            sisu.addClassLoader(classLoader, DependencyFilter.ACCEPT);
+        }
+        final BeanBag container = builder.build();
+        counters.finish(loaded);
+        for (Sisu.ScanMetric metric : sisu.getScanMetrics()) {
+            counters.bytesRead += metric.getBytesRead();
+        }
+        return container;
+    }
+
+    @Benchmark
+    public MavenFactory mavenFactory(Counters counters) {
+        final long loaded = counters.startClassLoading();
+        final MavenFactory factory = MavenFactory.create(List.copyOf(classLoaders), builder -> {
+        }, DependencyFilter.ACCEPT);
+        counters.finish(loaded);
+        return factory;
+    }
+
+    /**
+     * The secondary results of each scan.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        private final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+
+        public long classesLoaded;
+        public long bytesRead;
+        public long peakHeapMiB;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            classesLoaded = 0;
+            bytesRead = 0;
+            peakHeapMiB = 0;
+        }
+
+        long startClassLoading() {
+            return classLoading.getTotalLoadedClassCount();
+        }
+
+        void finish(long loaded) {
+            classesLoaded += classLoading.getTotalLoadedClassCount() - loaded;
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peak += pool.getPeakUsage().getUsed();
+                }
+            }
+            peakHeapMiB = Math.max(peakHeapMiB, peak >> 20);
+        }
+    }
+}
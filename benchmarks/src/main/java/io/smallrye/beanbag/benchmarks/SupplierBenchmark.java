@@ -0,0 +1,95 @@
+package io.smallrye.beanbag.benchmarks;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.smallrye.beanbag.BeanBag;
+
+/**
+ * Compare reflective and generated suppliers for a per-lookup bean with constructor, field, and method injection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SupplierBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean generated;
+
+    private BeanBag container;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addBean(Dependency.class)
+                .setSingleton(true)
+                .buildSupplier()
+                .setConstructor(Dependency.class.getConstructor())
+                .build()
+                .build();
+        final Constructor<Component> constructor = Component.class.getDeclaredConstructor(Dependency.class, Dependency.class);
+        final Field first = Component.class.getDeclaredField("first");
+        final Field second = Component.class.getDeclaredField("second");
+        final Method setter = Component.class.getDeclaredMethod("setThird", Dependency.class);
+        constructor.setAccessible(true);
+        first.setAccessible(true);
+        second.setAccessible(true);
+        setter.setAccessible(true);
+        builder.addBean(Component.class)
+                .buildSupplier()
+                .setGenerated(generated)
+                .setConstructor(constructor)
+                .addConstructorArgument(Dependency.class)
+                .addConstructorArgument(Dependency.class)
+                .injectField(first)
+                .injectField(second)
+                .injectMethod(setter)
+                .build()
+                .build();
+        container = builder.build();
+    }
+
+    @Benchmark
+    public Component instantiate() {
+        return container.requireBean(Component.class);
+    }
+
+    public static class Dependency {
+        public Dependency() {
+        }
+    }
+
+    public static class Component {
+        private final Dependency a;
+        private final Dependency b;
+        private Dependency first;
+        Dependency second;
+        private Dependency third;
+
+        Component(final Dependency a, final Dependency b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        void setThird(final Dependency third) {
+            this.third = third;
+        }
+    }
+}
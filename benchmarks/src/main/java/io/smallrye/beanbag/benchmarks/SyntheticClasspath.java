@@ -0,0 +1,248 @@
+package io.smallrye.beanbag.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * A generator of JAR files containing synthetic SISU and Plexus components, for the discovery benchmarks.
+ * <p>
+ * Each JAR has its own package containing an {@code Api} interface, a chain of abstract base classes, and the
+ * components, which implement {@code Api} through the base classes.
+ * Most components are annotated with {@code @Named} and listed in {@code META-INF/sisu/javax.inject.Named};
+ * the others are plain classes which are described in {@code META-INF/plexus/components.xml}.
+ * Each component has the given number of injected {@code Api} fields, which refer to other components by name.
+ * <p>
+ * Compiling the components requires a JDK. The generated JARs are kept in the temporary directory and reused by later
+ * runs with the same parameters.
+ */
+public final class SyntheticClasspath {
+    private static final int COMPILE_BATCH = 5000;
+
+    private final int componentCount;
+    private final int hierarchyDepth;
+    private final int injectionPoints;
+    private final int plexusPercent;
+    private final int jarCount;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param componentCount the total number of components, which are spread evenly over the JARs
+     * @param hierarchyDepth the number of abstract base classes of each component
+     * @param injectionPoints the number of injected fields of each component
+     * @param plexusPercent the percentage of components which are described in {@code components.xml}
+     * @param jarCount the number of JARs
+     */
+    public SyntheticClasspath(final int componentCount, final int hierarchyDepth, final int injectionPoints,
+            final int plexusPercent, final int jarCount) {
+        this.componentCount = componentCount;
+        this.hierarchyDepth = hierarchyDepth;
+        this.injectionPoints = injectionPoints;
+        this.plexusPercent = plexusPercent;
+        this.jarCount = jarCount;
+    }
+
+    /**
+     * Get the JARs for this configuration, generating them if they do not exist yet.
+     *
+     * @return the JAR paths (not {@code null})
+     * @throws IOException if generating the JARs failed
+     */
+    public List<Path> getJars() throws IOException {
+        final Path directory = Path.of(System.getProperty("java.io.tmpdir"), "beanbag-benchmarks",
+                "c" + componentCount + "-d" + hierarchyDepth + "-i" + injectionPoints + "-p" + plexusPercent + "-j" + jarCount);
+        final List<Path> jars = new ArrayList<>(jarCount);
+        for (int j = 0; j < jarCount; j++) {
+            final Path jar = directory.resolve("synthetic" + j + ".jar");
+            if (!Files.exists(jar)) {
+                generateJar(directory, j, jar);
+            }
+            jars.add(jar);
+        }
+        return jars;
+    }
+
+    /**
+     * Create a class loader for each of the given JARs.
+     * The class loaders see the classes of the benchmark class path, but none of its SISU or Plexus metadata.
+     *
+     * @param jars the JAR paths (must not be {@code null})
+     * @return the class loaders (not {@code null})
+     */
+    public static List<URLClassLoader> createClassLoaders(List<Path> jars) {
+        final ClassLoader parent = new ClassesOnlyClassLoader(SyntheticClasspath.class.getClassLoader());
+        final List<URLClassLoader> classLoaders = new ArrayList<>(jars.size());
+        for (Path jar : jars) {
+            try {
+                classLoaders.add(new URLClassLoader(new URL[] { jar.toUri().toURL() }, parent));
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return classLoaders;
+    }
+
+    private void generateJar(Path directory, int jarIndex, Path jar) throws IOException {
+        final String packageName = "synthetic.jar" + jarIndex;
+        final Path work = Files.createDirectories(directory.resolve("work" + jarIndex));
+        final Path sources = Files.createDirectories(work.resolve("src").resolve(packageName.replace('.', '/')));
+        final Path classes = Files.createDirectories(work.resolve("classes"));
+        final int first = componentCount * jarIndex / jarCount;
+        final int end = componentCount * (jarIndex + 1) / jarCount;
+
+        final List<Path> baseSources = new ArrayList<>();
+        baseSources.add(write(sources, "Api", "package " + packageName + ";\n\npublic interface Api {\n}\n"));
+        for (int level = 1; level <= hierarchyDepth; level++) {
+            final String parent = level == 1 ? "implements Api" : "extends Base" + (level - 1);
+            baseSources.add(write(sources, "Base" + level,
+                    "package " + packageName + ";\n\npublic abstract class Base" + level + " " + parent + " {\n}\n"));
+        }
+        compile(baseSources, classes);
+
+        final StringBuilder named = new StringBuilder();
+        final StringBuilder components = new StringBuilder();
+        components.append("<component-set>\n  <components>\n");
+        final List<Path> batch = new ArrayList<>(COMPILE_BATCH);
+        for (int i = first; i < end; i++) {
+            final boolean plexus = isPlexus(i);
+            final String className = "Component" + i;
+            final String superclass = hierarchyDepth == 0 ? "implements Api" : "extends Base" + hierarchyDepth;
+            final StringBuilder b = new StringBuilder();
+            b.append("package ").append(packageName).append(";\n\n");
+            if (plexus) {
+                b.append("public class ").append(className).append(' ').append(superclass).append(" {\n");
+            } else {
+                b.append("@javax.inject.Named(\"c").append(i).append("\")\n");
+                b.append("@javax.inject.Singleton\n");
+                b.append("public class ").append(className).append(' ').append(superclass).append(" {\n");
+                named.append(packageName).append('.').append(className).append('\n');
+            }
+            for (int f = 0; f < injectionPoints; f++) {
+                final int target = first + Math.floorMod(i + f + 1 - first, end - first);
+                if (!plexus) {
+                    b.append("    @javax.inject.Inject @javax.inject.Named(\"c").append(target).append("\")\n");
+                }
+                b.append("    Api dep").append(f).append(";\n");
+            }
+            b.append("}\n");
+            if (plexus) {
+                components.append("    <component>\n");
+                components.append("      <role>").append(packageName).append(".Api</role>\n");
+                components.append("      <role-hint>c").append(i).append("</role-hint>\n");
+                components.append("      <implementation>").append(packageName).append('.').append(className)
+                        .append("</implementation>\n");
+                if (injectionPoints > 0) {
+                    components.append("      <requirements>\n");
+                    for (int f = 0; f < injectionPoints; f++) {
+                        final int target = first + Math.floorMod(i + f + 1 - first, end - first);
+                        components.append("        <requirement>\n");
+                        components.append("          <role>").append(packageName).append(".Api</role>\n");
+                        components.append("          <role-hint>c").append(target).append("</role-hint>\n");
+                        components.append("          <field-name>dep").append(f).append("</field-name>\n");
+                        components.append("        </requirement>\n");
+                    }
+                    components.append("      </requirements>\n");
+                }
+                components.append("    </component>\n");
+            }
+            batch.add(write(sources, className, b.toString()));
+            if (batch.size() == COMPILE_BATCH) {
+                compile(batch, classes);
+                batch.clear();
+            }
+        }
+        compile(batch, classes);
+        components.append("  </components>\n</component-set>\n");
+
+        final Path tempJar = Files.createTempFile(directory, "synthetic", ".tmp");
+        try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(tempJar))) {
+            addEntry(jos, "META-INF/sisu/javax.inject.Named", named.toString().getBytes(StandardCharsets.UTF_8));
+            addEntry(jos, "META-INF/plexus/components.xml", components.toString().getBytes(StandardCharsets.UTF_8));
+            try (Stream<Path> stream = Files.walk(classes)) {
+                for (Path file : (Iterable<Path>) stream.filter(Files::isRegularFile).sorted()::iterator) {
+                    addEntry(jos, classes.relativize(file).toString().replace('\\', '/'), Files.readAllBytes(file));
+                }
+            }
+        }
+        Files.move(tempJar, jar);
+    }
+
+    private boolean isPlexus(int index) {
+        // spread the Plexus components evenly
+        return index * plexusPercent / 100 != (index + 1) * plexusPercent / 100;
+    }
+
+    private static Path write(Path directory, String className, String source) throws IOException {
+        final Path path = directory.resolve(className + ".java");
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(source);
+        }
+        return path;
+    }
+
+    private static void compile(List<Path> sources, Path classes) throws IOException {
+        if (sources.isEmpty()) {
+            return;
+        }
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Generating synthetic components requires a JDK");
+        }
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            final Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromPaths(sources);
+            final List<String> options = List.of("-d", classes.toString(), "-classpath",
+                    System.getProperty("java.class.path") + File.pathSeparator + classes, "-proc:none",
+                    "-nowarn");
+            if (!compiler.getTask(null, fileManager, null, options, null, units).call().booleanValue()) {
+                throw new IllegalStateException("Failed to compile synthetic components");
+            }
+        }
+    }
+
+    private static void addEntry(JarOutputStream jos, String name, byte[] content) throws IOException {
+        jos.putNextEntry(new JarEntry(name));
+        jos.write(content);
+        jos.closeEntry();
+    }
+
+    /**
+     * A class loader which delegates class loading to its parent, but hides the metadata resources of the parent, so
+     * that only the synthetic components are discovered.
+     */
+    static final class ClassesOnlyClassLoader extends ClassLoader {
+        static {
+            registerAsParallelCapable();
+        }
+
+        ClassesOnlyClassLoader(final ClassLoader parent) {
+            super(parent);
+        }
+
+        public URL getResource(final String name) {
+            return name.startsWith("META-INF/") ? null : super.getResource(name);
+        }
+
+        public Enumeration<URL> getResources(final String name) throws IOException {
+            return name.startsWith("META-INF/") ? Collections.emptyEnumeration() : super.getResources(name);
+        }
+    }
+}
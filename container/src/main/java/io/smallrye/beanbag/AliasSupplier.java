@@ -0,0 +1,20 @@
+package io.smallrye.beanbag;
+
+/**
+ * A supplier which resolves a specific bean definition, used to implement bean aliases.
+ */
+final class AliasSupplier<T> implements BeanSupplier<T> {
+    private final BeanDefinition<T> definition;
+
+    AliasSupplier(final BeanDefinition<T> definition) {
+        this.definition = definition;
+    }
+
+    BeanDefinition<T> getDefinition() {
+        return definition;
+    }
+
+    public T get(Scope scope) {
+        return scope.requireBean(definition);
+    }
+}
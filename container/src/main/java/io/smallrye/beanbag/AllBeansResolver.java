@@ -4,19 +4,37 @@ import java.util.List;
 
 /**
  * A supplier that resolves all bean from a scope.
+ * A lazy resolver computes its candidates on first resolution from the scopes of each container, binding them in the
+ * same way as a {@link BeanResolver}, and supplies a list which instantiates the beans as it is accessed.
  */
 final class AllBeansResolver<T> implements BeanSupplier<List<T>> {
     private final Class<T> type;
     private final String name;
     private final DependencyFilter filter;
+    private final boolean lazy;
+    private volatile BeanResolver.Binding binding;
 
-    AllBeansResolver(final Class<T> type, final String name, final DependencyFilter filter) {
+    AllBeansResolver(final Class<T> type, final String name, final DependencyFilter filter, final boolean lazy) {
         this.type = type;
         this.name = name;
         this.filter = filter;
+        this.lazy = lazy;
+    }
+
+    public List<InjectionPoint> getInjectionPoints() {
+        return List.of(new InjectionPoint(type, name, true, true, filter));
     }
 
     public List<T> get(Scope scope) {
-        return scope.getAllBeans(type, name, filter);
+        if (!lazy) {
+            return scope.getAllBeans(type, name, filter);
+        }
+        final ScopeDefinition definition = scope.getDefinition();
+        BeanResolver.Binding binding = this.binding;
+        if (binding == null || binding.getDefinition() != definition) {
+            this.binding = binding = BeanResolver.bind(this, scope, definition, type, name, filter);
+        }
+        final int[] candidates = binding.getCandidates();
+        return candidates.length == 0 ? List.of() : new LazyBeanList<>(scope, candidates);
     }
 }
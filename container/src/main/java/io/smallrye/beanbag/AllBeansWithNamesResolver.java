@@ -1,20 +1,56 @@
 package io.smallrye.beanbag;
 
+import java.util.List;
 import java.util.Map;
 
 /**
  * A supplier that resolves all bean from a scope.
+ * A lazy resolver groups its candidates by name on first resolution from the scopes of each container, binding them
+ * in the same way as a {@link BeanResolver}, and supplies a map which instantiates each bean when it is accessed.
  */
 final class AllBeansWithNamesResolver<T> implements BeanSupplier<Map<String, T>> {
     private final Class<T> type;
     private final DependencyFilter filter;
+    private final boolean lazy;
+    private volatile Binding binding;
 
-    AllBeansWithNamesResolver(final Class<T> type, final DependencyFilter filter) {
+    AllBeansWithNamesResolver(final Class<T> type, final DependencyFilter filter, final boolean lazy) {
         this.type = type;
         this.filter = filter;
+        this.lazy = lazy;
+    }
+
+    public List<InjectionPoint> getInjectionPoints() {
+        return List.of(new InjectionPoint(type, "", true, true, filter));
     }
 
     public Map<String, T> get(Scope scope) {
-        return scope.getAllBeansWithNames(type, filter);
+        if (!lazy) {
+            return scope.getAllBeansWithNames(type, filter);
+        }
+        final ScopeDefinition definition = scope.getDefinition();
+        Binding binding = this.binding;
+        if (binding == null || binding.definition != definition) {
+            binding = definition.getBinding(this);
+            if (binding == null) {
+                binding = definition.putBinding(this, new Binding(definition,
+                        new LazyBeanMap.Names(definition, scope.getCandidates(type, "", filter))));
+            }
+            this.binding = binding;
+        }
+        return new LazyBeanMap<>(scope, binding.names);
+    }
+
+    /**
+     * The candidates of this resolver which were computed for a given scope definition.
+     */
+    static final class Binding {
+        private final ScopeDefinition definition;
+        private final LazyBeanMap.Names names;
+
+        Binding(final ScopeDefinition definition, final LazyBeanMap.Names names) {
+            this.definition = definition;
+            this.names = names;
+        }
     }
 }
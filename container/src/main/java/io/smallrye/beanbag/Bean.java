@@ -1,21 +1,32 @@
 package io.smallrye.beanbag;
 
-import java.util.Comparator;
-import java.util.Set;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
 
 import io.smallrye.common.constraint.Assert;
 
 /**
  * A holder for an instance of a bean with a given definition within a given scope.
+ * <p>
+ * Instantiation is claimed by atomically replacing the pending result with an in-progress marker; no lock is held
+ * while the bean supplier runs.
+ * Threads which find a bean in progress wait for the owning thread to publish its result, while a thread which finds
+ * its own in-progress bean (or a chain of waiting threads which leads back to itself) has found a dependency cycle.
  *
  * @param <T> the bean type (which is usually, but not always, the concrete type of the instance)
  */
 final class Bean<T> implements BeanSupplier<T> {
-    private static final Comparator<Bean<?>> BY_PRIORITY = Comparator.<Bean<?>> comparingInt(Bean::getPriority).reversed();
+    private static final VarHandle RESULT;
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
-    static <T> Comparator<Bean<? extends T>> byPriority() {
-        return (Comparator<Bean<? extends T>>) (Comparator) BY_PRIORITY;
+    static {
+        try {
+            RESULT = MethodHandles.lookup().findVarHandle(Bean.class, "result", Result.class);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
     }
 
     private final BeanDefinition<T> definition;
@@ -47,22 +58,11 @@ final class Bean<T> implements BeanSupplier<T> {
         return result.get(scope);
     }
 
-    boolean matchesByType(final Class<?> type) {
-        final Set<Class<? super T>> restrictedTypes = definition.getRestrictedTypes();
-        if (!type.isAssignableFrom(definition.getType())) {
-            // cannot be assigned
-            return false;
-        }
-        if (restrictedTypes.isEmpty()) {
-            return true;
-        } else {
-            for (Class<? super T> restrictedType : restrictedTypes) {
-                if (restrictedType.isAssignableFrom(type)) {
-                    return true;
-                }
-            }
-            return false;
-        }
+    /**
+     * {@return the bean instance if it was successfully instantiated, or {@code null} otherwise}
+     */
+    T getInstantiated() {
+        return result instanceof Instantiated<T> instantiated ? instantiated.instance : null;
     }
 
     static abstract class Result<T> {
@@ -115,26 +115,122 @@ final class Bean<T> implements BeanSupplier<T> {
         }
 
         T get(final Scope scope) throws BeanInstantiationException {
-            T object;
-            synchronized (Bean.this) {
-                final Result<T> existing = Bean.this.result;
-                if (existing != this) {
-                    return existing.get(scope);
+            final Resolution resolution = Resolution.current();
+            final InProgress inProgress = new InProgress(resolution);
+            if (!RESULT.compareAndSet(Bean.this, this, inProgress)) {
+                // someone else got here first
+                return Bean.this.result.get(scope);
+            }
+            Result<T> result = null;
+            resolution.push(Bean.this);
+            try {
+                final T object = provider.get(scope);
+                result = object == null ? missing() : new Instantiated<>(object);
+                return object;
+            } catch (BeanInstantiationException bie) {
+                result = new Failed<>(bie.getMessage(), bie);
+                return result.get(scope);
+            } catch (Throwable t) {
+                result = new Failed<>("Failed to instantiate a bean", t);
+                return result.get(scope);
+            } finally {
+                resolution.pop();
+                if (result == null) {
+                    // never leave waiters stranded
+                    result = new Failed<>("Failed to instantiate a bean", null);
+                }
+                Bean.this.result = result;
+                inProgress.latch.countDown();
+            }
+        }
+    }
+
+    /**
+     * The result of a bean whose instantiation is underway on some thread.
+     * Other threads wait for the owning thread to finish; the owning thread itself has encountered a dependency cycle.
+     */
+    /* non-static */ final class InProgress extends Result<T> {
+        private final Resolution owner;
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        InProgress(final Resolution owner) {
+            this.owner = owner;
+        }
+
+        T get(final Scope scope) throws BeanInstantiationException {
+            final Resolution resolution = Resolution.current();
+            if (owner == resolution) {
+                throw new BeanInstantiationException("Dependency cycle detected: " + resolution.describeCycle(Bean.this));
+            }
+            resolution.waitingOn = this;
+            try {
+                // check for a cross-thread cycle by following the chain of waiting threads
+                Bean<?>.InProgress waitingOn = this;
+                while (waitingOn != null && waitingOn.latch.getCount() > 0) {
+                    final Resolution waitingOwner = waitingOn.owner;
+                    if (waitingOwner == resolution) {
+                        throw new BeanInstantiationException(
+                                "Dependency cycle detected across threads while resolving " + Bean.this);
+                    }
+                    waitingOn = waitingOwner.waitingOn;
                 }
+                boolean intr = false;
                 try {
-                    object = provider.get(scope);
-                } catch (BeanInstantiationException bie) {
-                    final Failed<T> failed = new Failed<>(bie.getMessage(), bie);
-                    Bean.this.result = failed;
-                    return failed.get(scope);
-                } catch (Throwable t) {
-                    final Failed<T> failed = new Failed<>("Failed to instantiate a bean", t);
-                    Bean.this.result = failed;
-                    return failed.get(scope);
+                    for (;;) {
+                        try {
+                            latch.await();
+                            break;
+                        } catch (InterruptedException e) {
+                            intr = true;
+                        }
+                    }
+                } finally {
+                    if (intr) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            } finally {
+                resolution.waitingOn = null;
+            }
+            return Bean.this.result.get(scope);
+        }
+    }
+
+    /**
+     * The per-thread bean resolution state.
+     */
+    static final class Resolution {
+        private static final ThreadLocal<Resolution> CURRENT = ThreadLocal.withInitial(Resolution::new);
+
+        private final ArrayDeque<Bean<?>> stack = new ArrayDeque<>();
+        volatile Bean<?>.InProgress waitingOn;
+
+        static Resolution current() {
+            return CURRENT.get();
+        }
+
+        void push(Bean<?> bean) {
+            stack.push(bean);
+        }
+
+        void pop() {
+            stack.pop();
+        }
+
+        String describeCycle(Bean<?> bean) {
+            final StringBuilder b = new StringBuilder();
+            final Iterator<Bean<?>> iterator = stack.descendingIterator();
+            boolean found = false;
+            while (iterator.hasNext()) {
+                final Bean<?> next = iterator.next();
+                if (next == bean) {
+                    found = true;
+                }
+                if (found) {
+                    b.append(next.getType().getName()).append(" -> ");
                 }
-                Bean.this.result = object == null ? missing() : new Instantiated<>(object);
             }
-            return object;
+            return b.append(bean.getType().getName()).toString();
         }
     }
 
@@ -5,11 +5,15 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
 
 import io.smallrye.common.constraint.Assert;
 
@@ -19,17 +23,38 @@ import io.smallrye.common.constraint.Assert;
 public final class BeanBag {
 
     private final Scope singletonScope;
+    private final ScopeDefinition singletonDefinition;
     private final ScopeDefinition scopeDefinition;
+    private volatile DependencyGraph dependencyGraph;
 
     BeanBag(Builder builder) {
         final List<BeanDefinition<?>> definitions = new ArrayList<>();
         final List<BeanDefinition<?>> singletonBeans = new ArrayList<>();
-        for (BeanBuilder<?> beanBuilder : builder.beanBuilders) {
-            addDefinitionsTo(beanBuilder, beanBuilder.singleton ? singletonBeans : definitions);
+        // lazy and other beans are defined in the order that they were built, which breaks ties of priority
+        for (Object item : builder.beanBuilders) {
+            if (item instanceof LazyBeanBuilder lazyBeanBuilder) {
+                (lazyBeanBuilder.singleton ? singletonBeans : definitions).add(BeanDefinition.lazy(builder,
+                        lazyBeanBuilder.name, lazyBeanBuilder.priority, lazyBeanBuilder.classLoader,
+                        lazyBeanBuilder.className, Set.copyOf(lazyBeanBuilder.typeNames),
+                        List.copyOf(lazyBeanBuilder.restrictedTypeNames), lazyBeanBuilder.initializer,
+                        lazyBeanBuilder.eager));
+            } else {
+                final BeanBuilder<?> beanBuilder = (BeanBuilder<?>) item;
+                addDefinitionsTo(beanBuilder, beanBuilder.singleton ? singletonBeans : definitions);
+            }
+        }
+        final BeanBag base = builder.base;
+        if (base != null) {
+            // the definitions of the base follow those of the builder, so that the latter win ties of priority
+            definitions.addAll(base.scopeDefinition.getBeanDefinitions());
+            singletonBeans.addAll(base.singletonDefinition.getBeanDefinitions());
         }
+        // the type indexes are computed once here and shared by every scope
+        final ScopeDefinition singletonDefinition = new ScopeDefinition(null, List.copyOf(singletonBeans));
         // create a copy of the non-singleton scope so singletons can inject from there
-        final ScopeDefinition scopeDefinition = new ScopeDefinition(List.copyOf(definitions));
-        singletonScope = new Scope(this, null, scopeDefinition, new ScopeDefinition(singletonBeans));
+        final ScopeDefinition scopeDefinition = new ScopeDefinition(singletonDefinition, List.copyOf(definitions));
+        singletonScope = new Scope(this, null, scopeDefinition, singletonDefinition);
+        this.singletonDefinition = singletonDefinition;
         this.scopeDefinition = scopeDefinition;
     }
 
@@ -41,12 +66,13 @@ public final class BeanBag {
         final BeanSupplier<T> supplier = beanBuilder.supplier;
         final int priority = beanBuilder.priority;
         final Class<T> type = beanBuilder.type;
-        BeanDefinition<T> definition = new BeanDefinition<>(name, priority, type, restrictedTypes, supplier);
+        BeanDefinition<T> definition = new BeanDefinition<>(name, priority, type, restrictedTypes, supplier,
+                beanBuilder.eager);
         definitions.add(definition);
         if (aliases != null) {
             for (String alias : aliases) {
                 definitions.add(
-                        new BeanDefinition<>(alias, priority, type, restrictedTypes, scope -> scope.requireBean(definition)));
+                        new BeanDefinition<>(alias, priority, type, restrictedTypes, new AliasSupplier<>(definition), false));
             }
         }
     }
@@ -61,6 +87,74 @@ public final class BeanBag {
         return new Scope(this, singletonScope, null, scopeDefinition);
     }
 
+    /**
+     * Get the static dependency graph of this container.
+     * The graph is computed on first use, without instantiating any beans.
+     *
+     * @return the dependency graph (not {@code null})
+     */
+    public DependencyGraph getDependencyGraph() {
+        DependencyGraph dependencyGraph = this.dependencyGraph;
+        if (dependencyGraph == null) {
+            dependencyGraph = this.dependencyGraph = new DependencyGraph(singletonDefinition, scopeDefinition);
+        }
+        return dependencyGraph;
+    }
+
+    /**
+     * Instantiate all eager singleton beans ahead of time using the given executor.
+     * The part of the {@linkplain #getDependencyGraph() dependency graph} which is reachable from the eager beans is
+     * used to plan the work: each eager bean and each
+     * singleton that it is expected to depend on is instantiated in a separate task which starts once the task of
+     * each of its own singleton dependencies has finished, so independent subgraphs are constructed in parallel.
+     * Lazily defined beans outside of that part of the graph are not loaded.
+     * Beans which fail to instantiate cause the returned future to complete exceptionally; the failure is also
+     * reported to later lookups of the bean.
+     *
+     * @param executor the executor to use (must not be {@code null})
+     * @return a future which completes when all eager beans are instantiated (not {@code null})
+     * @see BeanBuilder#setEager(boolean)
+     */
+    public CompletableFuture<Void> warmUp(final Executor executor) {
+        Assert.checkNotNullParam("executor", executor);
+        final List<DependencyGraph.Node> eagerNodes = DependencyGraph.getEagerNodes(singletonDefinition, scopeDefinition);
+        if (eagerNodes.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final Map<DependencyGraph.Node, CompletableFuture<Void>> tasks = new HashMap<>();
+        final Set<DependencyGraph.Node> visiting = new HashSet<>();
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (DependencyGraph.Node node : eagerNodes) {
+            futures.add(warmUp(node, executor, tasks, visiting));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new));
+    }
+
+    private CompletableFuture<Void> warmUp(final DependencyGraph.Node node, final Executor executor,
+            final Map<DependencyGraph.Node, CompletableFuture<Void>> tasks, final Set<DependencyGraph.Node> visiting) {
+        CompletableFuture<Void> task = tasks.get(node);
+        if (task != null) {
+            return task;
+        }
+        if (!visiting.add(node)) {
+            // a cycle; the instantiation itself will report it
+            return CompletableFuture.completedFuture(null);
+        }
+        final List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+        for (DependencyGraph.Node dependency : node.getExpectedDependencies()) {
+            dependencies.add(warmUp(dependency, executor, tasks, visiting));
+        }
+        visiting.remove(node);
+        // failed dependencies are reported by the beans which need them
+        task = CompletableFuture.allOf(dependencies.toArray(CompletableFuture<?>[]::new)).exceptionally(t -> null);
+        if (node.isSingleton()) {
+            final BeanDefinition<?> definition = node.getDefinition();
+            task = task.thenRunAsync(() -> singletonScope.requireBean(definition), executor);
+        }
+        tasks.put(node, task);
+        return task;
+    }
+
     /**
      * Get all constructable beans of the given type from a new resolution scope.
      *
@@ -69,7 +163,10 @@ public final class BeanBag {
      * @param <T> the allowed bean type
      */
     public <T> List<T> getAllBeans(final Class<T> type) {
-        return newScope().getAllBeans(type);
+        final int[] entries = scopeDefinition.getEntries(type);
+        // fast path: all of the beans are existing singletons
+        final List<T> list = singletonScope.getAllInstantiated(entries);
+        return list != null ? list : newScope().getAllBeans(type);
     }
 
     /**
@@ -82,7 +179,8 @@ public final class BeanBag {
      * @throws BeanInstantiationException if some error occurred when instantiating the bean
      */
     public <T> T requireBean(Class<T> type) {
-        return newScope().requireBean(type);
+        final T instance = getInstantiatedSingleton(type, "");
+        return instance != null ? instance : newScope().requireBean(type);
     }
 
     /**
@@ -96,7 +194,8 @@ public final class BeanBag {
      * @throws BeanInstantiationException if some error occurred when instantiating the bean
      */
     public <T> T requireBean(Class<T> type, String name) {
-        return newScope().requireBean(type, name);
+        final T instance = getInstantiatedSingleton(type, name);
+        return instance != null ? instance : newScope().requireBean(type, name);
     }
 
     /**
@@ -107,7 +206,8 @@ public final class BeanBag {
      * @param <T> the allowed bean type
      */
     public <T> T getOptionalBean(Class<T> type) {
-        return newScope().getOptionalBean(type);
+        final T instance = getInstantiatedSingleton(type, "");
+        return instance != null ? instance : newScope().getOptionalBean(type);
     }
 
     /**
@@ -119,7 +219,69 @@ public final class BeanBag {
      * @param <T> the allowed bean type
      */
     public <T> T getOptionalBean(Class<T> type, String name) {
-        return newScope().getOptionalBean(type, name);
+        final T instance = getInstantiatedSingleton(type, name);
+        return instance != null ? instance : newScope().getOptionalBean(type, name);
+    }
+
+    /**
+     * Determine whether a bean with the given type is defined, without creating a resolution scope or instantiating
+     * any bean.
+     * A defined bean may still fail to be instantiated, or may have a {@code null} value.
+     *
+     * @param type the allowed bean type class (must not be {@code null})
+     * @return {@code true} if a matching bean is defined, or {@code false} if there is none
+     */
+    public boolean hasBean(Class<?> type) {
+        return hasBean(type, "", DependencyFilter.ACCEPT);
+    }
+
+    /**
+     * Determine whether a bean with the given type and name is defined, without creating a resolution scope or
+     * instantiating any bean.
+     * A defined bean may still fail to be instantiated, or may have a {@code null} value.
+     *
+     * @param type the allowed bean type class (must not be {@code null})
+     * @param name the name of the bean, or {@code ""} for any (must not be {@code null})
+     * @return {@code true} if a matching bean is defined, or {@code false} if there is none
+     */
+    public boolean hasBean(Class<?> type, String name) {
+        return hasBean(type, name, DependencyFilter.ACCEPT);
+    }
+
+    /**
+     * Determine whether a bean with the given type and name is defined, without creating a resolution scope or
+     * instantiating any bean.
+     * The filter is applied to each bean definition to determine whether it should be considered.
+     * A defined bean may still fail to be instantiated, or may have a {@code null} value.
+     *
+     * @param type the allowed bean type class (must not be {@code null})
+     * @param name the name of the bean, or {@code ""} for any (must not be {@code null})
+     * @param filter the filter to apply to determine whether a given bean should be included (must not be {@code null})
+     * @return {@code true} if a matching bean is defined, or {@code false} if there is none
+     */
+    public boolean hasBean(Class<?> type, String name, DependencyFilter filter) {
+        Assert.checkNotNullParam("type", type);
+        Assert.checkNotNullParam("name", name);
+        Assert.checkNotNullParam("filter", filter);
+        return scopeDefinition.hasEntry(type, name, filter);
+    }
+
+    /**
+     * Get the instance of the preferred bean of the given type and name if it is a singleton which has already been
+     * instantiated.
+     * Such a lookup can be answered without creating a resolution scope.
+     *
+     * @param type the allowed bean type class (must not be {@code null})
+     * @param name the name of the bean, or {@code ""} for any (must not be {@code null})
+     * @return the existing singleton instance, or {@code null} if the lookup requires a resolution scope
+     * @param <T> the allowed bean type
+     */
+    private <T> T getInstantiatedSingleton(final Class<T> type, final String name) {
+        final int[] entries = scopeDefinition.getEntries(type, name);
+        if (entries.length > 0 && ScopeDefinition.isInherited(entries[0])) {
+            return singletonScope.getInstantiated(~entries[0]);
+        }
+        return null;
     }
 
     /**
@@ -128,7 +290,22 @@ public final class BeanBag {
      * @return the new builder (not {@code null})
      */
     public static Builder builder() {
-        return new Builder();
+        return new Builder(null);
+    }
+
+    /**
+     * Construct a new container builder which starts out with all the beans of the given container.
+     * The bean definitions of the given container are shared rather than copied or discovered again, so building
+     * the new container is cheap; however, the new container has its own singleton instances.
+     * Beans which are added to the new builder take precedence over beans of the same priority from the given
+     * container.
+     *
+     * @param base the container whose beans should be included (must not be {@code null})
+     * @return the new builder (not {@code null})
+     */
+    public static Builder builder(BeanBag base) {
+        Assert.checkNotNullParam("base", base);
+        return new Builder(base);
     }
 
     /**
@@ -148,11 +325,17 @@ public final class BeanBag {
         private List<String> includePackages = List.of();
 
         /**
-         * Bean builders may be added concurrently
+         * Bean builders and lazy bean builders, in the order that they were built; they may be added concurrently
          */
-        private final Collection<BeanBuilder<?>> beanBuilders = new ConcurrentLinkedDeque<>();
+        private final Collection<Object> beanBuilders = new ConcurrentLinkedDeque<>();
 
-        Builder() {
+        /**
+         * The container whose bean definitions are included, if any
+         */
+        private final BeanBag base;
+
+        Builder(final BeanBag base) {
+            this.base = base;
         }
 
         /**
@@ -226,6 +409,23 @@ public final class BeanBag {
             return new BeanBuilder<T>(this, type);
         }
 
+        /**
+         * Add a new bean which is defined by the name of its class, returning a builder to configure it.
+         * The class is not loaded until a lookup by one of the {@linkplain LazyBeanBuilder#addTypeNames(Collection) type
+         * names} of the bean selects it, and the bean's supplier is not established until the bean is first
+         * instantiated.
+         * If the class cannot be loaded, the bean is silently ignored.
+         *
+         * @param classLoader the class loader to load the bean class from (must not be {@code null})
+         * @param className the binary name of the concrete bean class (must not be {@code null})
+         * @return the lazy bean builder (not {@code null})
+         */
+        public LazyBeanBuilder addLazyBean(final ClassLoader classLoader, final String className) {
+            Assert.checkNotNullParam("classLoader", classLoader);
+            Assert.checkNotNullParam("className", className);
+            return new LazyBeanBuilder(this, classLoader, className);
+        }
+
         /**
          * Add a new bean which resolves to the given instance.
          *
@@ -264,10 +464,17 @@ public final class BeanBag {
         private Set<String> aliases;
         private BeanSupplier<T> supplier;
         private boolean singleton;
+        private boolean eager;
+        private final boolean committed;
 
         BeanBuilder(final Builder builder, final Class<T> type) {
+            this(builder, type, false);
+        }
+
+        BeanBuilder(final Builder builder, final Class<T> type, final boolean committed) {
             this.builder = builder;
             this.type = type;
+            this.committed = committed;
         }
 
         /**
@@ -350,12 +557,32 @@ public final class BeanBag {
         /**
          * Set the singleton flag for this bean.
          * A singleton is created in a scope which is global to a single container.
+         * Clearing this flag also clears the {@linkplain #setEager(boolean) eager flag}, since only singletons can be eager.
          *
          * @param singleton the value of the singleton flag
          * @return this builder (not {@code null})
          */
         public BeanBuilder<T> setSingleton(final boolean singleton) {
             this.singleton = singleton;
+            if (!singleton) {
+                eager = false;
+            }
+            return this;
+        }
+
+        /**
+         * Set the eager flag for this bean.
+         * An eager bean is a singleton which is instantiated ahead of time by {@link BeanBag#warmUp(Executor)}.
+         * Setting this flag to {@code true} also marks the bean as a singleton.
+         *
+         * @param eager the value of the eager flag
+         * @return this builder (not {@code null})
+         */
+        public BeanBuilder<T> setEager(final boolean eager) {
+            this.eager = eager;
+            if (eager) {
+                singleton = true;
+            }
             return this;
         }
 
@@ -382,6 +609,145 @@ public final class BeanBag {
          * @return the container builder (not {@code null})
          */
         public Builder build() {
+            if (!committed) {
+                builder.beanBuilders.add(this);
+            }
+            return builder;
+        }
+
+        BeanSupplier<T> getSupplier() {
+            return supplier;
+        }
+    }
+
+    /**
+     * A builder for the configuration of a lazily defined bean.
+     * Since the bean class is not loaded up front, its types are given by name.
+     */
+    public static final class LazyBeanBuilder {
+        private final Builder builder;
+        private final ClassLoader classLoader;
+        private final String className;
+        private final Set<String> typeNames = new HashSet<>();
+        private final List<String> restrictedTypeNames = new ArrayList<>();
+
+        private int priority = 0;
+        private String name = "";
+        private boolean singleton;
+        private boolean eager;
+        private LazyBeanInitializer initializer;
+
+        LazyBeanBuilder(final Builder builder, final ClassLoader classLoader, final String className) {
+            this.builder = builder;
+            this.classLoader = classLoader;
+            this.className = className;
+            typeNames.add(className);
+        }
+
+        /**
+         * Set the bean priority. Higher numbers have higher precedence.
+         *
+         * @param priority the bean priority
+         * @return this builder (not {@code null})
+         * @see BeanBuilder#setPriority(int)
+         */
+        public LazyBeanBuilder setPriority(final int priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * Set the bean name. Beans with no name have a name of the empty string {@code ""}.
+         *
+         * @param name the bean name (must not be {@code null})
+         * @return this builder (not {@code null})
+         */
+        public LazyBeanBuilder setName(final String name) {
+            Assert.checkNotNullParam("name", name);
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Set the singleton flag for this bean.
+         * Clearing this flag also clears the eager flag.
+         *
+         * @param singleton the value of the singleton flag
+         * @return this builder (not {@code null})
+         * @see BeanBuilder#setSingleton(boolean)
+         */
+        public LazyBeanBuilder setSingleton(final boolean singleton) {
+            this.singleton = singleton;
+            if (!singleton) {
+                eager = false;
+            }
+            return this;
+        }
+
+        /**
+         * Set the eager flag for this bean.
+         * Setting this flag to {@code true} also marks the bean as a singleton.
+         *
+         * @param eager the value of the eager flag
+         * @return this builder (not {@code null})
+         * @see BeanBuilder#setEager(boolean)
+         */
+        public LazyBeanBuilder setEager(final boolean eager) {
+            this.eager = eager;
+            if (eager) {
+                singleton = true;
+            }
+            return this;
+        }
+
+        /**
+         * Add the binary names of types that the bean may be looked up by.
+         * These should be the names of every supertype of the bean class; lookups by types which are not named here
+         * will not find the bean.
+         * The bean class itself is always included.
+         *
+         * @param names the type names (must not be {@code null})
+         * @return this builder (not {@code null})
+         */
+        public LazyBeanBuilder addTypeNames(final Collection<String> names) {
+            Assert.checkNotNullParam("names", names);
+            typeNames.addAll(names);
+            return this;
+        }
+
+        /**
+         * Restrict the types of this bean by name.
+         * The named types are loaded along with the bean class.
+         *
+         * @param names the binary names of the restricted types (must not be {@code null})
+         * @return this builder (not {@code null})
+         * @see BeanBuilder#addRestrictedTypes(Collection)
+         */
+        public LazyBeanBuilder addRestrictedTypeNames(final Collection<String> names) {
+            Assert.checkNotNullParam("names", names);
+            restrictedTypeNames.addAll(names);
+            return this;
+        }
+
+        /**
+         * Set the initializer which establishes the supplier of this bean once its class is loaded.
+         *
+         * @param initializer the initializer (must not be {@code null})
+         * @return this builder (not {@code null})
+         */
+        public LazyBeanBuilder setInitializer(final LazyBeanInitializer initializer) {
+            Assert.checkNotNullParam("initializer", initializer);
+            this.initializer = initializer;
+            return this;
+        }
+
+        /**
+         * Commit this bean definition into the enclosing container builder.
+         *
+         * @return the container builder (not {@code null})
+         */
+        public Builder build() {
+            Assert.checkNotNullParam("initializer", initializer);
             builder.beanBuilders.add(this);
             return builder;
         }
@@ -397,6 +763,7 @@ public final class BeanBag {
         private final List<BeanSupplier<?>> argumentSuppliers = new ArrayList<>();
         private Constructor<T> constructor;
         private List<Injector<T>> injectors;
+        private boolean generated;
 
         SupplierBuilder(final BeanBuilder<T> beanBuilder) {
             this.beanBuilder = beanBuilder;
@@ -414,6 +781,20 @@ public final class BeanBag {
             return this;
         }
 
+        /**
+         * Set whether the supplier should be implemented using a generated class instead of reflection.
+         * A generated supplier constructs and injects the bean using direct bytecode operations.
+         * Any constructor, field, or method which cannot be accessed from generated code is still
+         * handled reflectively, and if no part of the supplier can be generated, the reflective supplier is used.
+         *
+         * @param generated {@code true} to use a generated class, or {@code false} to use reflection
+         * @return this builder (not {@code null})
+         */
+        public SupplierBuilder<T> setGenerated(final boolean generated) {
+            this.generated = generated;
+            return this;
+        }
+
         private List<Injector<T>> getInjectorList() {
             final List<Injector<T>> injectors = this.injectors;
             if (injectors == null) {
@@ -696,11 +1077,19 @@ public final class BeanBag {
          * @return the enclosing bean builder (not {@code null})
          */
         public BeanBuilder<T> build() {
-            BeanSupplier<T> supplier = new ConstructorSupplier<>(Assert.checkNotNullParam("constructor", constructor),
-                    argumentSuppliers);
-            final List<Injector<T>> injectors = this.injectors;
-            if (injectors != null) {
-                supplier = new InjectingSupplier<>(supplier, List.copyOf(injectors));
+            Assert.checkNotNullParam("constructor", constructor);
+            final List<Injector<T>> injectors = this.injectors == null ? List.of() : List.copyOf(this.injectors);
+            final List<BeanSupplier<?>> argumentSuppliers = List.copyOf(this.argumentSuppliers);
+            BeanSupplier<T> supplier = new ConstructorSupplier<>(constructor, argumentSuppliers);
+            if (!injectors.isEmpty()) {
+                supplier = new InjectingSupplier<>(supplier, injectors);
+            }
+            if (generated) {
+                final BeanSupplier<T> generatedSupplier = SupplierGenerator.generate(constructor, argumentSuppliers,
+                        injectors);
+                if (generatedSupplier != null) {
+                    supplier = generatedSupplier;
+                }
             }
             beanBuilder.setSupplier(supplier);
             return beanBuilder;
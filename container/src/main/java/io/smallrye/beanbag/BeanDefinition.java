@@ -1,24 +1,50 @@
 package io.smallrye.beanbag;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 /**
  * The formal definition of a bean.
+ * <p>
+ * A lazy definition initially knows only the name of its bean class and the names of the types it may be looked up
+ * by.
+ * The class is loaded the first time a lookup by one of those names selects the definition, and the supplier is
+ * only established when the bean is first instantiated.
  */
 final class BeanDefinition<T> {
     private final String name;
     private final int priority;
-    private final Class<T> type;
-    private final Set<Class<? super T>> restrictedTypes;
     private final BeanSupplier<T> supplier;
+    private final boolean eager;
+    private final Lazy lazy;
+    private volatile Class<T> type;
+    private volatile Set<Class<? super T>> restrictedTypes;
 
     BeanDefinition(final String name, final int priority, final Class<T> type, final Set<Class<? super T>> restrictedTypes,
-            final BeanSupplier<T> supplier) {
+            final BeanSupplier<T> supplier, final boolean eager) {
         this.name = name;
         this.priority = priority;
         this.type = type;
         this.restrictedTypes = restrictedTypes;
         this.supplier = supplier;
+        this.eager = eager;
+        this.lazy = null;
+    }
+
+    private BeanDefinition(final String name, final int priority, final Lazy lazy, final boolean eager) {
+        this.name = name;
+        this.priority = priority;
+        this.supplier = new LazySupplier();
+        this.eager = eager;
+        this.lazy = lazy;
+    }
+
+    static BeanDefinition<?> lazy(final BeanBag.Builder builder, final String name, final int priority,
+            final ClassLoader classLoader, final String className, final Set<String> typeNames,
+            final List<String> restrictedTypeNames, final LazyBeanInitializer initializer, final boolean eager) {
+        return new BeanDefinition<>(name, priority, new Lazy(builder, classLoader, className, typeNames,
+                restrictedTypeNames, initializer), eager);
     }
 
     public String getName() {
@@ -30,10 +56,16 @@ final class BeanDefinition<T> {
     }
 
     public Class<T> getType() {
+        final Class<T> type = loadType();
+        if (type == null) {
+            throw new BeanInstantiationException("Failed to load bean class " + lazy.className, lazy.failure);
+        }
         return type;
     }
 
     public Set<Class<? super T>> getRestrictedTypes() {
+        // the restricted types of a lazy definition are loaded along with its class
+        getType();
         return restrictedTypes;
     }
 
@@ -41,7 +73,141 @@ final class BeanDefinition<T> {
         return supplier;
     }
 
+    boolean isEager() {
+        return eager;
+    }
+
+    /**
+     * {@return the names of the types that this lazy definition may be looked up by, or {@code null} if the definition
+     * is not lazy}
+     */
+    Set<String> getLazyTypeNames() {
+        return lazy == null ? null : lazy.typeNames;
+    }
+
+    /**
+     * {@return {@code true} if the bean class is loaded, loading it if the definition is lazy}
+     */
+    boolean isAvailable() {
+        return loadType() != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<T> loadType() {
+        Class<T> type = this.type;
+        if (type == null && lazy.failure == null) {
+            // races are harmless; each thread would load the same classes
+            try {
+                type = (Class<T>) Class.forName(lazy.className, false, lazy.classLoader);
+                final List<Class<? super T>> restrictedTypes = new ArrayList<>(lazy.restrictedTypeNames.size());
+                for (String restrictedTypeName : lazy.restrictedTypeNames) {
+                    restrictedTypes.add((Class<? super T>) Class.forName(restrictedTypeName, false, lazy.classLoader));
+                }
+                this.restrictedTypes = Set.copyOf(restrictedTypes);
+                this.type = type;
+            } catch (ClassNotFoundException | LinkageError e) {
+                lazy.failure = e;
+                return null;
+            }
+        }
+        return type;
+    }
+
+    boolean matchesByType(final Class<?> type) {
+        if (lazy != null && !lazy.typeNames.contains(type.getName())) {
+            // avoid loading the class of a lazy bean unless it can match
+            return false;
+        }
+        final Class<T> beanType = loadType();
+        if (beanType == null || !type.isAssignableFrom(beanType)) {
+            // cannot be assigned
+            return false;
+        }
+        final Set<Class<? super T>> restrictedTypes = this.restrictedTypes;
+        if (restrictedTypes.isEmpty()) {
+            return true;
+        } else {
+            for (Class<? super T> restrictedType : restrictedTypes) {
+                if (restrictedType.isAssignableFrom(type)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
     public String toString() {
-        return "Definition for " + getType() + ", name=" + getName() + ", types=" + getRestrictedTypes();
+        final Class<T> type = this.type;
+        return "Definition for " + (type == null ? "class " + lazy.className : type) + ", name=" + getName() + ", types="
+                + (type == null ? lazy.restrictedTypeNames : getRestrictedTypes());
+    }
+
+    /**
+     * The information known about a lazy definition before its class is loaded.
+     */
+    static final class Lazy {
+        private final BeanBag.Builder builder;
+        private final ClassLoader classLoader;
+        private final String className;
+        private final Set<String> typeNames;
+        private final List<String> restrictedTypeNames;
+        private final LazyBeanInitializer initializer;
+        private volatile Throwable failure;
+
+        Lazy(final BeanBag.Builder builder, final ClassLoader classLoader, final String className,
+                final Set<String> typeNames, final List<String> restrictedTypeNames, final LazyBeanInitializer initializer) {
+            this.builder = builder;
+            this.classLoader = classLoader;
+            this.className = className;
+            this.typeNames = typeNames;
+            this.restrictedTypeNames = restrictedTypeNames;
+            this.initializer = initializer;
+        }
+    }
+
+    /**
+     * The supplier of a lazy definition, which establishes the actual supplier on first use.
+     */
+    final class LazySupplier implements BeanSupplier<T> {
+        private volatile BeanSupplier<T> delegate;
+        private volatile RuntimeException failure;
+
+        public T get(final Scope scope) {
+            return getDelegate().get(scope);
+        }
+
+        public List<InjectionPoint> getInjectionPoints() {
+            try {
+                return getDelegate().getInjectionPoints();
+            } catch (BeanInstantiationException ignored) {
+                // reported when the bean is instantiated
+                return List.of();
+            }
+        }
+
+        private BeanSupplier<T> getDelegate() {
+            BeanSupplier<T> delegate = this.delegate;
+            if (delegate == null) {
+                if (failure == null) {
+                    // races are harmless; each thread would produce an equivalent supplier
+                    try {
+                        final Class<T> type = getType();
+                        final BeanBag.BeanBuilder<T> beanBuilder = new BeanBag.BeanBuilder<>(lazy.builder, type, true);
+                        lazy.initializer.initialize(type, beanBuilder);
+                        delegate = beanBuilder.getSupplier();
+                        if (delegate == null) {
+                            throw new BeanInstantiationException("No supplier was established for " + type);
+                        }
+                        this.delegate = delegate;
+                        return delegate;
+                    } catch (RuntimeException | LinkageError e) {
+                        failure = e instanceof RuntimeException re ? re : new BeanInstantiationException(e);
+                    }
+                }
+                throw new BeanInstantiationException("Failed to initialize lazily defined bean of class " + lazy.className,
+                        failure);
+            }
+            return delegate;
+        }
     }
 }
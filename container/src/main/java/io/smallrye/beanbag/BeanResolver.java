@@ -1,13 +1,20 @@
 package io.smallrye.beanbag;
 
+import java.util.List;
+
 /**
  * A supplier that resolves a bean from a scope.
+ * The candidate beans are computed on first resolution from the scopes of each container and kept by its scope
+ * definition; this relies on the dependency filter giving the same answer for the same bean every time.
+ * The most recently used binding is also kept by the resolver, so that a resolver which is used with a single
+ * container does not need to consult the scope definition.
  */
 final class BeanResolver<T> implements BeanSupplier<T> {
     private final Class<T> type;
     private final String name;
     private final boolean optional;
     private final DependencyFilter filter;
+    private volatile Binding binding;
 
     BeanResolver(final Class<T> type, final String name, final boolean optional, final DependencyFilter filter) {
         this.type = type;
@@ -16,7 +23,47 @@ final class BeanResolver<T> implements BeanSupplier<T> {
         this.filter = filter;
     }
 
+    public List<InjectionPoint> getInjectionPoints() {
+        return List.of(new InjectionPoint(type, name, optional, false, filter));
+    }
+
     public T get(Scope scope) {
-        return scope.getBean(type, name, optional, filter);
+        final ScopeDefinition definition = scope.getDefinition();
+        Binding binding = this.binding;
+        if (binding == null || binding.definition != definition) {
+            // first resolution, or resolution from another container
+            this.binding = binding = bind(this, scope, definition, type, name, filter);
+        }
+        return scope.getBean(binding.candidates, type, name, optional);
+    }
+
+    static Binding bind(final BeanSupplier<?> resolver, final Scope scope, final ScopeDefinition definition,
+            final Class<?> type, final String name, final DependencyFilter filter) {
+        final Binding binding = definition.getBinding(resolver);
+        if (binding != null) {
+            return binding;
+        }
+        return definition.putBinding(resolver, new Binding(definition, scope.getCandidates(type, name, filter)));
+    }
+
+    /**
+     * The candidates of this resolver which were computed for a given scope definition.
+     */
+    static final class Binding {
+        private final ScopeDefinition definition;
+        private final int[] candidates;
+
+        Binding(final ScopeDefinition definition, final int[] candidates) {
+            this.definition = definition;
+            this.candidates = candidates;
+        }
+
+        ScopeDefinition getDefinition() {
+            return definition;
+        }
+
+        int[] getCandidates() {
+            return candidates;
+        }
     }
 }
@@ -19,6 +19,16 @@ public interface BeanSupplier<T> {
      */
     T get(Scope scope);
 
+    /**
+     * Get the injection points which are resolved by this supplier.
+     * Suppliers which do not declare their dependencies return an empty list.
+     *
+     * @return the (possibly empty) list of injection points (not {@code null})
+     */
+    default List<InjectionPoint> getInjectionPoints() {
+        return List.of();
+    }
+
     /**
      * Get a bean supplier which always returns the given value.
      *
@@ -39,7 +49,16 @@ public interface BeanSupplier<T> {
      */
     default <U> BeanSupplier<U> transform(Function<T, U> function) {
         Assert.checkNotNullParam("function", function);
-        return scope -> function.apply(get(scope));
+        final BeanSupplier<T> outer = this;
+        return new BeanSupplier<U>() {
+            public U get(final Scope scope) {
+                return function.apply(outer.get(scope));
+            }
+
+            public List<InjectionPoint> getInjectionPoints() {
+                return outer.getInjectionPoints();
+            }
+        };
     }
 
     /**
@@ -73,7 +92,7 @@ public interface BeanSupplier<T> {
         Assert.checkNotNullParam("type", type);
         Assert.checkNotNullParam("name", name);
         Assert.checkNotNullParam("filter", filter);
-        return new AllBeansResolver<>(type, name, filter);
+        return new AllBeansResolver<>(type, name, filter, false);
     }
 
     /**
@@ -88,7 +107,44 @@ public interface BeanSupplier<T> {
     static <T> BeanSupplier<Map<String, T>> resolvingAllByName(Class<T> type, final DependencyFilter filter) {
         Assert.checkNotNullParam("type", type);
         Assert.checkNotNullParam("filter", filter);
-        return new AllBeansWithNamesResolver<>(type, filter);
+        return new AllBeansWithNamesResolver<>(type, filter, false);
+    }
+
+    /**
+     * Get a bean supplier whose value is an immutable list of all the beans with the given parameters, which are
+     * instantiated in order as the list is accessed.
+     * The list has the same content as the list supplied by {@link #resolvingAll(Class, String, DependencyFilter)};
+     * since beans which fail to instantiate are skipped, getting the size of the list instantiates every bean.
+     *
+     * @param type the bean type class (must not be {@code null})
+     * @param name the bean name, or {@code ""} for any (must not be {@code null})
+     * @param filter the filter to apply to determine whether a given bean should be included (must not be {@code null})
+     * @return the supplier (not {@code null})
+     * @param <T> the bean type
+     */
+    static <T> BeanSupplier<List<T>> resolvingAllLazily(final Class<T> type, final String name,
+            final DependencyFilter filter) {
+        Assert.checkNotNullParam("type", type);
+        Assert.checkNotNullParam("name", name);
+        Assert.checkNotNullParam("filter", filter);
+        return new AllBeansResolver<>(type, name, filter, true);
+    }
+
+    /**
+     * Get a bean supplier whose value is an immutable map of all the beans with the given parameters by name, in
+     * which each bean is instantiated when its name is looked up or reached by iteration.
+     * The map has the same content as the map supplied by {@link #resolvingAllByName(Class, DependencyFilter)},
+     * in order of precedence.
+     *
+     * @param type the bean type class (must not be {@code null})
+     * @param filter the filter to apply to determine whether a given bean should be included (must not be {@code null})
+     * @return the supplier (not {@code null})
+     * @param <T> the bean type
+     */
+    static <T> BeanSupplier<Map<String, T>> resolvingAllByNameLazily(Class<T> type, final DependencyFilter filter) {
+        Assert.checkNotNullParam("type", type);
+        Assert.checkNotNullParam("filter", filter);
+        return new AllBeansWithNamesResolver<>(type, filter, true);
     }
 
 }
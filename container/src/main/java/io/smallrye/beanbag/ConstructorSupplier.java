@@ -19,6 +19,18 @@ final class ConstructorSupplier<T> implements BeanSupplier<T> {
         this.argumentSuppliers = argumentSuppliers;
     }
 
+    Constructor<T> getConstructor() {
+        return constructor;
+    }
+
+    List<BeanSupplier<?>> getArgumentSuppliers() {
+        return argumentSuppliers;
+    }
+
+    public List<InjectionPoint> getInjectionPoints() {
+        return InjectionPoint.of(argumentSuppliers, List.of());
+    }
+
     public T get(Scope scope) {
         final int size = argumentSuppliers.size();
         Object[] arguments = new Object[size];
@@ -26,8 +38,7 @@ final class ConstructorSupplier<T> implements BeanSupplier<T> {
             try {
                 arguments[i] = argumentSuppliers.get(i).get(scope);
             } catch (Exception ex) {
-                throw new BeanInstantiationException(
-                        "Failed to inject argument " + i + " of constructor for " + constructor.getDeclaringClass(), ex);
+                throw argumentFailed(constructor, i, ex);
             }
         }
         try {
@@ -35,7 +46,17 @@ final class ConstructorSupplier<T> implements BeanSupplier<T> {
         } catch (InstantiationException | IllegalAccessException e) {
             throw new BeanInstantiationException("Constructor usage failed", e);
         } catch (InvocationTargetException e) {
-            throw new BeanInstantiationException("Constructor invocation failed", e.getCause());
+            throw invocationFailed(e.getCause());
         }
     }
+
+    static BeanInstantiationException argumentFailed(final Constructor<?> constructor, final int index,
+            final Exception cause) {
+        return new BeanInstantiationException(
+                "Failed to inject argument " + index + " of constructor for " + constructor.getDeclaringClass(), cause);
+    }
+
+    static BeanInstantiationException invocationFailed(final Throwable cause) {
+        return new BeanInstantiationException("Constructor invocation failed", cause);
+    }
 }
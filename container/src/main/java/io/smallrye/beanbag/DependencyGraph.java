@@ -0,0 +1,258 @@
+package io.smallrye.beanbag;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The static dependency graph of a container.
+ * The graph is computed from the injection points declared by each bean's supplier, without instantiating any beans.
+ * Beans whose suppliers do not declare their injection points appear in the graph without dependencies.
+ * Computing the graph loads the classes of all lazily defined beans and establishes their suppliers.
+ */
+public final class DependencyGraph {
+    private final List<Node> nodes;
+
+    DependencyGraph(final ScopeDefinition singletonDefinition, final ScopeDefinition scopeDefinition) {
+        final Map<BeanDefinition<?>, Node> nodesByDefinition = new IdentityHashMap<>();
+        final List<Node> nodes = new ArrayList<>();
+        for (BeanDefinition<?> definition : singletonDefinition.getBeanDefinitions()) {
+            if (!definition.isAvailable()) {
+                // a lazy bean whose class cannot be loaded
+                continue;
+            }
+            final Node node = new Node(definition, true);
+            nodesByDefinition.put(definition, node);
+            nodes.add(node);
+        }
+        for (BeanDefinition<?> definition : scopeDefinition.getBeanDefinitions()) {
+            if (!definition.isAvailable()) {
+                continue;
+            }
+            final Node node = new Node(definition, false);
+            nodesByDefinition.put(definition, node);
+            nodes.add(node);
+        }
+        // all beans resolve their dependencies against the full scope definition
+        for (Node node : nodes) {
+            node.resolve(scopeDefinition, nodesByDefinition);
+        }
+        this.nodes = List.copyOf(nodes);
+    }
+
+    /**
+     * Get the nodes of the eager singletons, resolving only those nodes which are reachable from them through
+     * their {@linkplain Node#getExpectedDependencies() expected dependencies}.
+     * Unlike the full graph, this does not load the classes of lazily defined beans which no eager bean is
+     * expected to depend on, and it does nothing at all if there are no eager singletons.
+     *
+     * @param singletonDefinition the singleton scope definition (must not be {@code null})
+     * @param scopeDefinition the full scope definition (must not be {@code null})
+     * @return the eager nodes (not {@code null})
+     */
+    static List<Node> getEagerNodes(final ScopeDefinition singletonDefinition, final ScopeDefinition scopeDefinition) {
+        final List<BeanDefinition<?>> eagerDefinitions = new ArrayList<>();
+        for (BeanDefinition<?> definition : singletonDefinition.getBeanDefinitions()) {
+            if (definition.isEager()) {
+                eagerDefinitions.add(definition);
+            }
+        }
+        if (eagerDefinitions.isEmpty()) {
+            return List.of();
+        }
+        // nodes are cheap until they are resolved
+        final Map<BeanDefinition<?>, Node> nodesByDefinition = new IdentityHashMap<>();
+        for (BeanDefinition<?> definition : singletonDefinition.getBeanDefinitions()) {
+            nodesByDefinition.put(definition, new Node(definition, true));
+        }
+        for (BeanDefinition<?> definition : scopeDefinition.getBeanDefinitions()) {
+            nodesByDefinition.put(definition, new Node(definition, false));
+        }
+        final List<Node> eagerNodes = new ArrayList<>();
+        final ArrayDeque<Node> queue = new ArrayDeque<>();
+        for (BeanDefinition<?> definition : eagerDefinitions) {
+            if (definition.isAvailable()) {
+                final Node node = nodesByDefinition.get(definition);
+                eagerNodes.add(node);
+                queue.add(node);
+            }
+        }
+        Node node;
+        while ((node = queue.poll()) != null) {
+            if (node.candidates == null) {
+                node.resolve(scopeDefinition, nodesByDefinition);
+                queue.addAll(node.getExpectedDependencies());
+            }
+        }
+        return eagerNodes;
+    }
+
+    /**
+     * Get all the nodes of this graph, singletons first.
+     *
+     * @return the nodes (not {@code null})
+     */
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public String toString() {
+        final StringBuilder b = new StringBuilder();
+        for (Node node : nodes) {
+            b.append(node).append('\n');
+            final List<InjectionPoint> injectionPoints = node.getInjectionPoints();
+            for (int i = 0; i < injectionPoints.size(); i++) {
+                b.append("    ").append(injectionPoints.get(i)).append('\n');
+                for (Node candidate : node.getCandidates(i)) {
+                    b.append("        -> ").append(candidate).append('\n');
+                }
+            }
+            if (node.aliasOf != null) {
+                b.append("    alias of ").append(node.aliasOf).append('\n');
+            }
+        }
+        return b.toString();
+    }
+
+    /**
+     * A node in the dependency graph, corresponding to a single bean definition.
+     */
+    public static final class Node {
+        private final BeanDefinition<?> definition;
+        private final boolean singleton;
+        private List<InjectionPoint> injectionPoints;
+        private List<List<Node>> candidates;
+        private Node aliasOf;
+
+        Node(final BeanDefinition<?> definition, final boolean singleton) {
+            this.definition = definition;
+            this.singleton = singleton;
+        }
+
+        void resolve(final ScopeDefinition scopeDefinition, final Map<BeanDefinition<?>, Node> nodesByDefinition) {
+            final List<InjectionPoint> injectionPoints = this.injectionPoints = definition.getBeanSupplier()
+                    .getInjectionPoints();
+            final List<List<Node>> candidates = new ArrayList<>(injectionPoints.size());
+            for (InjectionPoint injectionPoint : injectionPoints) {
+                final List<Node> list = new ArrayList<>();
+                for (int entry : scopeDefinition.getEntries(injectionPoint.getType())) {
+                    final BeanDefinition<?> candidate = scopeDefinition.getDefinition(entry);
+                    if (injectionPoint.accepts(candidate)) {
+                        list.add(nodesByDefinition.get(candidate));
+                    }
+                }
+                candidates.add(List.copyOf(list));
+            }
+            this.candidates = List.copyOf(candidates);
+            if (definition.getBeanSupplier() instanceof AliasSupplier<?> as) {
+                aliasOf = nodesByDefinition.get(as.getDefinition());
+            }
+        }
+
+        BeanDefinition<?> getDefinition() {
+            return definition;
+        }
+
+        /**
+         * {@return the bean type (not {@code null})}
+         */
+        public Class<?> getType() {
+            return definition.getType();
+        }
+
+        /**
+         * {@return the bean name, or {@code ""} if the bean has no name (not {@code null})}
+         */
+        public String getName() {
+            return definition.getName();
+        }
+
+        /**
+         * {@return the bean priority}
+         */
+        public int getPriority() {
+            return definition.getPriority();
+        }
+
+        /**
+         * {@return {@code true} if the bean is a singleton}
+         */
+        public boolean isSingleton() {
+            return singleton;
+        }
+
+        /**
+         * {@return {@code true} if the bean is an eager singleton}
+         */
+        public boolean isEager() {
+            return definition.isEager();
+        }
+
+        /**
+         * {@return the injection points declared by the bean's supplier (not {@code null})}
+         */
+        public List<InjectionPoint> getInjectionPoints() {
+            return injectionPoints;
+        }
+
+        /**
+         * Get the candidate beans for the injection point with the given index, in order of precedence.
+         *
+         * @param index the index of the injection point in {@link #getInjectionPoints()}
+         * @return the candidate nodes (not {@code null})
+         */
+        public List<Node> getCandidates(int index) {
+            return candidates.get(index);
+        }
+
+        /**
+         * Get all the beans that this bean may depend on.
+         * This includes every candidate of every injection point as well as the target of an alias.
+         *
+         * @return the dependency nodes (not {@code null})
+         */
+        public Set<Node> getDependencies() {
+            final Set<Node> set = new LinkedHashSet<>();
+            candidates.forEach(set::addAll);
+            if (aliasOf != null) {
+                set.add(aliasOf);
+            }
+            return set;
+        }
+
+        /**
+         * Get the beans that this bean is expected to depend on when every dependency can be instantiated.
+         * Only the preferred candidate of a single-valued injection point is included.
+         *
+         * @return the expected dependency nodes (not {@code null})
+         */
+        Set<Node> getExpectedDependencies() {
+            final Set<Node> set = new LinkedHashSet<>();
+            for (int i = 0; i < candidates.size(); i++) {
+                final List<Node> list = candidates.get(i);
+                if (injectionPoints.get(i).isAll()) {
+                    set.addAll(list);
+                } else if (!list.isEmpty()) {
+                    set.add(list.get(0));
+                }
+            }
+            if (aliasOf != null) {
+                set.add(aliasOf);
+            }
+            return set;
+        }
+
+        public String toString() {
+            final StringBuilder b = new StringBuilder();
+            b.append(singleton ? "singleton " : "bean ").append(getType().getName());
+            if (!getName().isEmpty()) {
+                b.append(" named \"").append(getName()).append('"');
+            }
+            return b.toString();
+        }
+    }
+}
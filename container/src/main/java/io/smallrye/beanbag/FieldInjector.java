@@ -1,6 +1,7 @@
 package io.smallrye.beanbag;
 
 import java.lang.reflect.Field;
+import java.util.List;
 
 /**
  * A field injection.
@@ -14,13 +15,24 @@ final class FieldInjector<C, T> implements Injector<C> {
         this.supplier = supplier;
     }
 
+    Field getField() {
+        return field;
+    }
+
+    BeanSupplier<T> getSupplier() {
+        return supplier;
+    }
+
+    public List<InjectionPoint> getInjectionPoints() {
+        return supplier.getInjectionPoints();
+    }
+
     public void injectInto(Scope scope, C instance) {
         final T value;
         try {
             value = supplier.get(scope);
         } catch (Throwable t) {
-            throw new InjectionException("Failed to acquire value from provider for field "
-                    + field.getDeclaringClass().getSimpleName() + "#" + field.getName() + " of object " + instance, t);
+            throw acquisitionFailed(instance, t);
         }
         try {
             field.set(instance, value);
@@ -29,4 +41,9 @@ final class FieldInjector<C, T> implements Injector<C> {
                     + field.getDeclaringClass().getSimpleName() + "#" + field.getName() + " of object " + instance, e);
         }
     }
+
+    InjectionException acquisitionFailed(final Object instance, final Throwable cause) {
+        return new InjectionException("Failed to acquire value from provider for field "
+                + field.getDeclaringClass().getSimpleName() + "#" + field.getName() + " of object " + instance, cause);
+    }
 }
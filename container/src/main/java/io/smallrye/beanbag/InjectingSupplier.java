@@ -14,6 +14,10 @@ final class InjectingSupplier<T> implements BeanSupplier<T> {
         this.injectors = injectors;
     }
 
+    public List<InjectionPoint> getInjectionPoints() {
+        return InjectionPoint.of(List.of(instanceSupplier), injectors);
+    }
+
     public T get(Scope scope) {
         final T instance = instanceSupplier.get(scope);
         for (Injector<T> injector : injectors) {
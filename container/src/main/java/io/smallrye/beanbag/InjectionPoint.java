@@ -0,0 +1,114 @@
+package io.smallrye.beanbag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.smallrye.common.constraint.Assert;
+
+/**
+ * A declared dependency of a bean supplier.
+ * An injection point describes the bean resolution that the supplier performs when it is called,
+ * which allows the dependencies of beans to be analyzed without instantiating anything.
+ */
+public final class InjectionPoint {
+    private final Class<?> type;
+    private final String name;
+    private final boolean optional;
+    private final boolean all;
+    private final DependencyFilter filter;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param type the bean type class (must not be {@code null})
+     * @param name the bean name, or {@code ""} for any (must not be {@code null})
+     * @param optional {@code true} if the dependency is optional, or {@code false} if it is required
+     * @param all {@code true} if all matching beans are resolved, or {@code false} if a single bean is resolved
+     * @param filter the filter to apply to determine whether a given bean should be included (must not be {@code null})
+     */
+    public InjectionPoint(final Class<?> type, final String name, final boolean optional, final boolean all,
+            final DependencyFilter filter) {
+        Assert.checkNotNullParam("type", type);
+        Assert.checkNotNullParam("name", name);
+        Assert.checkNotNullParam("filter", filter);
+        this.type = type;
+        this.name = name;
+        this.optional = optional;
+        this.all = all;
+        this.filter = filter;
+    }
+
+    /**
+     * {@return the bean type class (not {@code null})}
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * {@return the bean name, or {@code ""} for any (not {@code null})}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * {@return {@code true} if the dependency is optional, or {@code false} if it is required}
+     */
+    public boolean isOptional() {
+        return optional;
+    }
+
+    /**
+     * {@return {@code true} if all matching beans are resolved, or {@code false} if a single bean is resolved}
+     */
+    public boolean isAll() {
+        return all;
+    }
+
+    /**
+     * {@return the dependency filter (not {@code null})}
+     */
+    public DependencyFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Determine whether the given bean definition is a candidate for this injection point.
+     *
+     * @param definition the bean definition (must not be {@code null})
+     * @return {@code true} if the definition may satisfy this injection point, or {@code false} if it cannot
+     */
+    boolean accepts(final BeanDefinition<?> definition) {
+        return (name.isEmpty() || definition.getName().equals(name))
+                && filter.test(definition.getType(), definition.getName(), definition.getPriority());
+    }
+
+    /**
+     * Collect the injection points of the given suppliers and injectors, in order.
+     *
+     * @param suppliers the suppliers (must not be {@code null})
+     * @param injectors the injectors (must not be {@code null})
+     * @return the injection points (not {@code null})
+     */
+    static List<InjectionPoint> of(final List<? extends BeanSupplier<?>> suppliers,
+            final List<? extends Injector<?>> injectors) {
+        final List<InjectionPoint> list = new ArrayList<>();
+        for (BeanSupplier<?> supplier : suppliers) {
+            list.addAll(supplier.getInjectionPoints());
+        }
+        for (Injector<?> injector : injectors) {
+            list.addAll(injector.getInjectionPoints());
+        }
+        return List.copyOf(list);
+    }
+
+    public String toString() {
+        final StringBuilder b = new StringBuilder();
+        b.append(all ? "all of " : optional ? "optional " : "").append(type.getName());
+        if (!name.isEmpty()) {
+            b.append(" named \"").append(name).append('"');
+        }
+        return b.toString();
+    }
+}
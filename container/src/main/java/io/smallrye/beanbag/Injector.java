@@ -3,6 +3,7 @@ package io.smallrye.beanbag;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.List;
 
 import io.smallrye.common.constraint.Assert;
 
@@ -14,6 +15,10 @@ import io.smallrye.common.constraint.Assert;
 interface Injector<C> {
     void injectInto(Scope scope, C instance);
 
+    default List<InjectionPoint> getInjectionPoints() {
+        return List.of();
+    }
+
     static <C, T> Injector<C> forField(Field field, BeanSupplier<T> supplier) {
         Assert.checkNotNullParam("field", field);
         Assert.checkNotNullParam("supplier", supplier);
@@ -0,0 +1,20 @@
+package io.smallrye.beanbag;
+
+/**
+ * An initializer for a lazily defined bean, which is called with the bean class on the first lookup which selects
+ * the bean.
+ *
+ * @see BeanBag.Builder#addLazyBean(ClassLoader, String)
+ */
+public interface LazyBeanInitializer {
+    /**
+     * Establish the supplier of the lazily defined bean, typically by way of {@link BeanBag.BeanBuilder#buildSupplier()}.
+     * Only the supplier of the given bean builder is used, because the other properties of the bean were fixed when
+     * it was added; building the bean builder only returns the container builder which the bean was added to.
+     *
+     * @param type the loaded bean class (not {@code null})
+     * @param beanBuilder the bean builder to configure (not {@code null})
+     * @param <T> the bean type
+     */
+    <T> void initialize(Class<T> type, BeanBag.BeanBuilder<T> beanBuilder);
+}
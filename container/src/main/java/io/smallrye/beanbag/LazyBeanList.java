@@ -0,0 +1,118 @@
+package io.smallrye.beanbag;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * An immutable list of the beans for the given candidates, which are instantiated in order as the list is accessed.
+ * The content of the list is the same as that of {@link Scope#getAllBeans(Class, String, DependencyFilter)}:
+ * beans which fail to instantiate or which are {@code null} are skipped.
+ * Consequently, getting the size of the list instantiates all the beans.
+ */
+final class LazyBeanList<T> extends AbstractList<T> {
+    private final Scope scope;
+    private final int[] candidates;
+    private final Object[] instances;
+    /**
+     * The number of candidates which were tried so far
+     */
+    private int tried;
+    /**
+     * The number of instances found so far
+     */
+    private int found;
+
+    LazyBeanList(final Scope scope, final int[] candidates) {
+        this.scope = scope;
+        this.candidates = candidates;
+        this.instances = new Object[candidates.length];
+    }
+
+    /**
+     * Instantiate candidates until the list has at least the given number of elements, or until every candidate
+     * has been tried.
+     * The lock is not held while a bean is instantiated; if two threads instantiate the same candidate, they
+     * get the same instance from the scope.
+     *
+     * @param count the number of elements
+     * @return {@code true} if the list has at least the given number of elements, or {@code false} if it is shorter
+     */
+    private boolean reach(int count) {
+        for (;;) {
+            final int position;
+            synchronized (this) {
+                if (found >= count) {
+                    return true;
+                }
+                position = tried;
+                if (position == candidates.length) {
+                    return false;
+                }
+            }
+            T instance;
+            try {
+                instance = scope.getInstance(candidates[position]);
+            } catch (Exception ignored) {
+                // do not include it
+                instance = null;
+            }
+            synchronized (this) {
+                if (tried == position) {
+                    tried = position + 1;
+                    if (instance != null) {
+                        instances[found++] = instance;
+                    }
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(final int index) {
+        if (index < 0 || !reach(index + 1)) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        synchronized (this) {
+            return (T) instances[index];
+        }
+    }
+
+    public int size() {
+        reach(Integer.MAX_VALUE);
+        synchronized (this) {
+            return found;
+        }
+    }
+
+    public boolean isEmpty() {
+        return !reach(1);
+    }
+
+    public boolean contains(final Object o) {
+        for (T instance : this) {
+            if (Objects.equals(o, instance)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index;
+
+            public boolean hasNext() {
+                return reach(index + 1);
+            }
+
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
+}
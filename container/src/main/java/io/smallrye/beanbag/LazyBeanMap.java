@@ -0,0 +1,144 @@
+package io.smallrye.beanbag;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable map of the beans for the given candidates by name, in which each bean is instantiated when its name
+ * is first looked up or reached by iteration.
+ * The content of the map is the same as that of {@link Scope#getAllBeansWithNames(Class, DependencyFilter)}:
+ * each name maps to the first candidate with that name which is not {@code null}, and names for which every candidate
+ * is {@code null} are absent.
+ * The entries are in order of precedence of their first candidate.
+ */
+final class LazyBeanMap<T> extends AbstractMap<String, T> {
+    private static final Object ABSENT = new Object();
+
+    private final Scope scope;
+    private final Names names;
+    private final Object[] values;
+    private Set<Entry<String, T>> entrySet;
+
+    LazyBeanMap(final Scope scope, final Names names) {
+        this.scope = scope;
+        this.names = names;
+        this.values = new Object[names.names.length];
+    }
+
+    /**
+     * Get the value for the name with the given index, instantiating its bean if needed.
+     * The lock is not held while a bean is instantiated; if two threads instantiate the same bean, they
+     * get the same instance from the scope.
+     * Instantiation failures are not recorded, so a later access tries again.
+     *
+     * @param index the name index
+     * @return the value, or {@code null} if the name is absent
+     */
+    @SuppressWarnings("unchecked")
+    private T resolve(int index) {
+        Object value;
+        synchronized (this) {
+            value = values[index];
+        }
+        if (value == null) {
+            value = ABSENT;
+            for (int entry : names.candidates[index]) {
+                final T instance = scope.getInstance(entry);
+                if (instance != null) {
+                    value = instance;
+                    break;
+                }
+            }
+            synchronized (this) {
+                values[index] = value;
+            }
+        }
+        return value == ABSENT ? null : (T) value;
+    }
+
+    public T get(final Object key) {
+        final Integer index = names.indexes.get(key);
+        return index == null ? null : resolve(index.intValue());
+    }
+
+    public boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    public Set<Entry<String, T>> entrySet() {
+        Set<Entry<String, T>> entrySet = this.entrySet;
+        if (entrySet == null) {
+            this.entrySet = entrySet = new AbstractSet<Entry<String, T>>() {
+                public Iterator<Entry<String, T>> iterator() {
+                    return new Iterator<Entry<String, T>>() {
+                        private int index;
+                        private T next;
+
+                        public boolean hasNext() {
+                            while (next == null && index < names.names.length) {
+                                next = resolve(index++);
+                            }
+                            return next != null;
+                        }
+
+                        public Entry<String, T> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            final Entry<String, T> entry = Map.entry(names.names[index - 1], next);
+                            next = null;
+                            return entry;
+                        }
+                    };
+                }
+
+                public int size() {
+                    int size = 0;
+                    for (int i = 0; i < names.names.length; i++) {
+                        if (resolve(i) != null) {
+                            size++;
+                        }
+                    }
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * The candidates for a map, grouped by bean name.
+     * The result depends only on the scope definition, so it may be shared by all the maps for scopes with that
+     * definition.
+     */
+    static final class Names {
+        private final String[] names;
+        private final int[][] candidates;
+        private final Map<String, Integer> indexes;
+
+        Names(final ScopeDefinition definition, final int[] candidates) {
+            final Map<String, List<Integer>> byName = new LinkedHashMap<>();
+            for (int entry : candidates) {
+                byName.computeIfAbsent(definition.getDefinition(entry).getName(), ignored -> new ArrayList<>()).add(entry);
+            }
+            names = byName.keySet().toArray(String[]::new);
+            this.candidates = new int[names.length][];
+            final Map<String, Integer> indexes = new HashMap<>();
+            int i = 0;
+            for (List<Integer> list : byName.values()) {
+                this.candidates[i] = list.stream().mapToInt(Integer::intValue).toArray();
+                indexes.put(names[i], Integer.valueOf(i));
+                i++;
+            }
+            this.indexes = Map.copyOf(indexes);
+        }
+    }
+}
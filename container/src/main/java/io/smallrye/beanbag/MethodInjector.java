@@ -2,6 +2,7 @@ package io.smallrye.beanbag;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.List;
 
 /**
  * A method injection.
@@ -15,19 +16,39 @@ final class MethodInjector<C, T> implements Injector<C> {
         this.supplier = supplier;
     }
 
+    Method getMethod() {
+        return method;
+    }
+
+    BeanSupplier<T> getSupplier() {
+        return supplier;
+    }
+
+    public List<InjectionPoint> getInjectionPoints() {
+        return supplier.getInjectionPoints();
+    }
+
     public void injectInto(Scope scope, C instance) {
         final T value;
         try {
             value = supplier.get(scope);
         } catch (Throwable t) {
-            throw new InjectionException("Failed to acquire value from provider for method "
-                    + method.getDeclaringClass().getSimpleName() + "#" + method.getName() + " of object " + instance, t);
+            throw acquisitionFailed(instance, t);
         }
         try {
             method.invoke(instance, value);
         } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new InjectionException("Failed to inject value " + value + " into method "
-                    + method.getDeclaringClass().getSimpleName() + "#" + method.getName() + " of object " + instance, e);
+            throw injectionFailed(instance, value, e);
         }
     }
+
+    InjectionException acquisitionFailed(final Object instance, final Throwable cause) {
+        return new InjectionException("Failed to acquire value from provider for method "
+                + method.getDeclaringClass().getSimpleName() + "#" + method.getName() + " of object " + instance, cause);
+    }
+
+    InjectionException injectionFailed(final Object instance, final Object value, final Exception cause) {
+        return new InjectionException("Failed to inject value " + value + " into method "
+                + method.getDeclaringClass().getSimpleName() + "#" + method.getName() + " of object " + instance, cause);
+    }
 }
@@ -1,59 +1,145 @@
 package io.smallrye.beanbag;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A (potentially nested) scope from which bean instances may be acquired.
+ * <p>
+ * Bean holders are stored in a lazily allocated, two-level slot array which is indexed in the same way as the
+ * scope's definition list.
+ * A slot is populated only when its definition is first resolved within the scope, so the cost of creating a
+ * scope does not depend on the number of beans in the container.
  */
 public final class Scope {
+    private static final int CHUNK_SHIFT = 4;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final VarHandle SLOTS;
+    private static final VarHandle CHUNK_ELEMENT = MethodHandles.arrayElementVarHandle(Bean[][].class);
+    private static final VarHandle SLOT_ELEMENT = MethodHandles.arrayElementVarHandle(Bean[].class);
+
+    static {
+        try {
+            SLOTS = MethodHandles.lookup().findVarHandle(Scope.class, "slots", Bean[][].class);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final Scope parent;
     private final Scope resolutionScope;
-    private final List<Bean<?>> beans;
-    private final Map<Class<?>, List<Bean<?>>> beansByType = new ConcurrentHashMap<>();
+    private final ScopeDefinition definition;
     private final BeanBag container;
+    @SuppressWarnings("unused") // SLOTS
+    private volatile Bean<?>[][] slots;
 
     Scope(final BeanBag container, final Scope parent, final ScopeDefinition resolutionScope,
             final ScopeDefinition definition) {
         this.container = container;
         this.parent = parent;
+        this.definition = definition;
         if (resolutionScope == null) {
             this.resolutionScope = this;
         } else {
             this.resolutionScope = new Scope(container, this, null, resolutionScope);
         }
-        this.beans = Util.mapList(definition.getBeanDefinitions(), Bean::new, Bean[]::new);
     }
 
+    /**
+     * Get the bean for the given index entry of this scope's definition.
+     *
+     * @param entry the index entry
+     * @return the bean (not {@code null})
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Bean<? extends T> getBean(int entry) {
+        return (Bean<? extends T>) (ScopeDefinition.isInherited(entry) ? parent.getSlot(~entry) : getSlot(entry));
+    }
+
+    /**
+     * Get the instance of the bean for the given definition index, if it has already been instantiated.
+     * This method does not allocate.
+     *
+     * @param index the definition index
+     * @return the instance, or {@code null} if the bean has not been successfully instantiated in this scope
+     */
     @SuppressWarnings("unchecked")
-    private <T> List<Bean<? extends T>> getBeansByType(Class<T> type) {
-        List<Bean<? extends T>> list = (List<Bean<? extends T>>) (List<?>) beansByType.get(type);
-        if (list == null) {
-            // compute it
-            if (parent != null) {
-                list = new ArrayList<>(parent.getBeansByType(type));
-            } else {
-                list = new ArrayList<>();
+    <T> T getInstantiated(int index) {
+        final Bean<?>[][] slots = this.slots;
+        if (slots == null) {
+            return null;
+        }
+        final Bean<?>[] chunk = (Bean<?>[]) CHUNK_ELEMENT.getAcquire(slots, index >> CHUNK_SHIFT);
+        if (chunk == null) {
+            return null;
+        }
+        final Bean<?> bean = (Bean<?>) SLOT_ELEMENT.getAcquire(chunk, index & CHUNK_MASK);
+        return bean == null ? null : (T) bean.getInstantiated();
+    }
+
+    /**
+     * Get the instances of the beans for the given parent-relative index entries,
+     * if they are all inherited from this scope and have all already been instantiated.
+     *
+     * @param entries the index entries of the child scope definition (must not be {@code null})
+     * @return the list of instances, or {@code null} if any of the beans is not an existing instance in this scope
+     */
+    <T> List<T> getAllInstantiated(int[] entries) {
+        if (entries.length == 0) {
+            return List.of();
+        }
+        @SuppressWarnings("unchecked")
+        final T[] array = (T[]) new Object[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            final int entry = entries[i];
+            if (!ScopeDefinition.isInherited(entry) || (array[i] = getInstantiated(~entry)) == null) {
+                return null;
             }
-            for (Bean<?> bean : beans) {
-                if (bean.matchesByType(type)) {
-                    list.add((Bean<? extends T>) bean);
-                }
+        }
+        return List.of(array);
+    }
+
+    /**
+     * Get the bean for the given definition index, creating it if needed.
+     *
+     * @param index the definition index
+     * @return the bean (not {@code null})
+     */
+    private Bean<?> getSlot(int index) {
+        Bean<?>[][] slots = this.slots;
+        if (slots == null) {
+            final int size = definition.getBeanDefinitions().size();
+            slots = new Bean<?>[(size + CHUNK_MASK) >> CHUNK_SHIFT][];
+            final Bean<?>[][] witness = (Bean<?>[][]) SLOTS.compareAndExchange(this, null, slots);
+            if (witness != null) {
+                slots = witness;
             }
-            list.sort(Bean.byPriority());
-            if (list.isEmpty()) {
-                list = List.of();
+        }
+        final int chunkIndex = index >> CHUNK_SHIFT;
+        Bean<?>[] chunk = (Bean<?>[]) CHUNK_ELEMENT.getAcquire(slots, chunkIndex);
+        if (chunk == null) {
+            chunk = new Bean<?>[CHUNK_SIZE];
+            final Bean<?>[] witness = (Bean<?>[]) CHUNK_ELEMENT.compareAndExchangeRelease(slots, chunkIndex, null, chunk);
+            if (witness != null) {
+                chunk = witness;
             }
-            final List<Bean<? extends T>> appearing = (List<Bean<? extends T>>) (List<?>) beansByType.putIfAbsent(type,
-                    (List<Bean<?>>) (List<?>) list);
-            if (appearing != null) {
-                list = appearing;
+        }
+        Bean<?> bean = (Bean<?>) SLOT_ELEMENT.getAcquire(chunk, index & CHUNK_MASK);
+        if (bean == null) {
+            bean = new Bean<>(definition.getBeanDefinitions().get(index));
+            final Bean<?> witness = (Bean<?>) SLOT_ELEMENT.compareAndExchangeRelease(chunk, index & CHUNK_MASK, null, bean);
+            if (witness != null) {
+                bean = witness;
             }
         }
-        return list;
+        return bean;
     }
 
     /**
@@ -103,16 +189,16 @@ public final class Scope {
      * @param <T> the allowed bean type
      */
     public <T> List<T> getAllBeans(final Class<T> type, final String name, DependencyFilter filter) {
-        final List<Bean<? extends T>> beans = getBeansByType(type);
-        if (beans.isEmpty()) {
+        final int[] entries = definition.getEntries(type, name);
+        if (entries.length == 0) {
             return List.of();
         }
-        final List<T> list = new ArrayList<>(beans.size());
-        for (Bean<? extends T> bean : beans) {
-            if ((name.isEmpty() || bean.getName().equals(name))
-                    && filter.test(bean.getType(), bean.getName(), bean.getPriority())) {
+        final List<T> list = new ArrayList<>(entries.length);
+        for (int entry : entries) {
+            final BeanDefinition<?> beanDefinition = definition.getDefinition(entry);
+            if (filter.test(beanDefinition.getType(), beanDefinition.getName(), beanDefinition.getPriority())) {
                 try {
-                    final T instance = bean.get(resolutionScope);
+                    final T instance = this.<T> getBean(entry).get(resolutionScope);
                     if (instance != null) {
                         list.add(instance);
                     }
@@ -134,23 +220,51 @@ public final class Scope {
      * @param <T> the allowed bean type
      */
     public <T> Map<String, T> getAllBeansWithNames(final Class<T> type, final DependencyFilter filter) {
-        final List<Bean<? extends T>> beans = getBeansByType(type);
-        if (beans.isEmpty()) {
+        final int[] entries = definition.getEntries(type);
+        if (entries.length == 0) {
             return Map.of();
         }
-        final Map<String, T> map = new LinkedHashMap<>(beans.size());
-        for (Bean<? extends T> bean : beans) {
+        final Map<String, T> map = new LinkedHashMap<>(entries.length);
+        for (int entry : entries) {
+            final BeanDefinition<?> beanDefinition = definition.getDefinition(entry);
+            final String beanName = beanDefinition.getName();
             // preserve priority order
-            if (!map.containsKey(bean.getName()) && filter.test(bean.getType(), bean.getName(), bean.getPriority())) {
-                final T instance = bean.get(resolutionScope);
+            if (!map.containsKey(beanName)
+                    && filter.test(beanDefinition.getType(), beanName, beanDefinition.getPriority())) {
+                final T instance = this.<T> getBean(entry).get(resolutionScope);
                 if (instance != null) {
-                    map.put(bean.getName(), instance);
+                    map.put(beanName, instance);
                 }
             }
         }
         return Map.copyOf(map);
     }
 
+    /**
+     * Determine whether a bean with the given type is defined, without instantiating any bean.
+     * A defined bean may still fail to be instantiated, or may have a {@code null} value.
+     *
+     * @param type the allowed bean type class (must not be {@code null})
+     * @return {@code true} if a matching bean is defined, or {@code false} if there is none
+     */
+    public boolean hasBean(Class<?> type) {
+        return hasBean(type, "", DependencyFilter.ACCEPT);
+    }
+
+    /**
+     * Determine whether a bean with the given type and name is defined, without instantiating any bean.
+     * The filter is applied to each bean definition to determine whether it should be considered.
+     * A defined bean may still fail to be instantiated, or may have a {@code null} value.
+     *
+     * @param type the allowed bean type class (must not be {@code null})
+     * @param name the name of the bean, or {@code ""} for any (must not be {@code null})
+     * @param filter the filter to apply to determine whether a given bean should be included (must not be {@code null})
+     * @return {@code true} if a matching bean is defined, or {@code false} if there is none
+     */
+    public boolean hasBean(Class<?> type, String name, DependencyFilter filter) {
+        return definition.hasEntry(type, name, filter);
+    }
+
     /**
      * Require a single bean with the given type.
      *
@@ -228,13 +342,13 @@ public final class Scope {
      * @throws NoSuchBeanException if the bean is not present
      */
     public <T> T getBean(final Class<T> type, final String name, final boolean optional, final DependencyFilter filter) {
-        final List<Bean<? extends T>> beans = getBeansByType(type);
+        final int[] entries = definition.getEntries(type, name);
         List<Throwable> problems = null;
-        for (Bean<? extends T> bean : beans) {
+        for (int entry : entries) {
             try {
-                if ((name.isEmpty() || bean.getName().equals(name))
-                        && filter.test(bean.getType(), bean.getName(), bean.getPriority())) {
-                    final T instance = bean.get(resolutionScope);
+                final BeanDefinition<?> beanDefinition = definition.getDefinition(entry);
+                if (filter.test(beanDefinition.getType(), beanDefinition.getName(), beanDefinition.getPriority())) {
+                    final T instance = this.<T> getBean(entry).get(resolutionScope);
                     if (instance != null) {
                         return instance;
                     }
@@ -251,6 +365,80 @@ public final class Scope {
         if (optional) {
             return null;
         }
+        throw noSuchBean(type, name, problems);
+    }
+
+    /**
+     * Get a single bean from the given candidates, with configurable optionality.
+     * The candidates must have been computed by {@link #getCandidates(Class, String, DependencyFilter)}
+     * on a scope with the same definition as this one.
+     *
+     * @param candidates the candidate index entries (must not be {@code null})
+     * @param type the allowed bean type class (must not be {@code null})
+     * @param name the name of the bean which should be returned, or {@code ""} for any (must not be {@code null})
+     * @param optional {@code true} to return null if no bean matches, or {@code false} to throw an exception if no bean matches
+     * @return the single bean, or {@code null} if it is not present
+     * @param <T> the allowed bean type
+     * @throws NoSuchBeanException if the bean is not present
+     */
+    <T> T getBean(final int[] candidates, final Class<T> type, final String name, final boolean optional) {
+        List<Throwable> problems = null;
+        for (int entry : candidates) {
+            try {
+                final T instance = this.<T> getBean(entry).get(resolutionScope);
+                if (instance != null) {
+                    return instance;
+                }
+            } catch (Exception e) {
+                if (!optional) {
+                    if (problems == null) {
+                        problems = new ArrayList<>();
+                    }
+                    problems.add(e);
+                }
+            }
+        }
+        if (optional) {
+            return null;
+        }
+        throw noSuchBean(type, name, problems);
+    }
+
+    /**
+     * Get the index entries of the beans of the given type and name which are accepted by the given filter,
+     * in order of precedence.
+     * The result depends only on the definition of this scope, so it may be reused with any scope which shares it.
+     *
+     * @param type the allowed bean type class (must not be {@code null})
+     * @param name the name of the bean, or {@code ""} for any (must not be {@code null})
+     * @param filter the filter to apply to determine whether a given bean should be included (must not be {@code null})
+     * @return the candidate index entries (not {@code null}, must not be modified)
+     */
+    int[] getCandidates(final Class<?> type, final String name, final DependencyFilter filter) {
+        final int[] entries = definition.getEntries(type, name);
+        int[] candidates = null;
+        int cnt = 0;
+        for (int i = 0; i < entries.length; i++) {
+            final BeanDefinition<?> beanDefinition = definition.getDefinition(entries[i]);
+            if (filter.test(beanDefinition.getType(), beanDefinition.getName(), beanDefinition.getPriority())) {
+                if (candidates != null) {
+                    candidates[cnt] = entries[i];
+                }
+                cnt++;
+            } else if (candidates == null) {
+                // first rejection; start copying
+                candidates = new int[entries.length];
+                System.arraycopy(entries, 0, candidates, 0, cnt);
+            }
+        }
+        return candidates == null ? entries : Arrays.copyOf(candidates, cnt);
+    }
+
+    ScopeDefinition getDefinition() {
+        return definition;
+    }
+
+    private static NoSuchBeanException noSuchBean(final Class<?> type, final String name, final List<Throwable> problems) {
         StringBuilder msgBuilder = new StringBuilder("No matching bean available: type is ");
         msgBuilder.append(type);
         if (!name.isEmpty()) {
@@ -260,15 +448,25 @@ public final class Scope {
         if (problems != null) {
             problems.forEach(nbe::addSuppressed);
         }
-        throw nbe;
+        return nbe;
+    }
+
+    /**
+     * Get the instance of the bean for the given index entry of this scope's definition, creating it if needed.
+     *
+     * @param entry the index entry
+     * @return the instance (possibly {@code null})
+     * @param <T> the bean type
+     */
+    <T> T getInstance(int entry) {
+        return this.<T> getBean(entry).get(resolutionScope);
     }
 
     <T> T requireBean(final BeanDefinition<T> definition) {
         Class<T> type = definition.getType();
-        final List<Bean<? extends T>> beans = getBeansByType(type);
-        for (Bean<? extends T> bean : beans) {
-            if (bean.getDefinition() == definition) {
-                return bean.get(resolutionScope);
+        for (int entry : this.definition.getEntries(type, definition.getName())) {
+            if (this.definition.getDefinition(entry) == definition) {
+                return this.<T> getBean(entry).get(resolutionScope);
             }
         }
         StringBuilder msgBuilder = new StringBuilder("No matching bean available: type is ");
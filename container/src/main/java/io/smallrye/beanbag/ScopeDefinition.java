@@ -1,18 +1,337 @@
 package io.smallrye.beanbag;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A definition for a scope.
+ * <p>
+ * Each scope definition carries an immutable index which maps every supertype of every bean definition that is
+ * visible to the scope (including those of the parent definition) to the priority-sorted list of matching bean
+ * definitions.
+ * Each index entry is an {@code int} which is either the index of a definition in this scope definition, or the
+ * bitwise complement of the index of a definition in the parent scope definition.
+ * The entries of each type are further indexed by bean name, so that named lookups do not need to scan every bean
+ * of the type.
+ * <p>
+ * Lazy bean definitions are indexed separately by type name, so that their classes are only loaded once a lookup by
+ * a matching type name is made; the entries of such types are computed and cached on first use.
+ * Since array covariance is not reflected by the type hierarchy, the entries of array types are likewise computed
+ * on demand; any other type which is not indexed cannot match any definition.
  */
 final class ScopeDefinition {
+    private static final int[] NO_ENTRIES = new int[0];
+    /**
+     * The maximum number of array lookup types to remember.
+     */
+    private static final int MAX_ARRAY_TYPES = 256;
+
+    private final ScopeDefinition parent;
     private final List<BeanDefinition<?>> definitions;
+    private final Map<Class<?>, TypeEntries> typeIndex;
+    private final Map<Class<?>, TypeEntries> arrayTypes = new ConcurrentHashMap<>();
+    private final Map<String, int[]> lazyIndex;
+    private final Map<Class<?>, TypeEntries> lazyTypes = new ConcurrentHashMap<>();
+    private final Map<BeanSupplier<?>, Object> bindings = new ConcurrentHashMap<>();
+    private final TypeEntries noTypeEntries = new TypeEntries(NO_ENTRIES);
 
-    ScopeDefinition(final List<BeanDefinition<?>> definitions) {
+    ScopeDefinition(final ScopeDefinition parent, final List<BeanDefinition<?>> definitions) {
+        this.parent = parent;
         this.definitions = definitions;
+        this.typeIndex = buildIndex();
+        this.lazyIndex = buildLazyIndex();
+    }
+
+    ScopeDefinition getParent() {
+        return parent;
     }
 
     List<BeanDefinition<?>> getBeanDefinitions() {
         return definitions;
     }
+
+    /**
+     * Get the binding of the given resolver to this definition.
+     * Resolvers may be shared by several containers, so each definition keeps the bindings of the resolvers
+     * which were used with it.
+     *
+     * @param resolver the resolver (must not be {@code null})
+     * @return the binding, or {@code null} if none was established yet
+     * @param <B> the binding type
+     */
+    @SuppressWarnings("unchecked")
+    <B> B getBinding(BeanSupplier<?> resolver) {
+        return (B) bindings.get(resolver);
+    }
+
+    /**
+     * Establish the binding of the given resolver to this definition.
+     * If another thread established a binding first, that binding is returned instead.
+     *
+     * @param resolver the resolver (must not be {@code null})
+     * @param binding the new binding (must not be {@code null})
+     * @return the established binding (not {@code null})
+     * @param <B> the binding type
+     */
+    @SuppressWarnings("unchecked")
+    <B> B putBinding(BeanSupplier<?> resolver, B binding) {
+        final Object existing = bindings.putIfAbsent(resolver, binding);
+        return existing == null ? binding : (B) existing;
+    }
+
+    /**
+     * Get the priority-sorted index entries for all bean definitions which match the given type.
+     *
+     * @param type the lookup type (must not be {@code null})
+     * @return the index entries (not {@code null}, must not be modified)
+     */
+    int[] getEntries(Class<?> type) {
+        return getTypeEntries(type).all;
+    }
+
+    /**
+     * Get the priority-sorted index entries for all bean definitions which match the given type and name.
+     *
+     * @param type the lookup type (must not be {@code null})
+     * @param name the bean name, or {@code ""} for any (must not be {@code null})
+     * @return the index entries (not {@code null}, must not be modified)
+     */
+    int[] getEntries(Class<?> type, String name) {
+        final TypeEntries typeEntries = getTypeEntries(type);
+        return name.isEmpty() ? typeEntries.all : typeEntries.byName.getOrDefault(name, NO_ENTRIES);
+    }
+
+    private TypeEntries getTypeEntries(Class<?> type) {
+        if (!lazyIndex.isEmpty()) {
+            TypeEntries entries = lazyTypes.get(type);
+            if (entries == null) {
+                final int[] lazyEntries = lazyIndex.get(type.getName());
+                if (lazyEntries != null) {
+                    entries = new TypeEntries(computeLazyEntries(type, lazyEntries));
+                    final TypeEntries existing = lazyTypes.putIfAbsent(type, entries);
+                    return existing == null ? entries : existing;
+                }
+            } else {
+                return entries;
+            }
+        }
+        TypeEntries entries = typeIndex.get(type);
+        if (entries == null) {
+            if (!type.isArray()) {
+                // the index covers every supertype of every definition, including inherited ones
+                return noTypeEntries;
+            }
+            entries = arrayTypes.get(type);
+            if (entries == null) {
+                entries = new TypeEntries(computeArrayEntries(type));
+                if (arrayTypes.size() < MAX_ARRAY_TYPES) {
+                    arrayTypes.putIfAbsent(type, entries);
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Determine whether any bean definition matches the given type and name and is accepted by the given filter.
+     * No bean is instantiated, although the classes of lazily defined beans may be loaded in order to match them.
+     *
+     * @param type the lookup type (must not be {@code null})
+     * @param name the bean name, or {@code ""} for any (must not be {@code null})
+     * @param filter the filter to apply (must not be {@code null})
+     * @return {@code true} if there is a matching definition, or {@code false} if there is none
+     */
+    boolean hasEntry(Class<?> type, String name, DependencyFilter filter) {
+        for (int entry : getEntries(type, name)) {
+            final BeanDefinition<?> beanDefinition = getDefinition(entry);
+            if (filter.test(beanDefinition.getType(), beanDefinition.getName(), beanDefinition.getPriority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the bean definition for the given index entry.
+     *
+     * @param entry the index entry
+     * @return the bean definition (not {@code null})
+     */
+    BeanDefinition<?> getDefinition(int entry) {
+        return isInherited(entry) ? parent.definitions.get(~entry) : definitions.get(entry);
+    }
+
+    static boolean isInherited(int entry) {
+        return entry < 0;
+    }
+
+    private Map<Class<?>, TypeEntries> buildIndex() {
+        final Map<Class<?>, List<Integer>> lists = new HashMap<>();
+        if (parent != null) {
+            parent.typeIndex.forEach((type, entries) -> {
+                final List<Integer> list = new ArrayList<>(entries.all.length);
+                for (int entry : entries.all) {
+                    list.add(Integer.valueOf(~entry));
+                }
+                lists.put(type, list);
+            });
+        }
+        final Set<Class<?>> types = new HashSet<>();
+        final ArrayDeque<Class<?>> queue = new ArrayDeque<>();
+        for (int i = 0; i < definitions.size(); i++) {
+            final BeanDefinition<?> definition = definitions.get(i);
+            if (definition.getLazyTypeNames() != null) {
+                // indexed by name instead
+                continue;
+            }
+            queue.add(definition.getType());
+            Class<?> type;
+            while ((type = queue.poll()) != null) {
+                if (types.add(type)) {
+                    final Class<?> superclass = type.getSuperclass();
+                    if (superclass != null) {
+                        queue.add(superclass);
+                    }
+                    for (Class<?> anInterface : type.getInterfaces()) {
+                        queue.add(anInterface);
+                    }
+                }
+            }
+            for (Class<?> candidate : types) {
+                // array covariance is not reflected by the type hierarchy, so array lookups are computed on demand
+                if (!candidate.isArray() && definition.matchesByType(candidate)) {
+                    lists.computeIfAbsent(candidate, ignored -> new ArrayList<>()).add(Integer.valueOf(i));
+                }
+            }
+            types.clear();
+        }
+        final Map<Class<?>, TypeEntries> index = new HashMap<>(lists.size());
+        lists.forEach((type, list) -> index.put(type, new TypeEntries(toSortedArray(list))));
+        return Map.copyOf(index);
+    }
+
+    private Map<String, int[]> buildLazyIndex() {
+        final Map<String, List<Integer>> lists = new HashMap<>();
+        if (parent != null) {
+            parent.lazyIndex.forEach((typeName, entries) -> {
+                final List<Integer> list = new ArrayList<>(entries.length);
+                for (int entry : entries) {
+                    list.add(Integer.valueOf(~entry));
+                }
+                lists.put(typeName, list);
+            });
+        }
+        for (int i = 0; i < definitions.size(); i++) {
+            final Set<String> typeNames = definitions.get(i).getLazyTypeNames();
+            if (typeNames != null) {
+                for (String typeName : typeNames) {
+                    lists.computeIfAbsent(typeName, ignored -> new ArrayList<>()).add(Integer.valueOf(i));
+                }
+            }
+        }
+        if (lists.isEmpty()) {
+            return Map.of();
+        }
+        final Map<String, int[]> index = new HashMap<>(lists.size());
+        lists.forEach((typeName, list) -> index.put(typeName, list.stream().mapToInt(Integer::intValue).toArray()));
+        return Map.copyOf(index);
+    }
+
+    /**
+     * Compute the entries of a type which may match lazy definitions.
+     * Only the lazy definitions whose type names match are checked, which loads their classes.
+     */
+    private int[] computeLazyEntries(Class<?> type, int[] lazyEntries) {
+        final List<Integer> list = new ArrayList<>();
+        if (parent != null) {
+            for (int entry : parent.getEntries(type)) {
+                list.add(Integer.valueOf(~entry));
+            }
+        }
+        final List<Integer> local = new ArrayList<>();
+        final TypeEntries indexed = typeIndex.get(type);
+        if (indexed != null) {
+            for (int entry : indexed.all) {
+                if (!isInherited(entry)) {
+                    local.add(Integer.valueOf(entry));
+                }
+            }
+        }
+        for (int entry : lazyEntries) {
+            if (!isInherited(entry) && definitions.get(entry).matchesByType(type)) {
+                local.add(Integer.valueOf(entry));
+            }
+        }
+        // preserve definition order among local definitions of equal priority
+        local.sort(null);
+        list.addAll(local);
+        return toSortedArray(list);
+    }
+
+    /**
+     * Compute the entries of an array type, which may be matched by definitions of any covariant array type.
+     */
+    private int[] computeArrayEntries(Class<?> type) {
+        final List<Integer> list = new ArrayList<>();
+        if (parent != null) {
+            for (int entry : parent.getEntries(type)) {
+                list.add(Integer.valueOf(~entry));
+            }
+        }
+        for (int i = 0; i < definitions.size(); i++) {
+            if (definitions.get(i).matchesByType(type)) {
+                list.add(Integer.valueOf(i));
+            }
+        }
+        return toSortedArray(list);
+    }
+
+    private int[] toSortedArray(List<Integer> list) {
+        if (list.isEmpty()) {
+            return NO_ENTRIES;
+        }
+        // stable, so inherited definitions come first and definition order is otherwise preserved
+        list.sort((a, b) -> Integer.compare(getDefinition(b.intValue()).getPriority(),
+                getDefinition(a.intValue()).getPriority()));
+        final int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i).intValue();
+        }
+        return array;
+    }
+
+    /**
+     * The index entries of a single type.
+     */
+    final class TypeEntries {
+        private final int[] all;
+        private final Map<String, int[]> byName;
+
+        TypeEntries(final int[] all) {
+            this.all = all;
+            final Map<String, int[]> byName = new HashMap<>();
+            for (int entry : all) {
+                final String name = getDefinition(entry).getName();
+                if (!name.isEmpty()) {
+                    final int[] existing = byName.get(name);
+                    if (existing == null) {
+                        byName.put(name, new int[] { entry });
+                    } else {
+                        // rare; several beans of a type with the same name
+                        final int[] array = Arrays.copyOf(existing, existing.length + 1);
+                        array[existing.length] = entry;
+                        byName.put(name, array);
+                    }
+                }
+            }
+            this.byName = Map.copyOf(byName);
+        }
+    }
 }
@@ -0,0 +1,707 @@
+package io.smallrye.beanbag;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A generator for bean suppliers which are implemented as hidden classes containing straight-line bytecode
+ * for bean construction and injection.
+ * Any construction or injection step which cannot be legally expressed in bytecode (for example because of
+ * access rules or class loader visibility) is delegated back to the equivalent reflective operation.
+ * Failures are reported with the same exceptions as the equivalent reflective supplier.
+ */
+final class SupplierGenerator {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final Module MODULE = SupplierGenerator.class.getModule();
+    private static final String OWN_PACKAGE = SupplierGenerator.class.getPackageName().replace('.', '/') + '/';
+    private static final MethodType CTOR_TYPE = MethodType.methodType(void.class, BiFunction[].class, BiConsumer[].class,
+            BiFunction[].class);
+
+    private static final String SCOPE = "io/smallrye/beanbag/Scope";
+    private static final String SUPPLIER = "io/smallrye/beanbag/BeanSupplier";
+    private static final String VALUE = "java/util/function/BiFunction";
+    private static final String VALUE_ARRAY = "[L" + VALUE + ";";
+    private static final String STEP = "java/util/function/BiConsumer";
+    private static final String STEP_ARRAY = "[L" + STEP + ";";
+    private static final String FUNCTION = "java/util/function/Function";
+    private static final String APPLY_DESC = "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;";
+    private static final String GET_DESC = "(L" + SCOPE + ";)Ljava/lang/Object;";
+
+    private SupplierGenerator() {
+    }
+
+    /**
+     * Generate a supplier for the given constructor and injectors.
+     *
+     * @param constructor the bean constructor (must not be {@code null})
+     * @param argumentSuppliers the constructor argument suppliers (must not be {@code null})
+     * @param injectors the injectors to apply, in order (must not be {@code null})
+     * @return the generated supplier, or {@code null} if no generated supplier could be produced
+     * @param <T> the bean type
+     */
+    static <T> BeanSupplier<T> generate(Constructor<T> constructor, List<BeanSupplier<?>> argumentSuppliers,
+            List<Injector<T>> injectors) {
+        final Class<T> clazz = constructor.getDeclaringClass();
+        if (Modifier.isAbstract(clazz.getModifiers())) {
+            return null;
+        }
+        return generate(constructor, argumentSuppliers, injectors, beanLookup(clazz));
+    }
+
+    /**
+     * Generate a supplier for the given constructor and injectors.
+     * If a bean lookup is given, the supplier is defined as a nestmate of the bean class; otherwise it is defined
+     * in this package, and only those members which are accessible from this package are accessed directly.
+     * The module graph is never modified, so a bean whose module cannot be read from this module is
+     * always handled reflectively.
+     * Every member which is accessed directly is resolved from the generated class before the supplier is returned,
+     * so the generated code cannot fail to link once it is in use.
+     *
+     * @param constructor the bean constructor (must not be {@code null})
+     * @param argumentSuppliers the constructor argument suppliers (must not be {@code null})
+     * @param injectors the injectors to apply, in order (must not be {@code null})
+     * @param beanLookup a full-privilege lookup on the bean class, or {@code null} to define the supplier in this package
+     * @return the generated supplier, or {@code null} if no generated supplier could be produced
+     * @param <T> the bean type
+     */
+    static <T> BeanSupplier<T> generate(Constructor<T> constructor, List<BeanSupplier<?>> argumentSuppliers,
+            List<Injector<T>> injectors, MethodHandles.Lookup beanLookup) {
+        final Class<T> clazz = constructor.getDeclaringClass();
+        final boolean nestmate = beanLookup != null;
+        final MethodHandles.Lookup lookup = nestmate ? beanLookup : LOOKUP;
+        final Class<?> host = lookup.lookupClass();
+        if (!isAccessible(host, clazz)) {
+            return null;
+        }
+        final String name = nestmate ? clazz.getName().replace('.', '/') + "$$BeanSupplier" : OWN_PACKAGE + "GeneratedSupplier";
+        final Generator<T> generator = new Generator<>(name, clazz);
+        final boolean directConstruction = isAccessible(host, constructor, nestmate)
+                && areAccessible(host, constructor.getParameterTypes());
+        if (directConstruction) {
+            generator.construct(constructor, argumentSuppliers);
+        } else {
+            generator.construct(new ConstructorSupplier<>(constructor, argumentSuppliers));
+        }
+        boolean anyDirect = directConstruction;
+        for (Injector<T> injector : injectors) {
+            if (injector instanceof FieldInjector<T, ?> fi && isAccessible(host, fi.getField(), nestmate)
+                    && isAccessible(host, fi.getField().getType())) {
+                generator.injectField(fi);
+                anyDirect = true;
+            } else if (injector instanceof MethodInjector<T, ?> mi && isAccessible(host, mi.getMethod(), nestmate)
+                    && areAccessible(host, mi.getMethod().getParameterTypes())) {
+                generator.injectMethod(mi);
+                anyDirect = true;
+            } else {
+                generator.inject(injector);
+            }
+        }
+        if (!anyDirect) {
+            // nothing to gain
+            return null;
+        }
+        try {
+            final MethodHandles.Lookup hidden = nestmate
+                    ? lookup.defineHiddenClass(generator.toBytes(), true, MethodHandles.Lookup.ClassOption.NESTMATE)
+                    : lookup.defineHiddenClass(generator.toBytes(), true);
+            generator.resolve(hidden);
+            final MethodHandle ctor = hidden.findConstructor(hidden.lookupClass(), CTOR_TYPE);
+            @SuppressWarnings("unchecked")
+            final BeanSupplier<T> supplier = (BeanSupplier<T>) ctor.invoke(generator.getValues(), generator.getSteps(),
+                    generator.getHandlers());
+            return new GeneratedSupplier<>(supplier, InjectionPoint.of(argumentSuppliers, injectors));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // fall back to reflection
+            return null;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Get a full-privilege lookup for the bean class, if one is available and the bean class can link against
+     * this module.
+     */
+    private static MethodHandles.Lookup beanLookup(Class<?> clazz) {
+        final ClassLoader loader = clazz.getClassLoader();
+        if (loader == null || !clazz.getModule().canRead(MODULE) || !isVisible(loader, BeanSupplier.class)
+                || !isVisible(loader, Scope.class)) {
+            return null;
+        }
+        final MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(clazz, LOOKUP);
+        } catch (IllegalAccessException | SecurityException e) {
+            return null;
+        }
+        return lookup.hasFullPrivilegeAccess() ? lookup : null;
+    }
+
+    private static boolean isVisible(ClassLoader loader, Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static boolean samePackage(Class<?> a, Class<?> b) {
+        return a.getClassLoader() == b.getClassLoader() && a.getPackageName().equals(b.getPackageName());
+    }
+
+    private static boolean areAccessible(Class<?> host, Class<?>[] types) {
+        for (Class<?> type : types) {
+            if (type.isPrimitive() || !isAccessible(host, type)) {
+                // primitives are left to reflection, which takes care of unboxing
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAccessible(Class<?> host, Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return false;
+        }
+        if (type.isHidden() || !isVisible(host.getClassLoader(), type)) {
+            return false;
+        }
+        final Module module = type.getModule();
+        if (!host.getModule().canRead(module) || !module.isExported(type.getPackageName(), host.getModule())) {
+            return false;
+        }
+        return Modifier.isPublic(type.getModifiers()) || samePackage(host, type);
+    }
+
+    private static boolean isAccessible(Class<?> host, Member member, boolean nestmate) {
+        final Class<?> declaringClass = member.getDeclaringClass();
+        if (!isAccessible(host, declaringClass)) {
+            return false;
+        }
+        final int mods = member.getModifiers();
+        if (Modifier.isPublic(mods)) {
+            return true;
+        } else if (Modifier.isPrivate(mods)) {
+            return nestmate && declaringClass.isNestmateOf(host);
+        } else {
+            // package-private or protected; we are never a subclass
+            return samePackage(host, declaringClass);
+        }
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.isArray() ? type.descriptorString() : type.getName().replace('.', '/');
+    }
+
+    /**
+     * A wrapper for a generated supplier which carries the injection points of the bean.
+     */
+    static final class GeneratedSupplier<T> implements BeanSupplier<T> {
+        private final BeanSupplier<T> delegate;
+        private final List<InjectionPoint> injectionPoints;
+
+        GeneratedSupplier(final BeanSupplier<T> delegate, final List<InjectionPoint> injectionPoints) {
+            this.delegate = delegate;
+            this.injectionPoints = injectionPoints;
+        }
+
+        public List<InjectionPoint> getInjectionPoints() {
+            return injectionPoints;
+        }
+
+        public T get(final Scope scope) {
+            return delegate.get(scope);
+        }
+    }
+
+    /**
+     * The class file generator.
+     * <p>
+     * The {@code get} method of the generated class keeps the scope in local 1 and the bean instance in local 2.
+     * Values are acquired from the {@code s} functions, which report failures like the reflective suppliers and
+     * injectors; reflective steps are run by the {@code i} consumers; and the exception handlers of direct
+     * constructor and method invocations translate failures by way of the {@code h} functions.
+     */
+    static final class Generator<T> {
+        private static final int CTOR_HANDLER = 0;
+        private static final int METHOD_HANDLER = 1;
+
+        private final String name;
+        private final Class<T> type;
+        private final ConstantPool cp = new ConstantPool();
+        private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+        private final List<BiFunction<Scope, Object, Object>> values = new ArrayList<>();
+        private final List<BiConsumer<Scope, Object>> steps = new ArrayList<>();
+        private final List<BiFunction<Object, Object, Function<Throwable, Throwable>>> handlers = new ArrayList<>();
+        /**
+         * The guarded ranges of the handlers: kind, start and end offset.
+         */
+        private final List<int[]> guards = new ArrayList<>();
+        private final List<Member> directMembers = new ArrayList<>();
+        private int maxStack = 5;
+
+        Generator(final String name, final Class<T> type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        BiFunction<?, ?, ?>[] getValues() {
+            return values.toArray(BiFunction[]::new);
+        }
+
+        BiConsumer<?, ?>[] getSteps() {
+            return steps.toArray(BiConsumer[]::new);
+        }
+
+        BiFunction<?, ?, ?>[] getHandlers() {
+            return handlers.toArray(BiFunction[]::new);
+        }
+
+        /**
+         * Resolve every member which is accessed directly, from the point of view of the generated class.
+         *
+         * @param hidden the lookup of the generated class (must not be {@code null})
+         * @throws ReflectiveOperationException if some member cannot be resolved or accessed
+         */
+        void resolve(MethodHandles.Lookup hidden) throws ReflectiveOperationException {
+            for (Member member : directMembers) {
+                if (member instanceof Constructor<?> c) {
+                    hidden.findConstructor(c.getDeclaringClass(), MethodType.methodType(void.class, c.getParameterTypes()));
+                } else if (member instanceof Field f) {
+                    hidden.findSetter(f.getDeclaringClass(), f.getName(), f.getType());
+                } else {
+                    final Method m = (Method) member;
+                    hidden.findVirtual(m.getDeclaringClass(), m.getName(),
+                            MethodType.methodType(m.getReturnType(), m.getParameterTypes()));
+                }
+            }
+        }
+
+        void construct(Constructor<T> constructor, List<BeanSupplier<?>> argumentSuppliers) {
+            directMembers.add(constructor);
+            final String owner = internalName(type);
+            op(0xbb); // new
+            u2(cp.classRef(owner));
+            op(0x59); // dup
+            final Class<?>[] parameterTypes = constructor.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                final BeanSupplier<?> supplier = argumentSuppliers.get(i);
+                final int index = i;
+                supply((scope, ignored) -> {
+                    try {
+                        return supplier.get(scope);
+                    } catch (Exception ex) {
+                        throw ConstructorSupplier.argumentFailed(constructor, index, ex);
+                    }
+                }, false, parameterTypes[i]);
+            }
+            final int start = code.size();
+            op(0xb7); // invokespecial
+            u2(cp.methodRef(owner, "<init>", MethodType.methodType(void.class, parameterTypes).descriptorString(), false));
+            guard(CTOR_HANDLER, start, (instance, value) -> ConstructorSupplier::invocationFailed);
+            op(0x4d); // astore_2
+            maxStack = Math.max(maxStack, parameterTypes.length + 5);
+        }
+
+        void construct(BeanSupplier<T> supplier) {
+            supply((scope, ignored) -> supplier.get(scope), false, type);
+            op(0x4d); // astore_2
+        }
+
+        void injectField(FieldInjector<T, ?> injector) {
+            final Field field = injector.getField();
+            final BeanSupplier<?> supplier = injector.getSupplier();
+            directMembers.add(field);
+            op(0x2c); // aload_2
+            supply((scope, instance) -> {
+                try {
+                    return supplier.get(scope);
+                } catch (Throwable t) {
+                    throw injector.acquisitionFailed(instance, t);
+                }
+            }, true, field.getType());
+            op(0xb5); // putfield
+            u2(cp.fieldRef(internalName(field.getDeclaringClass()), field.getName(), field.getType().descriptorString()));
+        }
+
+        void injectMethod(MethodInjector<T, ?> injector) {
+            final Method method = injector.getMethod();
+            final BeanSupplier<?> supplier = injector.getSupplier();
+            directMembers.add(method);
+            final Class<?> declaringClass = method.getDeclaringClass();
+            final boolean itf = declaringClass.isInterface();
+            op(0x2c); // aload_2
+            supply((scope, instance) -> {
+                try {
+                    return supplier.get(scope);
+                } catch (Throwable t) {
+                    throw injector.acquisitionFailed(instance, t);
+                }
+            }, true, method.getParameterTypes()[0]);
+            // keep the value for the exception handler
+            op(0x59); // dup
+            op(0x4e); // astore_3
+            final int ref = cp.methodRef(internalName(declaringClass), method.getName(),
+                    MethodType.methodType(method.getReturnType(), method.getParameterTypes()).descriptorString(), itf);
+            final int start = code.size();
+            if (itf) {
+                op(0xb9); // invokeinterface
+                u2(ref);
+                op(2);
+                op(0);
+            } else {
+                op(0xb6); // invokevirtual
+                u2(ref);
+            }
+            guard(METHOD_HANDLER, start, (instance, value) -> cause -> injector.injectionFailed(instance, value,
+                    new InvocationTargetException(cause)));
+            final Class<?> returnType = method.getReturnType();
+            if (returnType == long.class || returnType == double.class) {
+                op(0x58); // pop2
+            } else if (returnType != void.class) {
+                op(0x57); // pop
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void inject(Injector<T> injector) {
+            final int idx = steps.size();
+            steps.add((scope, instance) -> injector.injectInto(scope, (T) instance));
+            op(0x2a); // aload_0
+            op(0xb4); // getfield
+            u2(cp.fieldRef(name, "i", STEP_ARRAY));
+            iconst(idx);
+            op(0x32); // aaload
+            op(0x2b); // aload_1
+            op(0x2c); // aload_2
+            op(0xb9); // invokeinterface
+            u2(cp.methodRef(STEP, "accept", "(Ljava/lang/Object;Ljava/lang/Object;)V", true));
+            op(3);
+            op(0);
+        }
+
+        /**
+         * Emit code to push the value of the given function on to the stack, cast to the given type.
+         * The function is called with the scope and with the bean instance, if there is one yet.
+         */
+        private void supply(BiFunction<Scope, Object, Object> value, boolean withInstance, Class<?> castType) {
+            final int idx = values.size();
+            values.add(value);
+            op(0x2a); // aload_0
+            op(0xb4); // getfield
+            u2(cp.fieldRef(name, "s", VALUE_ARRAY));
+            iconst(idx);
+            op(0x32); // aaload
+            op(0x2b); // aload_1
+            op(withInstance ? 0x2c : 0x01); // aload_2 or aconst_null
+            op(0xb9); // invokeinterface
+            u2(cp.methodRef(VALUE, "apply", APPLY_DESC, true));
+            op(3);
+            op(0);
+            if (castType != Object.class) {
+                op(0xc0); // checkcast
+                u2(cp.classRef(internalName(castType)));
+            }
+        }
+
+        /**
+         * Guard the instruction which starts at the given offset with an exception handler.
+         * The handler function is called with the bean instance and the injected value, if any, and returns the
+         * translation of the failure.
+         */
+        private void guard(int kind, int start, BiFunction<Object, Object, Function<Throwable, Throwable>> handler) {
+            guards.add(new int[] { kind, start, code.size(), handlers.size() });
+            handlers.add(handler);
+        }
+
+        private void iconst(int val) {
+            if (val <= 5) {
+                op(0x03 + val); // iconst_<n>
+            } else if (val <= Byte.MAX_VALUE) {
+                op(0x10); // bipush
+                op(val);
+            } else {
+                op(0x11); // sipush
+                u2(val);
+            }
+        }
+
+        private void op(int b) {
+            code.write(b);
+        }
+
+        private void u2(int v) {
+            code.write(v >> 8);
+            code.write(v);
+        }
+
+        /**
+         * Emit the exception handlers after the end of the {@code get} method, and produce their exception table
+         * and stack map frames.
+         */
+        private byte[] emitHandlers(List<int[]> exceptionTable) throws IOException {
+            final ByteArrayOutputStream os = new ByteArrayOutputStream();
+            final DataOutputStream frames = new DataOutputStream(os);
+            final int thisClass = cp.classRef(name);
+            final int scopeClass = cp.classRef(SCOPE);
+            final int beanClass = cp.classRef(internalName(type));
+            final int objectClass = cp.classRef("java/lang/Object");
+            final int throwableClass = cp.classRef("java/lang/Throwable");
+            final int functionClass = cp.classRef(FUNCTION);
+            final int hRef = cp.fieldRef(name, "h", VALUE_ARRAY);
+            final int applyRef = cp.methodRef(VALUE, "apply", APPLY_DESC, true);
+            final int functionApplyRef = cp.methodRef(FUNCTION, "apply", "(Ljava/lang/Object;)Ljava/lang/Object;", true);
+            int previous = -1;
+            for (int[] guard : guards) {
+                final boolean ctor = guard[0] == CTOR_HANDLER;
+                final int handlerPc = code.size();
+                exceptionTable.add(new int[] { guard[1], guard[2], handlerPc });
+                // full frame: locals this, scope [, bean, value]; stack the failure
+                frames.writeByte(255);
+                frames.writeShort(previous == -1 ? handlerPc : handlerPc - previous - 1);
+                previous = handlerPc;
+                final int[] locals = ctor ? new int[] { thisClass, scopeClass }
+                        : new int[] { thisClass, scopeClass, beanClass, objectClass };
+                frames.writeShort(locals.length);
+                for (int local : locals) {
+                    frames.writeByte(7); // object
+                    frames.writeShort(local);
+                }
+                frames.writeShort(1);
+                frames.writeByte(7);
+                frames.writeShort(throwableClass);
+                op(0x3a); // astore
+                op(4);
+                op(0x2a); // aload_0
+                op(0xb4); // getfield
+                u2(hRef);
+                iconst(guard[3]);
+                op(0x32); // aaload
+                if (ctor) {
+                    op(0x01); // aconst_null
+                    op(0x01); // aconst_null
+                } else {
+                    op(0x2c); // aload_2
+                    op(0x2d); // aload_3
+                }
+                op(0xb9); // invokeinterface
+                u2(applyRef);
+                op(3);
+                op(0);
+                op(0xc0); // checkcast
+                u2(functionClass);
+                op(0x19); // aload
+                op(4);
+                op(0xb9); // invokeinterface
+                u2(functionApplyRef);
+                op(2);
+                op(0);
+                op(0xc0); // checkcast
+                u2(throwableClass);
+                op(0xbf); // athrow
+            }
+            frames.flush();
+            return os.toByteArray();
+        }
+
+        byte[] toBytes() {
+            // finish the get method
+            op(0x2c); // aload_2
+            op(0xb0); // areturn
+            final List<int[]> exceptionTable = new ArrayList<>();
+            final byte[] frames;
+            try {
+                frames = emitHandlers(exceptionTable);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            final int thisClass = cp.classRef(name);
+            final int superClass = cp.classRef("java/lang/Object");
+            final int itf = cp.classRef(SUPPLIER);
+            final int sField = cp.utf8("s");
+            final int iField = cp.utf8("i");
+            final int hField = cp.utf8("h");
+            final int valuesDesc = cp.utf8(VALUE_ARRAY);
+            final int stepsDesc = cp.utf8(STEP_ARRAY);
+            final int init = cp.utf8("<init>");
+            final int initDesc = cp.utf8(CTOR_TYPE.descriptorString());
+            final int get = cp.utf8("get");
+            final int getDesc = cp.utf8(GET_DESC);
+            final int codeAttr = cp.utf8("Code");
+            final int stackMapAttr = cp.utf8("StackMapTable");
+            final int objInit = cp.methodRef("java/lang/Object", "<init>", "()V", false);
+            final int sRef = cp.fieldRef(name, "s", VALUE_ARRAY);
+            final int iRef = cp.fieldRef(name, "i", STEP_ARRAY);
+            final int hRef = cp.fieldRef(name, "h", VALUE_ARRAY);
+            try {
+                final ByteArrayOutputStream os = new ByteArrayOutputStream();
+                final DataOutputStream out = new DataOutputStream(os);
+                out.writeInt(0xCAFEBABE);
+                out.writeShort(0);
+                out.writeShort(55);
+                cp.writeTo(out);
+                out.writeShort(0x1031); // public final super synthetic
+                out.writeShort(thisClass);
+                out.writeShort(superClass);
+                out.writeShort(1);
+                out.writeShort(itf);
+                // fields
+                out.writeShort(3);
+                for (int[] field : new int[][] { { sField, valuesDesc }, { iField, stepsDesc }, { hField, valuesDesc } }) {
+                    out.writeShort(0x0012); // private final
+                    out.writeShort(field[0]);
+                    out.writeShort(field[1]);
+                    out.writeShort(0);
+                }
+                // methods
+                out.writeShort(2);
+                // constructor
+                out.writeShort(0x0001); // public
+                out.writeShort(init);
+                out.writeShort(initDesc);
+                out.writeShort(1);
+                final byte[] ctorCode = {
+                        0x2a, // aload_0
+                        (byte) 0xb7, (byte) (objInit >> 8), (byte) objInit, // invokespecial Object.<init>
+                        0x2a, // aload_0
+                        0x2b, // aload_1
+                        (byte) 0xb5, (byte) (sRef >> 8), (byte) sRef, // putfield s
+                        0x2a, // aload_0
+                        0x2c, // aload_2
+                        (byte) 0xb5, (byte) (iRef >> 8), (byte) iRef, // putfield i
+                        0x2a, // aload_0
+                        0x2d, // aload_3
+                        (byte) 0xb5, (byte) (hRef >> 8), (byte) hRef, // putfield h
+                        (byte) 0xb1, // return
+                };
+                writeCode(out, codeAttr, 2, 4, ctorCode, List.of(), 0, null);
+                // get
+                out.writeShort(0x0001); // public
+                out.writeShort(get);
+                out.writeShort(getDesc);
+                out.writeShort(1);
+                writeCode(out, codeAttr, maxStack, 5, code.toByteArray(), exceptionTable, stackMapAttr, frames);
+                // attributes
+                out.writeShort(0);
+                out.flush();
+                return os.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static void writeCode(DataOutputStream out, int codeAttr, int maxStack, int maxLocals, byte[] bytes,
+                List<int[]> exceptionTable, int stackMapAttr, byte[] frames) throws IOException {
+            final boolean hasFrames = !exceptionTable.isEmpty();
+            out.writeShort(codeAttr);
+            out.writeInt(12 + bytes.length + 8 * exceptionTable.size() + (hasFrames ? 8 + frames.length : 0));
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeShort(exceptionTable.size());
+            for (int[] entry : exceptionTable) {
+                out.writeShort(entry[0]);
+                out.writeShort(entry[1]);
+                out.writeShort(entry[2]);
+                out.writeShort(0); // any
+            }
+            if (hasFrames) {
+                out.writeShort(1);
+                out.writeShort(stackMapAttr);
+                out.writeInt(2 + frames.length);
+                out.writeShort(exceptionTable.size());
+                out.write(frames);
+            } else {
+                out.writeShort(0); // attributes
+            }
+        }
+    }
+
+    /**
+     * A minimal class file constant pool.
+     */
+    static final class ConstantPool {
+        private final Map<String, Integer> entries = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int count = 1;
+
+        int utf8(String value) {
+            return entries.computeIfAbsent("U" + value, k -> add(1, o -> o.writeUTF(value)));
+        }
+
+        int classRef(String name) {
+            final int nameIdx = utf8(name);
+            return entries.computeIfAbsent("C" + name, k -> add(7, o -> o.writeShort(nameIdx)));
+        }
+
+        int nameAndType(String name, String desc) {
+            final int nameIdx = utf8(name);
+            final int descIdx = utf8(desc);
+            return entries.computeIfAbsent("N" + name + ':' + desc, k -> add(12, o -> {
+                o.writeShort(nameIdx);
+                o.writeShort(descIdx);
+            }));
+        }
+
+        int fieldRef(String owner, String name, String desc) {
+            return memberRef(9, owner, name, desc);
+        }
+
+        int methodRef(String owner, String name, String desc, boolean itf) {
+            return memberRef(itf ? 11 : 10, owner, name, desc);
+        }
+
+        private int memberRef(int tag, String owner, String name, String desc) {
+            final int classIdx = classRef(owner);
+            final int natIdx = nameAndType(name, desc);
+            return entries.computeIfAbsent(tag + owner + '.' + name + ':' + desc, k -> add(tag, o -> {
+                o.writeShort(classIdx);
+                o.writeShort(natIdx);
+            }));
+        }
+
+        private int add(int tag, EntryWriter writer) {
+            try {
+                out.writeByte(tag);
+                writer.write(out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return count++;
+        }
+
+        void writeTo(DataOutputStream os) throws IOException {
+            os.writeShort(count);
+            out.flush();
+            bytes.writeTo(os);
+        }
+
+        interface EntryWriter {
+            void write(DataOutputStream out) throws IOException;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package io.smallrye.beanbag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ */
+public final class BeanBagTestCase {
+
+    @Test
+    public void testSingletonLookups() {
+        final AtomicInteger count = new AtomicInteger();
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addBean(Service.class)
+                .setSingleton(true)
+                .setName("one")
+                .setSupplier(scope -> {
+                    count.incrementAndGet();
+                    return new Service();
+                })
+                .build();
+        builder.addBean(Service.class)
+                .setName("two")
+                .setPriority(-1)
+                .setSupplier(scope -> new Service())
+                .build();
+        final BeanBag container = builder.build();
+        final Service one = container.requireBean(Service.class);
+        // existing singletons are returned directly
+        assertSame(one, container.requireBean(Service.class));
+        assertSame(one, container.requireBean(Service.class, "one"));
+        assertSame(one, container.getOptionalBean(Service.class, "one"));
+        assertEquals(1, count.get());
+        // non-singletons still get a new scope
+        final Service two = container.requireBean(Service.class, "two");
+        assertNotSame(two, container.requireBean(Service.class, "two"));
+        assertNull(container.getOptionalBean(Service.class, "three"));
+        final List<Service> all = container.getAllBeans(Service.class);
+        assertEquals(2, all.size());
+        assertSame(one, all.get(0));
+    }
+
+    @Test
+    public void testHasBean() {
+        final AtomicInteger count = new AtomicInteger();
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addBean(Service.class)
+                .setSingleton(true)
+                .setName("one")
+                .setPriority(5)
+                .setSupplier(scope -> {
+                    count.incrementAndGet();
+                    return new Service();
+                })
+                .build();
+        builder.addBean(Service.class)
+                .setName("two")
+                .setSupplier(scope -> {
+                    throw new IllegalStateException("never instantiated");
+                })
+                .build();
+        final BeanBag container = builder.build();
+        assertTrue(container.hasBean(Service.class));
+        assertTrue(container.hasBean(Service.class, "two"));
+        assertFalse(container.hasBean(Service.class, "three"));
+        assertFalse(container.hasBean(String.class));
+        assertTrue(container.hasBean(Service.class, "", (type, name, priority) -> priority < 5));
+        assertFalse(container.hasBean(Service.class, "one", (type, name, priority) -> priority < 5));
+        final Scope scope = container.newScope();
+        assertTrue(scope.hasBean(Service.class));
+        assertFalse(scope.hasBean(Service.class, "two", DependencyFilter.REJECT));
+        // nothing was instantiated
+        assertEquals(0, count.get());
+    }
+
+    @Test
+    public void testBuilderFromBase() {
+        final AtomicInteger count = new AtomicInteger();
+        final BeanBag.Builder baseBuilder = BeanBag.builder();
+        baseBuilder.addBean(Service.class)
+                .setSingleton(true)
+                .setName("one")
+                .setSupplier(scope -> {
+                    count.incrementAndGet();
+                    return new Service();
+                })
+                .build();
+        baseBuilder.addBean(String.class).setName("base").setInstance("base").build();
+        final BeanBag base = baseBuilder.build();
+        final BeanBag first = BeanBag.builder(base).build();
+        final BeanBag.Builder builder = BeanBag.builder(base);
+        builder.addBean(String.class).setName("added").setInstance("added").build();
+        final BeanBag second = builder.build();
+        // each container has its own singletons
+        assertNotSame(first.requireBean(Service.class), second.requireBean(Service.class));
+        assertNotSame(base.requireBean(Service.class), first.requireBean(Service.class));
+        assertEquals(3, count.get());
+        // added beans win ties of priority
+        assertEquals("added", second.requireBean(String.class));
+        assertEquals(List.of("added", "base"), second.getAllBeans(String.class));
+        assertEquals("base", first.requireBean(String.class));
+        assertFalse(base.hasBean(String.class, "added"));
+    }
+
+    @Test
+    public void testHigherPriorityNonSingleton() {
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addBean(Service.class).setInstance(new Service()).build();
+        builder.addBean(Service.class).setPriority(10).setSupplier(scope -> new Service()).build();
+        final BeanBag container = builder.build();
+        assertNotSame(container.requireBean(Service.class), container.requireBean(Service.class));
+        final Service singleton = container.getAllBeans(Service.class).get(1);
+        assertSame(singleton, container.getAllBeans(Service.class).get(1));
+    }
+
+    @Test
+    public void testUnindexedLookups() {
+        final Service[] services = { new Service() };
+        final BeanBag.Builder baseBuilder = BeanBag.builder();
+        baseBuilder.addBean(Service[].class).setInstance(services).build();
+        final BeanBag.Builder builder = BeanBag.builder(baseBuilder.build());
+        builder.addBean(Service.class).setInstance(new Service()).build();
+        final BeanBag container = builder.build();
+        // array lookups match covariant array beans, including inherited ones
+        assertSame(services, container.requireBean(Object[].class));
+        assertSame(services, container.requireBean(Service[].class));
+        final List<Object[]> arrays = container.getAllBeans(Object[].class);
+        assertEquals(1, arrays.size());
+        assertSame(services, arrays.get(0));
+        assertFalse(container.hasBean(String[].class));
+        // other lookups of types which are not in the index match nothing
+        assertFalse(container.hasBean(Runnable.class));
+        assertNull(container.getOptionalBean(CharSequence.class));
+        assertEquals(List.of(), container.getAllBeans(Comparable.class));
+    }
+
+    public static final class Service {
+    }
+}
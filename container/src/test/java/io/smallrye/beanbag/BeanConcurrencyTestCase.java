@@ -0,0 +1,263 @@
+package io.smallrye.beanbag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ */
+public final class BeanConcurrencyTestCase {
+
+    @Test
+    public void testSharedSingletonsUnderContention() throws Exception {
+        final int threads = 32;
+        final int rounds = 200;
+        final AtomicInteger leaves = new AtomicInteger();
+        final AtomicInteger middles = new AtomicInteger();
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addBean(Leaf.class)
+                .setSingleton(true)
+                .setSupplier(scope -> {
+                    leaves.incrementAndGet();
+                    Thread.yield();
+                    return new Leaf();
+                })
+                .build();
+        builder.addBean(Middle.class)
+                .setSingleton(true)
+                .setSupplier(scope -> {
+                    middles.incrementAndGet();
+                    return new Middle(scope.requireBean(Leaf.class));
+                })
+                .build();
+        builder.addBean(Top.class)
+                .setSupplier(scope -> new Top(scope.requireBean(Middle.class), scope.requireBean(Leaf.class)))
+                .build();
+        final BeanBag container = builder.build();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<List<Top>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    final List<Top> list = new ArrayList<>(rounds);
+                    for (int j = 0; j < rounds; j++) {
+                        list.add(container.requireBean(Top.class));
+                    }
+                    return list;
+                }));
+            }
+            start.countDown();
+            final Middle middle = container.requireBean(Middle.class);
+            for (Future<List<Top>> future : futures) {
+                for (Top top : future.get(30, TimeUnit.SECONDS)) {
+                    assertSame(middle, top.middle);
+                    assertSame(middle.leaf, top.leaf);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, leaves.get());
+        assertEquals(1, middles.get());
+    }
+
+    @Test
+    public void testWarmUp() throws Exception {
+        final AtomicInteger leaves = new AtomicInteger();
+        final AtomicInteger middles = new AtomicInteger();
+        final AtomicInteger tops = new AtomicInteger();
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addBean(Leaf.class)
+                .setSingleton(true)
+                .setSupplier(scope -> {
+                    leaves.incrementAndGet();
+                    return new Leaf();
+                })
+                .build();
+        builder.addBean(Middle.class)
+                .setEager(true)
+                .setSupplier(scope -> {
+                    middles.incrementAndGet();
+                    return new Middle(scope.requireBean(Leaf.class));
+                })
+                .build();
+        builder.addBean(Top.class)
+                .setEager(true)
+                .setSupplier(scope -> {
+                    tops.incrementAndGet();
+                    return new Top(scope.requireBean(Middle.class), scope.requireBean(Leaf.class));
+                })
+                .build();
+        final BeanBag container = builder.build();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            container.warmUp(executor).get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, leaves.get());
+        assertEquals(1, middles.get());
+        assertEquals(1, tops.get());
+        assertSame(container.requireBean(Middle.class), container.requireBean(Top.class).middle);
+        assertEquals(1, tops.get());
+    }
+
+    @Test
+    public void testEagerNonSingleton() throws Exception {
+        final AtomicInteger leaves = new AtomicInteger();
+        final AtomicInteger middles = new AtomicInteger();
+        final BeanBag.Builder builder = BeanBag.builder();
+        // clearing the singleton flag afterwards also clears the eager flag
+        builder.addBean(Leaf.class)
+                .setEager(true)
+                .setSingleton(false)
+                .setSupplier(scope -> {
+                    leaves.incrementAndGet();
+                    return new Leaf();
+                })
+                .build();
+        // setting the eager flag afterwards makes the bean a singleton again
+        builder.addBean(Middle.class)
+                .setSingleton(false)
+                .setEager(true)
+                .setSupplier(scope -> {
+                    middles.incrementAndGet();
+                    return new Middle(scope.requireBean(Leaf.class));
+                })
+                .build();
+        final BeanBag container = builder.build();
+        container.warmUp(Runnable::run).get(30, TimeUnit.SECONDS);
+        assertEquals(1, leaves.get());
+        assertEquals(1, middles.get());
+        assertSame(container.requireBean(Middle.class), container.requireBean(Middle.class));
+        assertNotSame(container.requireBean(Leaf.class), container.requireBean(Leaf.class));
+        assertEquals(1, middles.get());
+        for (DependencyGraph.Node node : container.getDependencyGraph().getNodes()) {
+            assertEquals(node.getType() == Middle.class, node.isEager(), node.toString());
+            assertEquals(node.isSingleton(), node.isEager(), node.toString());
+        }
+    }
+
+    @Test
+    public void testSameThreadCycle() {
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addBean(Leaf.class)
+                .setSingleton(true)
+                .setSupplier(scope -> {
+                    scope.requireBean(Middle.class);
+                    return new Leaf();
+                })
+                .build();
+        builder.addBean(Middle.class)
+                .setSingleton(true)
+                .setSupplier(scope -> new Middle(scope.requireBean(Leaf.class)))
+                .build();
+        final BeanBag container = builder.build();
+        final BeanInstantiationException e = assertThrows(BeanInstantiationException.class,
+                () -> container.requireBean(Middle.class));
+        assertTrue(mentionsCycle(e), e::toString);
+        // the failure is remembered
+        assertThrows(BeanInstantiationException.class, () -> container.requireBean(Middle.class));
+    }
+
+    @Test
+    public void testCrossThreadCycle() throws Exception {
+        final CountDownLatch leafStarted = new CountDownLatch(1);
+        final CountDownLatch middleStarted = new CountDownLatch(1);
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addBean(Leaf.class)
+                .setSingleton(true)
+                .setSupplier(scope -> {
+                    leafStarted.countDown();
+                    await(middleStarted);
+                    scope.requireBean(Middle.class);
+                    return new Leaf();
+                })
+                .build();
+        builder.addBean(Middle.class)
+                .setSingleton(true)
+                .setSupplier(scope -> {
+                    middleStarted.countDown();
+                    await(leafStarted);
+                    return new Middle(scope.requireBean(Leaf.class));
+                })
+                .build();
+        final BeanBag container = builder.build();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Leaf> leaf = executor.submit(() -> container.requireBean(Leaf.class));
+            final Future<Middle> middle = executor.submit(() -> container.requireBean(Middle.class));
+            assertFailed(leaf);
+            assertFailed(middle);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertFailed(Future<?> future) throws Exception {
+        final ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(30, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof BeanInstantiationException, String.valueOf(e.getCause()));
+    }
+
+    private static boolean mentionsCycle(Throwable t) {
+        if (t == null) {
+            return false;
+        }
+        if (String.valueOf(t.getMessage()).contains("cycle")) {
+            return true;
+        }
+        for (Throwable suppressed : t.getSuppressed()) {
+            if (mentionsCycle(suppressed)) {
+                return true;
+            }
+        }
+        return mentionsCycle(t.getCause());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static final class Leaf {
+    }
+
+    public static final class Middle {
+        final Leaf leaf;
+
+        Middle(final Leaf leaf) {
+            this.leaf = leaf;
+        }
+    }
+
+    public static final class Top {
+        final Middle middle;
+        final Leaf leaf;
+
+        Top(final Middle middle, final Leaf leaf) {
+            this.middle = middle;
+            this.leaf = leaf;
+        }
+    }
+}
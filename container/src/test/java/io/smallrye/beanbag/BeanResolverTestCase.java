@@ -0,0 +1,77 @@
+package io.smallrye.beanbag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ */
+public final class BeanResolverTestCase {
+
+    @Test
+    public void testBoundCandidates() {
+        final BeanSupplier<String> resolver = BeanSupplier.resolving(String.class, "",
+                false, (type, name, priority) -> !name.equals("rejected"));
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addBean(String.class).setName("rejected").setPriority(10).setInstance("rejected").build();
+        builder.addBean(String.class).setName("low").setPriority(1).setInstance("low").build();
+        builder.addBean(String.class).setName("high").setPriority(5).setSupplier(scope -> null).build();
+        final BeanBag container = builder.build();
+        // the first candidate yields no instance, so the next one wins; repeat to use the bound candidates
+        assertEquals("low", resolver.get(container.newScope()));
+        assertEquals("low", resolver.get(container.newScope()));
+    }
+
+    @Test
+    public void testSharedAcrossContainers() {
+        final BeanSupplier<StringBuilder> resolver = BeanSupplier.resolving(StringBuilder.class, "", true,
+                DependencyFilter.ACCEPT);
+        final BeanBag.Builder builder1 = BeanBag.builder();
+        builder1.addBean(StringBuilder.class).setSupplier(scope -> new StringBuilder()).build();
+        final BeanBag container1 = builder1.build();
+        final BeanBag container2 = BeanBag.builder().build();
+        final Scope scope1 = container1.newScope();
+        assertEquals(0, resolver.get(scope1).length());
+        assertNull(resolver.get(container2.newScope()));
+        assertNotSame(resolver.get(scope1), resolver.get(container1.newScope()));
+        final BeanSupplier<StringBuilder> required = BeanSupplier.resolving(StringBuilder.class, "", false,
+                DependencyFilter.ACCEPT);
+        assertThrows(NoSuchBeanException.class, () -> required.get(container2.newScope()));
+    }
+
+    @Test
+    public void testInterleavedContainers() {
+        final AtomicInteger filtered = new AtomicInteger();
+        final DependencyFilter filter = (type, name, priority) -> {
+            filtered.incrementAndGet();
+            return true;
+        };
+        final BeanSupplier<String> resolver = BeanSupplier.resolving(String.class, "", false, filter);
+        final BeanSupplier<List<String>> allResolver = BeanSupplier.resolvingAllLazily(String.class, "", filter);
+        final BeanBag.Builder baseBuilder = BeanBag.builder();
+        baseBuilder.addBean(String.class).setInstance("base").build();
+        final BeanBag base = baseBuilder.build();
+        final BeanBag container1 = BeanBag.builder(base).build();
+        final BeanBag container2 = BeanBag.builder(base).build();
+        assertEquals("base", resolver.get(container1.newScope()));
+        assertEquals(List.of("base"), allResolver.get(container1.newScope()));
+        assertEquals("base", resolver.get(container2.newScope()));
+        assertEquals(List.of("base"), allResolver.get(container2.newScope()));
+        final int bound = filtered.get();
+        for (int i = 0; i < 10; i++) {
+            assertEquals("base", resolver.get(container1.newScope()));
+            assertEquals(List.of("base"), allResolver.get(container1.newScope()));
+            assertEquals("base", resolver.get(container2.newScope()));
+            assertEquals(List.of("base"), allResolver.get(container2.newScope()));
+        }
+        // each container keeps its own binding
+        assertEquals(bound, filtered.get());
+    }
+}
@@ -0,0 +1,73 @@
+package io.smallrye.beanbag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ */
+public final class DependencyGraphTestCase {
+
+    @Test
+    public void testGraph() throws ReflectiveOperationException {
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addBean(Engine.class)
+                .setSingleton(true)
+                .setName("v8")
+                .addAlias("big")
+                .setSupplier(scope -> {
+                    throw new IllegalStateException("Should not be instantiated");
+                })
+                .build();
+        builder.addBean(Wheel.class)
+                .setSupplier(scope -> {
+                    throw new IllegalStateException("Should not be instantiated");
+                })
+                .build();
+        builder.addBean(Car.class)
+                .buildSupplier()
+                .setConstructor(Car.class.getDeclaredConstructor(Engine.class, List.class))
+                .addConstructorArgument(Engine.class, "big")
+                .addConstructorArgument(BeanSupplier.resolvingAll(Wheel.class, "", DependencyFilter.ACCEPT)
+                        .transform(List::copyOf))
+                .build()
+                .build();
+        final DependencyGraph graph = builder.build().getDependencyGraph();
+        final List<DependencyGraph.Node> nodes = graph.getNodes();
+        assertEquals(4, nodes.size());
+        final DependencyGraph.Node engine = nodes.get(0);
+        final DependencyGraph.Node alias = nodes.get(1);
+        final DependencyGraph.Node wheel = nodes.get(2);
+        final DependencyGraph.Node car = nodes.get(3);
+        assertTrue(engine.isSingleton());
+        assertEquals("big", alias.getName());
+        assertEquals(Set.of(engine), alias.getDependencies());
+        assertFalse(car.isSingleton());
+        final List<InjectionPoint> injectionPoints = car.getInjectionPoints();
+        assertEquals(2, injectionPoints.size());
+        assertEquals(Engine.class, injectionPoints.get(0).getType());
+        assertEquals("big", injectionPoints.get(0).getName());
+        assertFalse(injectionPoints.get(0).isAll());
+        assertEquals(List.of(alias), car.getCandidates(0));
+        assertTrue(injectionPoints.get(1).isAll());
+        assertEquals(List.of(wheel), car.getCandidates(1));
+        assertEquals(Set.of(alias, wheel), car.getDependencies());
+    }
+
+    public static final class Engine {
+    }
+
+    public static final class Wheel {
+    }
+
+    public static final class Car {
+        Car(final Engine engine, final List<Wheel> wheels) {
+        }
+    }
+}
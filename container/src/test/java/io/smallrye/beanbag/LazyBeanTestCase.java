@@ -0,0 +1,228 @@
+package io.smallrye.beanbag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ */
+public final class LazyBeanTestCase {
+
+    @Test
+    public void testClassLoadedOnLookup() throws Exception {
+        final RecordingClassLoader classLoader = new RecordingClassLoader();
+        final AtomicInteger initialized = new AtomicInteger();
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addLazyBean(classLoader, Impl.class.getName())
+                .addTypeNames(List.of(Service.class.getName(), Object.class.getName()))
+                .setSingleton(true)
+                .setInitializer(new LazyBeanInitializer() {
+                    public <T> void initialize(final Class<T> type, final BeanBag.BeanBuilder<T> beanBuilder) {
+                        initialized.incrementAndGet();
+                        try {
+                            beanBuilder.buildSupplier().setConstructor(type.getConstructor()).build();
+                        } catch (NoSuchMethodException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                })
+                .build();
+        builder.addLazyBean(classLoader, Other.class.getName())
+                .addTypeNames(List.of(Object.class.getName()))
+                .setInitializer(Unused.INSTANCE)
+                .build();
+        final BeanBag container = builder.build();
+        assertTrue(classLoader.loaded.isEmpty());
+        // other types do not load anything
+        assertNull(container.getOptionalBean(Runnable.class));
+        assertTrue(classLoader.loaded.isEmpty());
+        final Service service = container.requireBean(Service.class);
+        assertInstanceOf(Impl.class, service);
+        assertSame(service, container.requireBean(Service.class));
+        assertSame(service, container.requireBean(Impl.class));
+        assertEquals(Set.of(Impl.class.getName()), classLoader.loaded);
+        assertEquals(1, initialized.get());
+    }
+
+    @Test
+    public void testFailuresAtLookup() {
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addLazyBean(getClass().getClassLoader(), Impl.class.getName())
+                .addTypeNames(List.of(Service.class.getName()))
+                .setInitializer(new LazyBeanInitializer() {
+                    public <T> void initialize(final Class<T> type, final BeanBag.BeanBuilder<T> beanBuilder) {
+                        throw new IllegalStateException("Broken");
+                    }
+                })
+                .build();
+        // missing classes are ignored
+        builder.addLazyBean(getClass().getClassLoader(), "does.not.Exist")
+                .addTypeNames(List.of(Service.class.getName()))
+                .setInitializer(Unused.INSTANCE)
+                .build();
+        final BeanBag container = builder.build();
+        assertThrows(BeanInstantiationException.class, () -> container.requireBean(Service.class));
+        assertEquals(1, container.getDependencyGraph().getNodes().size());
+    }
+
+    @Test
+    public void testWarmUpLoadsOnlyEagerDependencies() throws Exception {
+        final RecordingClassLoader classLoader = new RecordingClassLoader();
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addLazyBean(classLoader, Other.class.getName())
+                .addTypeNames(List.of(Other.class.getName(), Object.class.getName()))
+                .setSingleton(true)
+                .setInitializer(Unused.INSTANCE)
+                .build();
+        final BeanBag container = builder.build();
+        // nothing is eager
+        assertTrue(container.warmUp(Runnable::run).isDone());
+        assertTrue(classLoader.loaded.isEmpty());
+        builder.addLazyBean(classLoader, Impl.class.getName())
+                .addTypeNames(List.of(Service.class.getName()))
+                .setEager(true)
+                .setInitializer(new LazyBeanInitializer() {
+                    public <T> void initialize(final Class<T> type, final BeanBag.BeanBuilder<T> beanBuilder) {
+                        try {
+                            beanBuilder.buildSupplier().setConstructor(type.getConstructor()).build();
+                        } catch (NoSuchMethodException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                })
+                .build();
+        final BeanBag eagerContainer = builder.build();
+        eagerContainer.warmUp(Runnable::run).get();
+        // the unrelated lazy bean is left alone
+        assertEquals(Set.of(Impl.class.getName()), classLoader.loaded);
+        assertInstanceOf(Impl.class, eagerContainer.requireBean(Service.class));
+    }
+
+    @Test
+    public void testEagerNonSingleton() throws Exception {
+        final RecordingClassLoader classLoader = new RecordingClassLoader();
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addLazyBean(classLoader, Impl.class.getName())
+                .addTypeNames(List.of(Service.class.getName()))
+                .setEager(true)
+                .setSingleton(false)
+                .setInitializer(ImplInitializer.INSTANCE)
+                .build();
+        final BeanBag container = builder.build();
+        // clearing the singleton flag also cleared the eager flag
+        assertTrue(container.warmUp(Runnable::run).isDone());
+        assertTrue(classLoader.loaded.isEmpty());
+        assertNotSame(container.requireBean(Service.class), container.requireBean(Service.class));
+        final DependencyGraph.Node node = container.getDependencyGraph().getNodes().get(0);
+        assertFalse(node.isSingleton());
+        assertFalse(node.isEager());
+    }
+
+    @Test
+    public void testDeclarationOrder() {
+        for (boolean lazyFirst : new boolean[] { true, false }) {
+            final BeanBag.Builder builder = BeanBag.builder();
+            if (!lazyFirst) {
+                builder.addBean(Service.class).setSupplier(scope -> new Service() {
+                }).build();
+            }
+            builder.addLazyBean(getClass().getClassLoader(), Impl.class.getName())
+                    .addTypeNames(List.of(Service.class.getName()))
+                    .setInitializer(ImplInitializer.INSTANCE)
+                    .build();
+            if (lazyFirst) {
+                builder.addBean(Service.class).setSupplier(scope -> new Service() {
+                }).build();
+            }
+            // beans of equal priority are selected in the order that they were added
+            assertEquals(lazyFirst, builder.build().requireBean(Service.class) instanceof Impl);
+        }
+    }
+
+    @Test
+    public void testInitializerBuilder() {
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addLazyBean(getClass().getClassLoader(), Impl.class.getName())
+                .addTypeNames(List.of(Service.class.getName()))
+                .setInitializer(new LazyBeanInitializer() {
+                    public <T> void initialize(final Class<T> type, final BeanBag.BeanBuilder<T> beanBuilder) {
+                        ImplInitializer.INSTANCE.initialize(type, beanBuilder);
+                        assertSame(builder, beanBuilder.build());
+                    }
+                })
+                .build();
+        final BeanBag container = builder.build();
+        assertInstanceOf(Impl.class, container.requireBean(Service.class));
+        // the bean is not added again
+        assertEquals(1, builder.build().getAllBeans(Service.class).size());
+    }
+
+    @Test
+    public void testRestrictedTypes() {
+        final BeanDefinition<?> definition = BeanDefinition.lazy(BeanBag.builder(), "", 0, getClass().getClassLoader(),
+                Impl.class.getName(), Set.of(Impl.class.getName(), Service.class.getName()),
+                List.of(Service.class.getName()), ImplInitializer.INSTANCE, false);
+        // the restricted types are loaded along with the class
+        assertEquals(Set.of(Service.class), definition.getRestrictedTypes());
+        final BeanDefinition<?> missing = BeanDefinition.lazy(BeanBag.builder(), "", 0, getClass().getClassLoader(),
+                "does.not.Exist", Set.of("does.not.Exist"), List.of(), Unused.INSTANCE, false);
+        assertThrows(BeanInstantiationException.class, missing::getRestrictedTypes);
+    }
+
+    public interface Service {
+    }
+
+    public static final class Impl implements Service {
+        public Impl() {
+        }
+    }
+
+    public static final class Other {
+    }
+
+    enum ImplInitializer implements LazyBeanInitializer {
+        INSTANCE;
+
+        public <T> void initialize(final Class<T> type, final BeanBag.BeanBuilder<T> beanBuilder) {
+            try {
+                beanBuilder.buildSupplier().setConstructor(type.getConstructor()).build();
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    enum Unused implements LazyBeanInitializer {
+        INSTANCE;
+
+        public <T> void initialize(final Class<T> type, final BeanBag.BeanBuilder<T> beanBuilder) {
+            throw new IllegalStateException("Unexpected initialization of " + type);
+        }
+    }
+
+    static final class RecordingClassLoader extends ClassLoader {
+        final Set<String> loaded = ConcurrentHashMap.newKeySet();
+
+        RecordingClassLoader() {
+            super(LazyBeanTestCase.class.getClassLoader());
+        }
+
+        protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            loaded.add(name);
+            return super.loadClass(name, resolve);
+        }
+    }
+}
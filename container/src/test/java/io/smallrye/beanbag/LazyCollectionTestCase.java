@@ -0,0 +1,79 @@
+package io.smallrye.beanbag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ */
+public final class LazyCollectionTestCase {
+
+    @Test
+    public void testLazyList() {
+        final Set<String> created = ConcurrentHashMap.newKeySet();
+        final BeanBag container = createContainer(created);
+        final Scope scope = container.newScope();
+        final List<String> list = BeanSupplier.resolvingAllLazily(String.class, "", DependencyFilter.ACCEPT).get(scope);
+        assertTrue(created.isEmpty());
+        assertEquals("high", list.get(0));
+        assertEquals(Set.of("high"), created);
+        assertFalse(list.isEmpty());
+        assertEquals(Set.of("high"), created);
+        // the null beans are skipped
+        assertEquals("shadowed", list.get(1));
+        assertEquals(Set.of("high"), created);
+        assertEquals(3, list.size());
+        assertEquals(scope.getAllBeans(String.class), list);
+        assertEquals(List.of("high", "shadowed", "low"), new ArrayList<>(list));
+    }
+
+    @Test
+    public void testLazyMap() {
+        final Set<String> created = ConcurrentHashMap.newKeySet();
+        final BeanBag container = createContainer(created);
+        final Scope scope = container.newScope();
+        final Map<String, String> map = BeanSupplier.resolvingAllByNameLazily(String.class, DependencyFilter.ACCEPT)
+                .get(scope);
+        assertTrue(created.isEmpty());
+        assertEquals("low", map.get("low"));
+        assertEquals(Set.of("low"), created);
+        assertNull(map.get("missing"));
+        assertFalse(map.containsKey("null"));
+        assertEquals(Set.of("low"), created);
+        assertEquals("high", map.get("high"));
+        final Map<String, String> expected = new HashMap<>();
+        expected.put("high", "high");
+        expected.put("low", "low");
+        expected.put("shadowed", "shadowed");
+        assertEquals(expected, map);
+        assertEquals(List.of("high", "shadowed", "low"), new ArrayList<>(map.keySet()));
+        assertEquals(expected, BeanSupplier.resolvingAllByName(String.class, DependencyFilter.ACCEPT).get(scope));
+    }
+
+    private static BeanBag createContainer(Set<String> created) {
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addBean(String.class).setName("high").setPriority(10).setSupplier(scope -> create(created, "high")).build();
+        builder.addBean(String.class).setName("null").setPriority(8).setSupplier(scope -> null).build();
+        // the first candidate named "shadowed" yields no instance, so the next one wins
+        builder.addBean(String.class).setName("shadowed").setPriority(7).setSupplier(scope -> null).build();
+        builder.addBean(String.class).setName("shadowed").setPriority(6).setSupplier(scope -> "shadowed").build();
+        builder.addBean(String.class).setName("low").setPriority(1).setSupplier(scope -> create(created, "low")).build();
+        return builder.build();
+    }
+
+    private static String create(Set<String> created, String value) {
+        created.add(value);
+        return value;
+    }
+}
@@ -0,0 +1,345 @@
+package io.smallrye.beanbag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ */
+public final class SupplierGeneratorTestCase {
+
+    private static final Dep DEP = new Dep();
+
+    private static final Map<Class<?>, BeanSupplier<?>> SUPPLIERS = Map.of(
+            Dep.class, BeanSupplier.resolving(Dep.class, "", false, DependencyFilter.ACCEPT),
+            int.class, BeanSupplier.of(Integer.valueOf(42)),
+            long.class, BeanSupplier.of(Long.valueOf(1L << 40)),
+            double.class, BeanSupplier.of(Double.valueOf(1.5)),
+            String.class, BeanSupplier.of("hello"));
+
+    @Test
+    public void testNestmateInjection() throws Exception {
+        final Recipe<PrivateBean> recipe = new Recipe<>(PrivateBean.class);
+        final SupplierGenerator.GeneratedSupplier<PrivateBean> supplier = assertInstanceOf(
+                SupplierGenerator.GeneratedSupplier.class, recipe.generate(recipe.beanLookup()));
+        final PrivateBean bean = supplier.get(newScope());
+        assertEquals(recipe.reflective().get(newScope()).describe(), bean.describe());
+        assertSame(DEP, bean.ctorDep);
+        assertSame(DEP, bean.fieldDep);
+        assertSame(DEP, bean.methodDep);
+    }
+
+    @Test
+    public void testNonNestmateInjection() throws Exception {
+        final Recipe<PackageBean> recipe = new Recipe<>(PackageBean.class);
+        final SupplierGenerator.GeneratedSupplier<PackageBean> supplier = assertInstanceOf(
+                SupplierGenerator.GeneratedSupplier.class, recipe.generate(null));
+        final PackageBean bean = supplier.get(newScope());
+        assertEquals(recipe.reflective().get(newScope()).describe(), bean.describe());
+        assertSame(DEP, bean.ctorDep);
+        assertSame(DEP, bean.fieldDep);
+        assertSame(DEP, bean.publicFieldDep);
+        assertSame(DEP, bean.methodDep);
+        assertEquals("hello", bean.name);
+    }
+
+    @Test
+    public void testAccessDeniedFallback() throws Exception {
+        // outside the nest, nothing of a private bean can be accessed directly
+        assertNull(new Recipe<>(PrivateBean.class).generate(null));
+        // whereas a bean with some private members is generated with reflective steps for those members
+        final Recipe<MixedBean> recipe = new Recipe<>(MixedBean.class);
+        final SupplierGenerator.GeneratedSupplier<MixedBean> supplier = assertInstanceOf(
+                SupplierGenerator.GeneratedSupplier.class, recipe.generate(null));
+        final MixedBean bean = supplier.get(newScope());
+        assertEquals(recipe.reflective().get(newScope()).describe(), bean.describe());
+        assertSame(DEP, bean.ctorDep);
+        assertSame(DEP, bean.privateFieldDep);
+        assertSame(DEP, bean.privateMethodDep);
+        assertSame(DEP, bean.publicFieldDep);
+    }
+
+    @Test
+    public void testPrimitiveArguments() throws Exception {
+        for (MethodHandles.Lookup lookup : Arrays.asList(null, new Recipe<>(PrimitiveBean.class).beanLookup())) {
+            final Recipe<PrimitiveBean> recipe = new Recipe<>(PrimitiveBean.class);
+            final BeanSupplier<PrimitiveBean> supplier = recipe.generate(lookup);
+            assertInstanceOf(SupplierGenerator.GeneratedSupplier.class, supplier);
+            final PrimitiveBean bean = supplier.get(newScope());
+            assertEquals(recipe.reflective().get(newScope()).describe(), bean.describe());
+            assertEquals(42, bean.number);
+            assertEquals(1L << 40, bean.big);
+            assertEquals(1.5, bean.fraction);
+            assertSame(DEP, bean.dep);
+            assertEquals("hello", bean.label);
+        }
+    }
+
+    @Test
+    public void testFailureReporting() throws Exception {
+        final Constructor<FailingBean> constructor = FailingBean.class.getDeclaredConstructor(String.class);
+        final Field field = FailingBean.class.getDeclaredField("dep");
+        final Method method = FailingBean.class.getDeclaredMethod("setLabel", String.class);
+        final BeanSupplier<Dep> failingDep = scope -> {
+            throw new IllegalStateException("No dep");
+        };
+        for (MethodHandles.Lookup lookup : Arrays.asList(null,
+                MethodHandles.privateLookupIn(FailingBean.class, MethodHandles.lookup()))) {
+            for (String mode : List.of("linkage", "checked", "argument", "field", "method")) {
+                final BeanSupplier<String> modeSupplier = "argument".equals(mode) ? scope -> {
+                    throw new IllegalStateException("No mode");
+                } : BeanSupplier.of(mode);
+                final List<BeanSupplier<?>> argumentSuppliers = List.of(modeSupplier);
+                final List<Injector<FailingBean>> injectors = List.of(
+                        Injector.forField(field, "field".equals(mode) ? failingDep : BeanSupplier.of(DEP)),
+                        Injector.forSetterMethod(method, BeanSupplier.of("label")));
+                final BeanSupplier<FailingBean> reflective = new InjectingSupplier<>(
+                        new ConstructorSupplier<>(constructor, argumentSuppliers), injectors);
+                final BeanSupplier<FailingBean> generated = assertInstanceOf(SupplierGenerator.GeneratedSupplier.class,
+                        SupplierGenerator.generate(constructor, argumentSuppliers, injectors, lookup));
+                final String expected = describeFailure(reflective);
+                final int constructed = FailingBean.constructed.get();
+                // the generated supplier keeps reporting the same failures, and constructs the bean only once each time
+                for (int i = 0; i < 2; i++) {
+                    assertEquals(expected, describeFailure(generated), mode);
+                }
+                assertEquals("argument".equals(mode) ? constructed : constructed + 2, FailingBean.constructed.get());
+            }
+        }
+    }
+
+    private static String describeFailure(BeanSupplier<?> supplier) {
+        final Throwable failure = assertThrows(Throwable.class, () -> supplier.get(newScope()));
+        final StringBuilder b = new StringBuilder();
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            b.append(t.getClass().getName()).append(": ").append(t.getMessage()).append('\n');
+        }
+        return b.toString();
+    }
+
+    @Test
+    public void testGeneratedContainer() throws Exception {
+        for (Class<? extends Described> type : List.of(PrivateBean.class, PackageBean.class, MixedBean.class,
+                PrimitiveBean.class)) {
+            assertEquals(newContainer(type, false).requireBean(type).describe(),
+                    newContainer(type, true).requireBean(type).describe(), type.getName());
+        }
+    }
+
+    private static Scope newScope() {
+        return BeanBag.builder().addBeanInstance(DEP).build().newScope();
+    }
+
+    private static <T extends Described> BeanBag newContainer(Class<T> type, boolean generated) {
+        final Recipe<T> recipe = new Recipe<>(type);
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addBeanInstance(DEP);
+        final BeanBag.SupplierBuilder<T> supplierBuilder = builder.addBean(type).buildSupplier()
+                .setConstructor(recipe.constructor)
+                .setGenerated(generated);
+        recipe.argumentSuppliers.forEach(supplierBuilder::addConstructorArgument);
+        for (Field field : recipe.fields) {
+            supplierBuilder.injectField(field, SUPPLIERS.get(field.getType()));
+        }
+        for (Method method : recipe.methods) {
+            supplierBuilder.injectMethod(method, SUPPLIERS.get(method.getParameterTypes()[0]));
+        }
+        return supplierBuilder.build().build().build();
+    }
+
+    /**
+     * The construction and injection steps of a test bean: its sole constructor, every non-final instance field,
+     * and every method whose name starts with {@code set}.
+     */
+    static final class Recipe<T> {
+        final Class<T> type;
+        final Constructor<T> constructor;
+        final List<BeanSupplier<?>> argumentSuppliers = new ArrayList<>();
+        final List<Field> fields = new ArrayList<>();
+        final List<Method> methods = new ArrayList<>();
+        final List<Injector<T>> injectors = new ArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        Recipe(final Class<T> type) {
+            this.type = type;
+            constructor = (Constructor<T>) type.getDeclaredConstructors()[0];
+            constructor.setAccessible(true);
+            for (Class<?> parameterType : constructor.getParameterTypes()) {
+                argumentSuppliers.add(SUPPLIERS.get(parameterType));
+            }
+            final Field[] declaredFields = type.getDeclaredFields();
+            Arrays.sort(declaredFields, Comparator.comparing(Field::getName));
+            for (Field field : declaredFields) {
+                if ((field.getModifiers() & (Modifier.FINAL | Modifier.STATIC)) == 0) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                    injectors.add(Injector.forField(field, SUPPLIERS.get(field.getType())));
+                }
+            }
+            final Method[] declaredMethods = type.getDeclaredMethods();
+            Arrays.sort(declaredMethods, Comparator.comparing(Method::getName));
+            for (Method method : declaredMethods) {
+                if (method.getName().startsWith("set")) {
+                    method.setAccessible(true);
+                    methods.add(method);
+                    injectors.add(Injector.forSetterMethod(method, SUPPLIERS.get(method.getParameterTypes()[0])));
+                }
+            }
+        }
+
+        MethodHandles.Lookup beanLookup() throws IllegalAccessException {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        }
+
+        BeanSupplier<T> reflective() {
+            return new InjectingSupplier<>(new ConstructorSupplier<>(constructor, List.copyOf(argumentSuppliers)),
+                    List.copyOf(injectors));
+        }
+
+        BeanSupplier<T> generate(MethodHandles.Lookup beanLookup) {
+            return SupplierGenerator.generate(constructor, List.copyOf(argumentSuppliers), List.copyOf(injectors),
+                    beanLookup);
+        }
+    }
+
+    public interface Described {
+        String describe();
+    }
+
+    public static final class Dep {
+    }
+
+    static final class PrivateBean implements Described {
+        private final Dep ctorDep;
+        private Dep fieldDep;
+        private Dep methodDep;
+
+        private PrivateBean(final Dep ctorDep) {
+            this.ctorDep = ctorDep;
+        }
+
+        private void setMethodDep(final Dep methodDep) {
+            this.methodDep = methodDep;
+        }
+
+        public String describe() {
+            return List.of(ctorDep, fieldDep, methodDep).toString();
+        }
+    }
+
+    static final class PackageBean implements Described {
+        final Dep ctorDep;
+        Dep fieldDep;
+        public Dep publicFieldDep;
+        Dep methodDep;
+        String name;
+
+        PackageBean(final Dep ctorDep) {
+            this.ctorDep = ctorDep;
+        }
+
+        void setMethodDep(final Dep methodDep) {
+            this.methodDep = methodDep;
+        }
+
+        public Dep setName(final String name) {
+            this.name = name;
+            return methodDep;
+        }
+
+        public String describe() {
+            return List.of(ctorDep, fieldDep, publicFieldDep, methodDep, name).toString();
+        }
+    }
+
+    public static final class MixedBean implements Described {
+        final Dep ctorDep;
+        private Dep privateFieldDep;
+        public Dep publicFieldDep;
+        private Dep privateMethodDep;
+
+        public MixedBean(final Dep ctorDep) {
+            this.ctorDep = ctorDep;
+        }
+
+        private void setPrivateMethodDep(final Dep privateMethodDep) {
+            this.privateMethodDep = privateMethodDep;
+        }
+
+        public String describe() {
+            return List.of(ctorDep, privateFieldDep, publicFieldDep, privateMethodDep).toString();
+        }
+    }
+
+    static final class FailingBean {
+        static final AtomicInteger constructed = new AtomicInteger();
+
+        final String mode;
+        Dep dep;
+
+        FailingBean(final String mode) {
+            constructed.incrementAndGet();
+            this.mode = mode;
+            if (mode.equals("linkage")) {
+                throw new NoClassDefFoundError("does/not/Exist");
+            } else if (mode.equals("checked")) {
+                FailingBean.<RuntimeException> sneakyThrow(new IOException("Checked"));
+            }
+        }
+
+        void setLabel(final String label) {
+            if (mode.equals("method")) {
+                throw new IllegalStateException("Cannot set " + label);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        static <E extends Throwable> void sneakyThrow(Throwable t) throws E {
+            throw (E) t;
+        }
+
+        public String toString() {
+            return "FailingBean(" + mode + ")";
+        }
+    }
+
+    public static final class PrimitiveBean implements Described {
+        final int number;
+        final Dep dep;
+        long big;
+        double fraction;
+        String label;
+
+        public PrimitiveBean(final int number, final Dep dep) {
+            this.number = number;
+            this.dep = dep;
+        }
+
+        public long setLabel(final String label) {
+            this.label = label;
+            return big;
+        }
+
+        public String describe() {
+            return List.of(number, dep, big, fraction, label).toString();
+        }
+    }
+}
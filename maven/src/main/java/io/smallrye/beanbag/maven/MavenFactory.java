@@ -2,9 +2,12 @@ package io.smallrye.beanbag.maven;
 
 import java.io.File;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
@@ -25,13 +28,18 @@ import org.apache.maven.settings.building.SettingsBuildingRequest;
 import org.apache.maven.settings.building.SettingsBuildingResult;
 import org.apache.maven.settings.building.SettingsProblem;
 import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryCache;
+import org.eclipse.aether.RepositoryListener;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SessionData;
 import org.eclipse.aether.repository.Authentication;
 import org.eclipse.aether.repository.LocalRepository;
 import org.eclipse.aether.repository.Proxy;
 import org.eclipse.aether.repository.RemoteRepository;
 import org.eclipse.aether.repository.RepositoryPolicy;
+import org.eclipse.aether.repository.WorkspaceReader;
+import org.eclipse.aether.transfer.TransferListener;
 import org.eclipse.aether.util.repository.AuthenticationBuilder;
 import org.eclipse.aether.util.repository.DefaultMirrorSelector;
 import org.eclipse.aether.util.repository.DefaultProxySelector;
@@ -53,11 +61,16 @@ public final class MavenFactory {
 
     private final BeanBag container;
 
-    private MavenFactory(final List<ClassLoader> classLoaders, final Consumer<BeanBag.Builder> configurator,
-            final DependencyFilter dependencyFilter) {
+    private MavenFactory(final BeanBag container) {
+        this.container = container;
+    }
+
+    private static BeanBag.Builder discover(final List<ClassLoader> classLoaders,
+            final Consumer<BeanBag.Builder> configurator, final DependencyFilter dependencyFilter) {
         final BeanBag.Builder builder = BeanBag.builder();
         configurator.accept(builder);
         final Sisu sisu = Sisu.createFor(builder);
+        final List<ClassLoader> roleClassLoaders = List.copyOf(classLoaders);
         builder.addBean(BeanBag.class)
                 .setSupplier(Scope::getContainer)
                 .build();
@@ -65,7 +78,7 @@ public final class MavenFactory {
         builder.addBean(PlexusContainerImpl.class)
                 .setPriority(-100)
                 .setSingleton(true)
-                .setSupplier(scope -> new PlexusContainerImpl(scope.getContainer()))
+                .setSupplier(scope -> new PlexusContainerImpl(scope.getContainer(), roleClassLoaders))
                 .build();
         for (ClassLoader classLoader : classLoaders) {
             sisu.addClassLoader(classLoader, dependencyFilter);
@@ -78,7 +91,7 @@ public final class MavenFactory {
                 .setSupplier(
                         scope -> scope.getBean(SecDispatcher.class, "", false, (type, name, priority) -> name.isEmpty()))
                 .build();
-        container = builder.build();
+        return builder;
     }
 
     /**
@@ -93,7 +106,38 @@ public final class MavenFactory {
      */
     public static MavenFactory create(List<ClassLoader> classLoaders, Consumer<BeanBag.Builder> configurator,
             DependencyFilter dependencyFilter) {
-        return new MavenFactory(Assert.checkNotNullParam("classLoaders", classLoaders), configurator, dependencyFilter);
+        return new MavenFactory(
+                discover(Assert.checkNotNullParam("classLoaders", classLoaders), configurator, dependencyFilter).build());
+    }
+
+    /**
+     * Create a new factory template.
+     * The given class loader instances are searched for the components of the Maven resolver once, when the template
+     * is created; every factory which is created from the template shares the resulting bean definitions.
+     *
+     * @param classLoaders the class loaders to search (must not be {@code null})
+     * @param configurator an additional configurator which can be used to modify the container configuration of every
+     *        factory (must not be {@code null})
+     * @param dependencyFilter a filter which can be used to exclude certain implementations (must not be {@code null})
+     * @return the factory template (not {@code null})
+     */
+    public static Template template(List<ClassLoader> classLoaders, Consumer<BeanBag.Builder> configurator,
+            DependencyFilter dependencyFilter) {
+        return new Template(
+                discover(Assert.checkNotNullParam("classLoaders", classLoaders), configurator, dependencyFilter).build());
+    }
+
+    /**
+     * Create a new factory template.
+     * The given class loader instance is searched for the components of the Maven resolver once, when the template
+     * is created; every factory which is created from the template shares the resulting bean definitions.
+     *
+     * @param classLoader the class loader (must not be {@code null})
+     * @return the factory template (not {@code null})
+     */
+    public static Template template(ClassLoader classLoader) {
+        return template(List.of(Assert.checkNotNullParam("classLoader", classLoader)), ignored -> {
+        }, DependencyFilter.ACCEPT);
     }
 
     /**
@@ -136,6 +180,400 @@ public final class MavenFactory {
         });
     }
 
+    /**
+     * Create a new factory which uses a fixed, hand-wired set of the standard Maven Resolver 1.9 components instead of
+     * discovering them on the class path.
+     * The set consists of the resolver implementation, the basic repository connector, and the HTTP and Wagon
+     * transports with the file, HTTP and HTTPS wagons, along with the Maven model and settings builders.
+     * No class path resources are scanned and no reflection is used to construct the components, so creating the
+     * factory is very cheap; however, components which are not part of the set (for example, other transports or
+     * the security dispatcher) are not available unless they are added by the configurator.
+     * Beans which are added by the configurator take precedence over standard beans of the same priority.
+     *
+     * @param configurator an additional configurator which can be used to modify the container configuration (must not be
+     *        {@code null})
+     * @return the Maven factory instance (not {@code null})
+     */
+    public static MavenFactory createPrewired(Consumer<BeanBag.Builder> configurator) {
+        Assert.checkNotNullParam("configurator", configurator);
+        final BeanBag.Builder builder = BeanBag.builder();
+        configurator.accept(builder);
+        ResolverBeans.addTo(builder, MavenFactory.class.getClassLoader());
+        return new MavenFactory(builder.build());
+    }
+
+    /**
+     * Create a new factory which uses a fixed, hand-wired set of the standard Maven Resolver 1.9 components instead of
+     * discovering them on the class path.
+     *
+     * @return the Maven factory instance (not {@code null})
+     * @see #createPrewired(Consumer)
+     */
+    public static MavenFactory createPrewired() {
+        return createPrewired(ignored -> {
+        });
+    }
+
+    /**
+     * A template for Maven factories which share the same discovered components.
+     * Creating a factory from a template does not search any class loader; each factory has its own container, with
+     * its own singleton instances.
+     */
+    public static final class Template {
+        private final BeanBag base;
+
+        Template(final BeanBag base) {
+            this.base = base;
+        }
+
+        /**
+         * Create a new factory from this template.
+         * Beans which are added by the configurator take precedence over discovered beans of the same priority.
+         * Package filters which are set by the configurator have no effect, because discovery has already taken
+         * place.
+         *
+         * @param configurator an additional configurator which can be used to modify the container configuration
+         *        (must not be {@code null})
+         * @return the Maven factory instance (not {@code null})
+         */
+        public MavenFactory create(Consumer<BeanBag.Builder> configurator) {
+            Assert.checkNotNullParam("configurator", configurator);
+            final BeanBag.Builder builder = BeanBag.builder(base);
+            configurator.accept(builder);
+            return new MavenFactory(builder.build());
+        }
+
+        /**
+         * Create a new factory from this template.
+         *
+         * @return the Maven factory instance (not {@code null})
+         */
+        public MavenFactory create() {
+            return new MavenFactory(BeanBag.builder(base).build());
+        }
+    }
+
+    /**
+     * A builder for repository system sessions.
+     * Builders are bound to the factory which created them, and every session uses the repository system of that
+     * factory.
+     * <p>
+     * A builder may be used to build any number of sessions.
+     * Each session is built from the state of the builder and of its settings at the time that {@link #build()} is
+     * called, so later changes to the builder do not affect sessions which were already built.
+     * Each session gets its own local repository manager, mirror and proxy selectors and configuration properties,
+     * and its own session data unless session data is given.
+     * The repository cache, session data, workspace reader and listeners which are given to the builder are not
+     * copied; every session which is built with them shares the same instances.
+     * <p>
+     * Sessions which are built with the same settings and local repository may share a {@linkplain RepositoryCache
+     * repository cache}, in which the resolver keeps parsed metadata, models and artifact descriptors, so that each
+     * session does not read them from disk again.
+     * The default implementations of the cache and of the {@linkplain SessionData session data} are thread-safe, so
+     * a single instance can be shared by concurrently used sessions.
+     * <p>
+     * The concurrency options are stored as configuration properties of the session, taking precedence over the system
+     * properties.
+     */
+    public final class SessionBuilder {
+        private final Settings settings;
+        private RepositoryCache repositoryCache;
+        private SessionData sessionData;
+        private WorkspaceReader workspaceReader;
+        private TransferListener transferListener;
+        private RepositoryListener repositoryListener;
+        private final Map<String, Object> configProperties = new LinkedHashMap<>();
+
+        SessionBuilder(final Settings settings) {
+            this.settings = settings;
+        }
+
+        /**
+         * Set the repository cache of the session.
+         *
+         * @param repositoryCache the repository cache, or {@code null} for none
+         * @return this builder (not {@code null})
+         */
+        public SessionBuilder setRepositoryCache(final RepositoryCache repositoryCache) {
+            this.repositoryCache = repositoryCache;
+            return this;
+        }
+
+        /**
+         * Set the session data of the session.
+         *
+         * @param sessionData the session data, or {@code null} to use new session data
+         * @return this builder (not {@code null})
+         */
+        public SessionBuilder setSessionData(final SessionData sessionData) {
+            this.sessionData = sessionData;
+            return this;
+        }
+
+        /**
+         * Set the workspace reader of the session.
+         *
+         * @param workspaceReader the workspace reader, or {@code null} for none
+         * @return this builder (not {@code null})
+         */
+        public SessionBuilder setWorkspaceReader(final WorkspaceReader workspaceReader) {
+            this.workspaceReader = workspaceReader;
+            return this;
+        }
+
+        /**
+         * Set the transfer listener of the session.
+         *
+         * @param transferListener the transfer listener, or {@code null} for none
+         * @return this builder (not {@code null})
+         */
+        public SessionBuilder setTransferListener(final TransferListener transferListener) {
+            this.transferListener = transferListener;
+            return this;
+        }
+
+        /**
+         * Set the repository listener of the session.
+         *
+         * @param repositoryListener the repository listener, or {@code null} for none
+         * @return this builder (not {@code null})
+         */
+        public SessionBuilder setRepositoryListener(final RepositoryListener repositoryListener) {
+            this.repositoryListener = repositoryListener;
+            return this;
+        }
+
+        /**
+         * Set the number of threads which the basic repository connector uses for the transfers of each request.
+         *
+         * @param threads the number of threads (must be at least 1)
+         * @return this builder (not {@code null})
+         */
+        public SessionBuilder setConnectorThreads(final int threads) {
+            Assert.checkMinimumParameter("threads", 1, threads);
+            return setConfigProperty("aether.connector.basic.threads", Integer.valueOf(threads));
+        }
+
+        /**
+         * Set the number of threads which are used to resolve metadata from remote repositories.
+         *
+         * @param threads the number of threads (must be at least 1)
+         * @return this builder (not {@code null})
+         */
+        public SessionBuilder setMetadataResolverThreads(final int threads) {
+            Assert.checkMinimumParameter("threads", 1, threads);
+            return setConfigProperty("aether.metadataResolver.threads", Integer.valueOf(threads));
+        }
+
+        /**
+         * Set the strategy which is used to collect dependencies.
+         *
+         * @param strategy the strategy (must not be {@code null})
+         * @return this builder (not {@code null})
+         */
+        public SessionBuilder setCollectorStrategy(final CollectorStrategy strategy) {
+            Assert.checkNotNullParam("strategy", strategy);
+            return setConfigProperty("aether.dependencyCollector.impl", strategy.value);
+        }
+
+        /**
+         * Set the number of threads which the {@linkplain CollectorStrategy#BREADTH_FIRST breadth-first} dependency
+         * collector uses to load artifact descriptors in parallel.
+         *
+         * @param threads the number of threads (must be at least 1)
+         * @return this builder (not {@code null})
+         */
+        public SessionBuilder setCollectorThreads(final int threads) {
+            Assert.checkMinimumParameter("threads", 1, threads);
+            return setConfigProperty("aether.dependencyCollector.bf.threads", Integer.valueOf(threads));
+        }
+
+        /**
+         * Set the kind of named locks which are used to synchronize access to the local repository.
+         *
+         * @param lockFactory the kind of named locks (must not be {@code null})
+         * @return this builder (not {@code null})
+         */
+        public SessionBuilder setLockFactory(final LockFactory lockFactory) {
+            Assert.checkNotNullParam("lockFactory", lockFactory);
+            return setConfigProperty("aether.syncContext.named.factory", lockFactory.value);
+        }
+
+        /**
+         * Set the way in which the artifacts and metadata of the local repository are mapped to named locks.
+         *
+         * @param lockNaming the lock naming (must not be {@code null})
+         * @return this builder (not {@code null})
+         */
+        public SessionBuilder setLockNaming(final LockNaming lockNaming) {
+            Assert.checkNotNullParam("lockNaming", lockNaming);
+            return setConfigProperty("aether.syncContext.named.nameMapper", lockNaming.value);
+        }
+
+        /**
+         * Set the time to wait for each named lock before giving up.
+         *
+         * @param time the time (must not be negative)
+         * @param unit the time unit (must not be {@code null})
+         * @return this builder (not {@code null})
+         */
+        public SessionBuilder setLockTimeout(final long time, final TimeUnit unit) {
+            Assert.checkMinimumParameter("time", 0L, time);
+            Assert.checkNotNullParam("unit", unit);
+            setConfigProperty("aether.syncContext.named.time", Long.valueOf(time));
+            return setConfigProperty("aether.syncContext.named.time.unit", unit.name());
+        }
+
+        /**
+         * Set a configuration property of the session.
+         *
+         * @param key the property key (must not be {@code null})
+         * @param value the property value, or {@code null} to remove a previously set value
+         * @return this builder (not {@code null})
+         */
+        public SessionBuilder setConfigProperty(final String key, final Object value) {
+            Assert.checkNotNullParam("key", key);
+            if (value == null) {
+                configProperties.remove(key);
+            } else {
+                configProperties.put(key, value);
+            }
+            return this;
+        }
+
+        /**
+         * Build a new session from the current state of this builder.
+         *
+         * @return the repository system session (not {@code null})
+         * @throws BeanInstantiationException if there is some problem finding or creating the repository system
+         *         instance
+         */
+        public RepositorySystemSession build() throws BeanInstantiationException {
+            final RepositorySystem system = getRepositorySystem();
+            final DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+            // offline = "simple"
+            // normal = "enhanced"
+            String repositoryType = "default";
+            session.setLocalRepositoryManager(system.newLocalRepositoryManager(session,
+                    new LocalRepository(new File(settings.getLocalRepository()), repositoryType)));
+            session.setOffline(settings.isOffline());
+            session.setCache(repositoryCache);
+            if (sessionData != null) {
+                session.setData(sessionData);
+            }
+            session.setWorkspaceReader(workspaceReader);
+            session.setTransferListener(transferListener);
+            session.setRepositoryListener(repositoryListener);
+
+            DefaultMirrorSelector mirrorSelector = new DefaultMirrorSelector();
+            for (Mirror mirror : settings.getMirrors()) {
+                mirrorSelector.add(mirror.getId(), mirror.getUrl(), mirror.getLayout(), false, false,
+                        mirror.getMirrorOf(), mirror.getMirrorOfLayouts());
+            }
+            session.setMirrorSelector(mirrorSelector);
+
+            DefaultProxySelector proxySelector = new DefaultProxySelector();
+            for (org.apache.maven.settings.Proxy proxy : settings.getProxies()) {
+                proxySelector.add(convertProxy(proxy), proxy.getNonProxyHosts());
+            }
+            session.setProxySelector(proxySelector);
+
+            session.setSystemProperties(System.getProperties());
+            session.setConfigProperties(System.getProperties());
+            configProperties.forEach(session::setConfigProperty);
+
+            return session;
+        }
+    }
+
+    /**
+     * The strategies for collecting dependencies.
+     */
+    public enum CollectorStrategy {
+        /**
+         * Collect dependencies breadth-first, which allows artifact descriptors to be loaded in parallel.
+         */
+        BREADTH_FIRST("bf"),
+        /**
+         * Collect dependencies depth-first.
+         */
+        DEPTH_FIRST("df"),
+        ;
+
+        private final String value;
+
+        CollectorStrategy(final String value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * The kinds of named locks which can be used to synchronize access to the local repository.
+     */
+    public enum LockFactory {
+        /**
+         * Read-write locks within this JVM.
+         */
+        LOCAL_READ_WRITE("rwlock-local"),
+        /**
+         * Semaphores within this JVM.
+         */
+        LOCAL_SEMAPHORE("semaphore-local"),
+        /**
+         * File locks, which also synchronize with other processes using the same local repository.
+         */
+        FILE("file-lock"),
+        /**
+         * No locking.
+         */
+        NONE("noop"),
+        ;
+
+        private final String value;
+
+        LockFactory(final String value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * The ways in which the artifacts and metadata of the local repository can be mapped to named locks.
+     */
+    public enum LockNaming {
+        /**
+         * A single lock for everything.
+         */
+        STATIC("static"),
+        /**
+         * A lock per group, artifact and version.
+         */
+        GAV("gav"),
+        /**
+         * A lock per group, artifact, extension, classifier and version.
+         */
+        GAECV("gaecv"),
+        /**
+         * A lock per group, artifact and version, which is distinguished by host and local repository.
+         */
+        DISCRIMINATING("discriminating"),
+        /**
+         * A lock file per group, artifact and version; for use with {@link LockFactory#FILE}.
+         */
+        FILE_GAV("file-gav"),
+        /**
+         * A lock file per group, artifact and version, with hashed file names; for use with
+         * {@link LockFactory#FILE}.
+         */
+        FILE_HASHED_GAV("file-hgav"),
+        ;
+
+        private final String value;
+
+        LockNaming(final String value) {
+            this.value = value;
+        }
+    }
+
     private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
 
     /**
@@ -238,34 +676,19 @@ public final class MavenFactory {
      * @throws BeanInstantiationException if there is some problem finding or creating the repository system instance
      */
     public RepositorySystemSession createSession(final Settings settings) throws BeanInstantiationException {
-        Assert.checkNotNullParam("settings", settings);
-        final RepositorySystem system = getRepositorySystem();
-        final DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
-        // offline = "simple"
-        // normal = "enhanced"
-        String repositoryType = "default";
-        session.setLocalRepositoryManager(system.newLocalRepositoryManager(session,
-                new LocalRepository(new File(settings.getLocalRepository()), repositoryType)));
-        // todo: workspace reader, transfer listener, repo listener
-        session.setOffline(settings.isOffline());
-
-        DefaultMirrorSelector mirrorSelector = new DefaultMirrorSelector();
-        for (Mirror mirror : settings.getMirrors()) {
-            mirrorSelector.add(mirror.getId(), mirror.getUrl(), mirror.getLayout(), false, false, mirror.getMirrorOf(),
-                    mirror.getMirrorOfLayouts());
-        }
-        session.setMirrorSelector(mirrorSelector);
-
-        DefaultProxySelector proxySelector = new DefaultProxySelector();
-        for (org.apache.maven.settings.Proxy proxy : settings.getProxies()) {
-            proxySelector.add(convertProxy(proxy), proxy.getNonProxyHosts());
-        }
-        session.setProxySelector(proxySelector);
-
-        session.setSystemProperties(System.getProperties());
-        session.setConfigProperties(System.getProperties());
+        return newSessionBuilder(settings).build();
+    }
 
-        return session;
+    /**
+     * Create a builder for repository system sessions which use the given settings.
+     * The builder can be used to share caches between sessions and to tune the concurrency of the resolver.
+     *
+     * @param settings the settings to use (must not be {@code null})
+     * @return the session builder (not {@code null})
+     */
+    public SessionBuilder newSessionBuilder(final Settings settings) {
+        Assert.checkNotNullParam("settings", settings);
+        return new SessionBuilder(settings);
     }
 
     /**
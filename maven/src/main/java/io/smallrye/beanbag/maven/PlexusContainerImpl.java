@@ -3,6 +3,7 @@ package io.smallrye.beanbag.maven;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.codehaus.plexus.PlexusContainer;
 import org.codehaus.plexus.classworlds.realm.ClassRealm;
@@ -17,9 +18,56 @@ import io.smallrye.beanbag.DependencyFilter;
 
 class PlexusContainerImpl implements PlexusContainer {
     private final BeanBag bb;
+    private final List<ClassLoader> classLoaders;
+    private final ConcurrentHashMap<String, Role> roles = new ConcurrentHashMap<>();
 
-    PlexusContainerImpl(final BeanBag bb) {
+    PlexusContainerImpl(final BeanBag bb, final List<ClassLoader> classLoaders) {
         this.bb = bb;
+        this.classLoaders = classLoaders;
+    }
+
+    /**
+     * Get the role with the given name, resolving its class on first use.
+     * Roles whose class cannot be found are not cached, so that arbitrary role names cannot grow the cache.
+     *
+     * @param role the role class name
+     * @return the role (not {@code null})
+     * @throws ClassNotFoundException if the role class cannot be found
+     */
+    private Role getRole(final String role) throws ClassNotFoundException {
+        Role resolved = roles.get(role);
+        if (resolved == null) {
+            resolved = roles.computeIfAbsent(role, name -> {
+                final Class<?> type = resolveRole(name);
+                return type == null ? null : new Role(type);
+            });
+            if (resolved == null) {
+                throw new ClassNotFoundException(role);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Load the class of the given role from the class loaders of the container, falling back to the class loader of
+     * this class.
+     *
+     * @param role the role class name
+     * @return the role class, or {@code null} if it cannot be found
+     */
+    private Class<?> resolveRole(final String role) {
+        for (ClassLoader classLoader : classLoaders) {
+            try {
+                return Class.forName(role, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError ignored) {
+                // try the next one
+            }
+        }
+        try {
+            return Class.forName(role, false, PlexusContainerImpl.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError ignored) {
+            return null;
+        }
     }
 
     public Context getContext() {
@@ -28,7 +76,7 @@ class PlexusContainerImpl implements PlexusContainer {
 
     public Object lookup(final String role) throws ComponentLookupException {
         try {
-            return bb.requireBean(Class.forName(role));
+            return getRole(role).getHint("").get();
         } catch (Exception e) {
             throw new ComponentLookupException(e, role, null);
         }
@@ -36,7 +84,7 @@ class PlexusContainerImpl implements PlexusContainer {
 
     public Object lookup(final String role, final String hint) throws ComponentLookupException {
         try {
-            return bb.requireBean(Class.forName(role), hint);
+            return getRole(role).getHint(hint).get();
         } catch (Exception e) {
             throw new ComponentLookupException(e, role, hint);
         }
@@ -68,7 +116,7 @@ class PlexusContainerImpl implements PlexusContainer {
 
     public List<Object> lookupList(final String role) throws ComponentLookupException {
         try {
-            return List.copyOf(bb.getAllBeans(Class.forName(role)));
+            return List.copyOf(bb.getAllBeans(getRole(role).getType()));
         } catch (Exception e) {
             throw new ComponentLookupException(e, role, null);
         }
@@ -84,7 +132,7 @@ class PlexusContainerImpl implements PlexusContainer {
 
     public Map<String, Object> lookupMap(final String role) throws ComponentLookupException {
         try {
-            return Map.copyOf(bb.newScope().getAllBeansWithNames(Class.forName(role), DependencyFilter.ACCEPT));
+            return Map.copyOf(bb.newScope().getAllBeansWithNames(getRole(role).getType(), DependencyFilter.ACCEPT));
         } catch (Exception e) {
             throw new ComponentLookupException(e, role, null);
         }
@@ -100,7 +148,7 @@ class PlexusContainerImpl implements PlexusContainer {
 
     public boolean hasComponent(final String role) {
         try {
-            return bb.getOptionalBean(Class.forName(role)) != null;
+            return getRole(role).getHint("").isDefined();
         } catch (Exception e) {
             return false;
         }
@@ -108,7 +156,7 @@ class PlexusContainerImpl implements PlexusContainer {
 
     public boolean hasComponent(final String role, final String hint) {
         try {
-            return bb.getOptionalBean(Class.forName(role), hint) != null;
+            return getRole(role).getHint(hint).isDefined();
         } catch (Exception e) {
             return false;
         }
@@ -116,7 +164,7 @@ class PlexusContainerImpl implements PlexusContainer {
 
     public boolean hasComponent(final Class<?> role) {
         try {
-            return bb.getOptionalBean(role) != null;
+            return bb.hasBean(role);
         } catch (Exception e) {
             return false;
         }
@@ -124,7 +172,7 @@ class PlexusContainerImpl implements PlexusContainer {
 
     public boolean hasComponent(final Class<?> role, final String hint) {
         try {
-            return bb.getOptionalBean(role, hint) != null;
+            return bb.hasBean(role, hint);
         } catch (Exception e) {
             return false;
         }
@@ -132,7 +180,13 @@ class PlexusContainerImpl implements PlexusContainer {
 
     public boolean hasComponent(final Class<?> type, final String role, final String hint) {
         try {
-            return type.cast(bb.getOptionalBean(Class.forName(role), hint)) != null;
+            final Role resolved = getRole(role);
+            if (type.isAssignableFrom(resolved.getType())) {
+                // every bean of the role is of the requested type
+                return resolved.getHint(hint).isDefined();
+            }
+            return bb.hasBean(resolved.getType(), hint,
+                    (beanType, name, priority) -> type.isAssignableFrom(beanType));
         } catch (Exception e) {
             return false;
         }
@@ -210,4 +264,58 @@ class PlexusContainerImpl implements PlexusContainer {
     private static UnsupportedOperationException uns() {
         return new UnsupportedOperationException();
     }
+
+    /**
+     * A role which is looked up by class name, along with its lookup handles by hint.
+     */
+    private final class Role {
+        private final Class<?> type;
+        private final ConcurrentHashMap<String, Lookup> hints = new ConcurrentHashMap<>();
+
+        Role(final Class<?> type) {
+            this.type = type;
+        }
+
+        Class<?> getType() {
+            return type;
+        }
+
+        Lookup getHint(final String hint) {
+            Lookup lookup = hints.get(hint);
+            if (lookup == null) {
+                lookup = hints.computeIfAbsent(hint, ignored -> new Lookup(type, hint));
+            }
+            return lookup;
+        }
+    }
+
+    /**
+     * A lookup handle for a role and hint.
+     * Lookups are still made against the container each time; only whether a matching component exists is
+     * remembered, since the bean definitions of the container do not change.
+     * It is determined on first use, so that plain lookups never pay for it.
+     */
+    private final class Lookup {
+        private final Class<?> type;
+        private final String hint;
+        private volatile Boolean defined;
+
+        Lookup(final Class<?> type, final String hint) {
+            this.type = type;
+            this.hint = hint;
+        }
+
+        boolean isDefined() {
+            Boolean defined = this.defined;
+            if (defined == null) {
+                // racing threads compute the same answer
+                this.defined = defined = Boolean.valueOf(bb.hasBean(type, hint));
+            }
+            return defined.booleanValue();
+        }
+
+        Object get() {
+            return bb.requireBean(type, hint);
+        }
+    }
 }
@@ -0,0 +1,375 @@
+package io.smallrye.beanbag.maven;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.model.building.DefaultModelBuilderFactory;
+import org.apache.maven.model.building.ModelBuilder;
+import org.apache.maven.repository.internal.DefaultArtifactDescriptorReader;
+import org.apache.maven.repository.internal.DefaultModelCacheFactory;
+import org.apache.maven.repository.internal.DefaultVersionRangeResolver;
+import org.apache.maven.repository.internal.DefaultVersionResolver;
+import org.apache.maven.repository.internal.PluginsMetadataGeneratorFactory;
+import org.apache.maven.repository.internal.SnapshotMetadataGeneratorFactory;
+import org.apache.maven.repository.internal.VersionsMetadataGeneratorFactory;
+import org.apache.maven.settings.building.DefaultSettingsBuilderFactory;
+import org.apache.maven.settings.building.SettingsBuilder;
+import org.apache.maven.wagon.Wagon;
+import org.apache.maven.wagon.providers.file.FileWagon;
+import org.apache.maven.wagon.providers.http.HttpWagon;
+import org.codehaus.plexus.PlexusContainer;
+import org.eclipse.aether.RepositoryListener;
+import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
+import org.eclipse.aether.impl.ArtifactDescriptorReader;
+import org.eclipse.aether.impl.ArtifactResolver;
+import org.eclipse.aether.impl.DependencyCollector;
+import org.eclipse.aether.impl.Deployer;
+import org.eclipse.aether.impl.Installer;
+import org.eclipse.aether.impl.LocalRepositoryProvider;
+import org.eclipse.aether.impl.MetadataGeneratorFactory;
+import org.eclipse.aether.impl.MetadataResolver;
+import org.eclipse.aether.impl.OfflineController;
+import org.eclipse.aether.impl.RemoteRepositoryFilterManager;
+import org.eclipse.aether.impl.RemoteRepositoryManager;
+import org.eclipse.aether.impl.RepositoryConnectorProvider;
+import org.eclipse.aether.impl.RepositoryEventDispatcher;
+import org.eclipse.aether.impl.RepositorySystemLifecycle;
+import org.eclipse.aether.impl.UpdateCheckManager;
+import org.eclipse.aether.impl.UpdatePolicyAnalyzer;
+import org.eclipse.aether.impl.VersionRangeResolver;
+import org.eclipse.aether.impl.VersionResolver;
+import org.eclipse.aether.internal.impl.DefaultArtifactResolver;
+import org.eclipse.aether.internal.impl.DefaultChecksumPolicyProvider;
+import org.eclipse.aether.internal.impl.DefaultDeployer;
+import org.eclipse.aether.internal.impl.DefaultFileProcessor;
+import org.eclipse.aether.internal.impl.DefaultInstaller;
+import org.eclipse.aether.internal.impl.DefaultLocalPathComposer;
+import org.eclipse.aether.internal.impl.DefaultLocalPathPrefixComposerFactory;
+import org.eclipse.aether.internal.impl.DefaultLocalRepositoryProvider;
+import org.eclipse.aether.internal.impl.DefaultMetadataResolver;
+import org.eclipse.aether.internal.impl.DefaultOfflineController;
+import org.eclipse.aether.internal.impl.DefaultRemoteRepositoryManager;
+import org.eclipse.aether.internal.impl.DefaultRepositoryConnectorProvider;
+import org.eclipse.aether.internal.impl.DefaultRepositoryEventDispatcher;
+import org.eclipse.aether.internal.impl.DefaultRepositoryLayoutProvider;
+import org.eclipse.aether.internal.impl.DefaultRepositorySystem;
+import org.eclipse.aether.internal.impl.DefaultRepositorySystemLifecycle;
+import org.eclipse.aether.internal.impl.DefaultTrackingFileManager;
+import org.eclipse.aether.internal.impl.DefaultTransporterProvider;
+import org.eclipse.aether.internal.impl.DefaultUpdateCheckManager;
+import org.eclipse.aether.internal.impl.DefaultUpdatePolicyAnalyzer;
+import org.eclipse.aether.internal.impl.EnhancedLocalRepositoryManagerFactory;
+import org.eclipse.aether.internal.impl.LocalPathComposer;
+import org.eclipse.aether.internal.impl.LocalPathPrefixComposerFactory;
+import org.eclipse.aether.internal.impl.Maven2RepositoryLayoutFactory;
+import org.eclipse.aether.internal.impl.SimpleLocalRepositoryManagerFactory;
+import org.eclipse.aether.internal.impl.TrackingFileManager;
+import org.eclipse.aether.internal.impl.checksum.DefaultChecksumAlgorithmFactorySelector;
+import org.eclipse.aether.internal.impl.checksum.Md5ChecksumAlgorithmFactory;
+import org.eclipse.aether.internal.impl.checksum.Sha1ChecksumAlgorithmFactory;
+import org.eclipse.aether.internal.impl.checksum.Sha256ChecksumAlgorithmFactory;
+import org.eclipse.aether.internal.impl.checksum.Sha512ChecksumAlgorithmFactory;
+import org.eclipse.aether.internal.impl.checksum.SparseDirectoryTrustedChecksumsSource;
+import org.eclipse.aether.internal.impl.checksum.SummaryFileTrustedChecksumsSource;
+import org.eclipse.aether.internal.impl.checksum.TrustedToProvidedChecksumsSourceAdapter;
+import org.eclipse.aether.internal.impl.collect.DefaultDependencyCollector;
+import org.eclipse.aether.internal.impl.collect.DependencyCollectorDelegate;
+import org.eclipse.aether.internal.impl.collect.bf.BfDependencyCollector;
+import org.eclipse.aether.internal.impl.collect.df.DfDependencyCollector;
+import org.eclipse.aether.internal.impl.filter.DefaultRemoteRepositoryFilterManager;
+import org.eclipse.aether.internal.impl.filter.GroupIdRemoteRepositoryFilterSource;
+import org.eclipse.aether.internal.impl.filter.PrefixesRemoteRepositoryFilterSource;
+import org.eclipse.aether.internal.impl.resolution.TrustedChecksumsArtifactResolverPostProcessor;
+import org.eclipse.aether.internal.impl.synccontext.DefaultSyncContextFactory;
+import org.eclipse.aether.internal.impl.synccontext.named.NameMapper;
+import org.eclipse.aether.internal.impl.synccontext.named.NameMappers;
+import org.eclipse.aether.internal.impl.synccontext.named.NamedLockFactoryAdapterFactory;
+import org.eclipse.aether.internal.impl.synccontext.named.NamedLockFactoryAdapterFactoryImpl;
+import org.eclipse.aether.internal.transport.wagon.PlexusWagonConfigurator;
+import org.eclipse.aether.internal.transport.wagon.PlexusWagonProvider;
+import org.eclipse.aether.named.NamedLockFactory;
+import org.eclipse.aether.named.providers.FileLockNamedLockFactory;
+import org.eclipse.aether.named.providers.LocalReadWriteLockNamedLockFactory;
+import org.eclipse.aether.named.providers.LocalSemaphoreNamedLockFactory;
+import org.eclipse.aether.named.providers.NoopNamedLockFactory;
+import org.eclipse.aether.spi.checksums.ProvidedChecksumsSource;
+import org.eclipse.aether.spi.checksums.TrustedChecksumsSource;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.checksum.ChecksumAlgorithmFactory;
+import org.eclipse.aether.spi.connector.checksum.ChecksumAlgorithmFactorySelector;
+import org.eclipse.aether.spi.connector.checksum.ChecksumPolicyProvider;
+import org.eclipse.aether.spi.connector.filter.RemoteRepositoryFilterSource;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayoutFactory;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayoutProvider;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
+import org.eclipse.aether.spi.io.FileProcessor;
+import org.eclipse.aether.spi.localrepo.LocalRepositoryManagerFactory;
+import org.eclipse.aether.spi.resolution.ArtifactResolverPostProcessor;
+import org.eclipse.aether.spi.synccontext.SyncContextFactory;
+import org.eclipse.aether.transport.http.ChecksumExtractor;
+import org.eclipse.aether.transport.http.HttpTransporterFactory;
+import org.eclipse.aether.transport.http.Nexus2ChecksumExtractor;
+import org.eclipse.aether.transport.http.XChecksumChecksumExtractor;
+import org.eclipse.aether.transport.wagon.WagonConfigurator;
+import org.eclipse.aether.transport.wagon.WagonProvider;
+import org.eclipse.aether.transport.wagon.WagonTransporterFactory;
+
+import io.smallrye.beanbag.BeanBag;
+import io.smallrye.beanbag.BeanSupplier;
+import io.smallrye.beanbag.DependencyFilter;
+import io.smallrye.beanbag.Scope;
+
+/**
+ * The hand-wired bean definitions of the standard Maven Resolver 1.9 components, along with the basic connector and
+ * the HTTP and Wagon transports (with the file, HTTP and HTTPS wagons).
+ * Each component is constructed directly using its injection constructor, so no class path scanning or reflection
+ * is needed.
+ * Components which are injected as maps are named after their {@code @Named} values, as they would be when they are
+ * discovered.
+ */
+final class ResolverBeans {
+    private ResolverBeans() {
+    }
+
+    /**
+     * Add the standard resolver beans to the given builder.
+     *
+     * @param builder the container builder (must not be {@code null})
+     * @param classLoader the class loader to use for Plexus lookups by role name (must not be {@code null})
+     */
+    static void addTo(final BeanBag.Builder builder, final ClassLoader classLoader) {
+        final List<ClassLoader> classLoaders = List.of(classLoader);
+        builder.addBean(BeanBag.class)
+                .setSupplier(Scope::getContainer)
+                .build();
+
+        // Maven
+        singleton(builder, SettingsBuilder.class, "", scope -> new DefaultSettingsBuilderFactory().newInstance());
+        singleton(builder, ModelBuilder.class, "", scope -> new DefaultModelBuilderFactory().newInstance());
+        singleton(builder, DefaultModelCacheFactory.class, "", scope -> new DefaultModelCacheFactory());
+        singleton(builder, DefaultArtifactDescriptorReader.class, "", scope -> new DefaultArtifactDescriptorReader(
+                scope.requireBean(RemoteRepositoryManager.class),
+                scope.requireBean(VersionResolver.class),
+                scope.requireBean(VersionRangeResolver.class),
+                scope.requireBean(ArtifactResolver.class),
+                scope.requireBean(ModelBuilder.class),
+                scope.requireBean(RepositoryEventDispatcher.class),
+                scope.requireBean(DefaultModelCacheFactory.class)));
+        singleton(builder, DefaultVersionResolver.class, "", scope -> new DefaultVersionResolver(
+                scope.requireBean(MetadataResolver.class),
+                scope.requireBean(SyncContextFactory.class),
+                scope.requireBean(RepositoryEventDispatcher.class)));
+        singleton(builder, DefaultVersionRangeResolver.class, "", scope -> new DefaultVersionRangeResolver(
+                scope.requireBean(MetadataResolver.class),
+                scope.requireBean(SyncContextFactory.class),
+                scope.requireBean(RepositoryEventDispatcher.class)));
+        singleton(builder, SnapshotMetadataGeneratorFactory.class, "snapshot", scope -> new SnapshotMetadataGeneratorFactory());
+        singleton(builder, VersionsMetadataGeneratorFactory.class, "versions", scope -> new VersionsMetadataGeneratorFactory());
+        singleton(builder, PluginsMetadataGeneratorFactory.class, "plugins", scope -> new PluginsMetadataGeneratorFactory());
+
+        // resolver implementation
+        singleton(builder, DefaultRepositorySystem.class, "", scope -> new DefaultRepositorySystem(
+                scope.requireBean(VersionResolver.class),
+                scope.requireBean(VersionRangeResolver.class),
+                scope.requireBean(ArtifactResolver.class),
+                scope.requireBean(MetadataResolver.class),
+                scope.requireBean(ArtifactDescriptorReader.class),
+                scope.requireBean(DependencyCollector.class),
+                scope.requireBean(Installer.class),
+                scope.requireBean(Deployer.class),
+                scope.requireBean(LocalRepositoryProvider.class),
+                scope.requireBean(SyncContextFactory.class),
+                scope.requireBean(RemoteRepositoryManager.class),
+                scope.requireBean(RepositorySystemLifecycle.class)));
+        singleton(builder, DefaultRepositorySystemLifecycle.class, "", scope -> new DefaultRepositorySystemLifecycle());
+        singleton(builder, DefaultArtifactResolver.class, "", scope -> new DefaultArtifactResolver(
+                scope.requireBean(FileProcessor.class),
+                scope.requireBean(RepositoryEventDispatcher.class),
+                scope.requireBean(VersionResolver.class),
+                scope.requireBean(UpdateCheckManager.class),
+                scope.requireBean(RepositoryConnectorProvider.class),
+                scope.requireBean(RemoteRepositoryManager.class),
+                scope.requireBean(SyncContextFactory.class),
+                scope.requireBean(OfflineController.class),
+                scope.getAllBeansWithNames(ArtifactResolverPostProcessor.class, DependencyFilter.ACCEPT),
+                scope.requireBean(RemoteRepositoryFilterManager.class)));
+        singleton(builder, DefaultMetadataResolver.class, "", scope -> new DefaultMetadataResolver(
+                scope.requireBean(RepositoryEventDispatcher.class),
+                scope.requireBean(UpdateCheckManager.class),
+                scope.requireBean(RepositoryConnectorProvider.class),
+                scope.requireBean(RemoteRepositoryManager.class),
+                scope.requireBean(SyncContextFactory.class),
+                scope.requireBean(OfflineController.class),
+                scope.requireBean(RemoteRepositoryFilterManager.class)));
+        singleton(builder, DefaultDeployer.class, "", scope -> new DefaultDeployer(
+                scope.requireBean(FileProcessor.class),
+                scope.requireBean(RepositoryEventDispatcher.class),
+                scope.requireBean(RepositoryConnectorProvider.class),
+                scope.requireBean(RemoteRepositoryManager.class),
+                scope.requireBean(UpdateCheckManager.class),
+                setOf(scope, MetadataGeneratorFactory.class),
+                scope.requireBean(SyncContextFactory.class),
+                scope.requireBean(OfflineController.class)));
+        singleton(builder, DefaultInstaller.class, "", scope -> new DefaultInstaller(
+                scope.requireBean(FileProcessor.class),
+                scope.requireBean(RepositoryEventDispatcher.class),
+                setOf(scope, MetadataGeneratorFactory.class),
+                scope.requireBean(SyncContextFactory.class)));
+        singleton(builder, DefaultDependencyCollector.class, "", scope -> new DefaultDependencyCollector(
+                scope.getAllBeansWithNames(DependencyCollectorDelegate.class, DependencyFilter.ACCEPT)));
+        singleton(builder, BfDependencyCollector.class, BfDependencyCollector.NAME, scope -> new BfDependencyCollector(
+                scope.requireBean(RemoteRepositoryManager.class),
+                scope.requireBean(ArtifactDescriptorReader.class),
+                scope.requireBean(VersionRangeResolver.class)));
+        singleton(builder, DfDependencyCollector.class, DfDependencyCollector.NAME, scope -> new DfDependencyCollector(
+                scope.requireBean(RemoteRepositoryManager.class),
+                scope.requireBean(ArtifactDescriptorReader.class),
+                scope.requireBean(VersionRangeResolver.class)));
+        singleton(builder, DefaultFileProcessor.class, "", scope -> new DefaultFileProcessor());
+        singleton(builder, DefaultOfflineController.class, "", scope -> new DefaultOfflineController());
+        singleton(builder, DefaultUpdatePolicyAnalyzer.class, "", scope -> new DefaultUpdatePolicyAnalyzer());
+        singleton(builder, DefaultChecksumPolicyProvider.class, "", scope -> new DefaultChecksumPolicyProvider());
+        singleton(builder, DefaultTrackingFileManager.class, "", scope -> new DefaultTrackingFileManager());
+        singleton(builder, DefaultUpdateCheckManager.class, "", scope -> new DefaultUpdateCheckManager(
+                scope.requireBean(TrackingFileManager.class),
+                scope.requireBean(UpdatePolicyAnalyzer.class)));
+        singleton(builder, DefaultRemoteRepositoryManager.class, "", scope -> new DefaultRemoteRepositoryManager(
+                scope.requireBean(UpdatePolicyAnalyzer.class),
+                scope.requireBean(ChecksumPolicyProvider.class)));
+        singleton(builder, DefaultRepositoryEventDispatcher.class, "", scope -> new DefaultRepositoryEventDispatcher(
+                setOf(scope, RepositoryListener.class)));
+        singleton(builder, DefaultRepositoryConnectorProvider.class, "", scope -> new DefaultRepositoryConnectorProvider(
+                setOf(scope, RepositoryConnectorFactory.class),
+                scope.requireBean(RemoteRepositoryFilterManager.class)));
+        singleton(builder, DefaultRepositoryLayoutProvider.class, "", scope -> new DefaultRepositoryLayoutProvider(
+                setOf(scope, RepositoryLayoutFactory.class)));
+        singleton(builder, Maven2RepositoryLayoutFactory.class, Maven2RepositoryLayoutFactory.NAME,
+                scope -> new Maven2RepositoryLayoutFactory(scope.requireBean(ChecksumAlgorithmFactorySelector.class)));
+        singleton(builder, DefaultTransporterProvider.class, "", scope -> new DefaultTransporterProvider(
+                setOf(scope, TransporterFactory.class)));
+
+        // local repository
+        singleton(builder, DefaultLocalRepositoryProvider.class, "", scope -> new DefaultLocalRepositoryProvider(
+                setOf(scope, LocalRepositoryManagerFactory.class)));
+        singleton(builder, EnhancedLocalRepositoryManagerFactory.class, EnhancedLocalRepositoryManagerFactory.NAME,
+                scope -> new EnhancedLocalRepositoryManagerFactory(
+                        scope.requireBean(LocalPathComposer.class),
+                        scope.requireBean(TrackingFileManager.class),
+                        scope.requireBean(LocalPathPrefixComposerFactory.class)));
+        singleton(builder, SimpleLocalRepositoryManagerFactory.class, SimpleLocalRepositoryManagerFactory.NAME,
+                scope -> new SimpleLocalRepositoryManagerFactory(scope.requireBean(LocalPathComposer.class)));
+        singleton(builder, DefaultLocalPathComposer.class, "", scope -> new DefaultLocalPathComposer());
+        singleton(builder, DefaultLocalPathPrefixComposerFactory.class, "",
+                scope -> new DefaultLocalPathPrefixComposerFactory());
+
+        // checksums
+        singleton(builder, DefaultChecksumAlgorithmFactorySelector.class, "",
+                scope -> new DefaultChecksumAlgorithmFactorySelector(
+                        scope.getAllBeansWithNames(ChecksumAlgorithmFactory.class, DependencyFilter.ACCEPT)));
+        singleton(builder, Sha512ChecksumAlgorithmFactory.class, Sha512ChecksumAlgorithmFactory.NAME,
+                scope -> new Sha512ChecksumAlgorithmFactory());
+        singleton(builder, Sha256ChecksumAlgorithmFactory.class, Sha256ChecksumAlgorithmFactory.NAME,
+                scope -> new Sha256ChecksumAlgorithmFactory());
+        singleton(builder, Sha1ChecksumAlgorithmFactory.class, Sha1ChecksumAlgorithmFactory.NAME,
+                scope -> new Sha1ChecksumAlgorithmFactory());
+        singleton(builder, Md5ChecksumAlgorithmFactory.class, Md5ChecksumAlgorithmFactory.NAME,
+                scope -> new Md5ChecksumAlgorithmFactory());
+        singleton(builder, SparseDirectoryTrustedChecksumsSource.class, SparseDirectoryTrustedChecksumsSource.NAME,
+                scope -> new SparseDirectoryTrustedChecksumsSource(
+                        scope.requireBean(FileProcessor.class),
+                        scope.requireBean(LocalPathComposer.class)));
+        singleton(builder, SummaryFileTrustedChecksumsSource.class, SummaryFileTrustedChecksumsSource.NAME,
+                scope -> new SummaryFileTrustedChecksumsSource(
+                        scope.requireBean(LocalPathComposer.class),
+                        scope.requireBean(RepositorySystemLifecycle.class)));
+        singleton(builder, TrustedToProvidedChecksumsSourceAdapter.class, TrustedToProvidedChecksumsSourceAdapter.NAME,
+                scope -> new TrustedToProvidedChecksumsSourceAdapter(
+                        scope.getAllBeansWithNames(TrustedChecksumsSource.class, DependencyFilter.ACCEPT)));
+        singleton(builder, TrustedChecksumsArtifactResolverPostProcessor.class,
+                TrustedChecksumsArtifactResolverPostProcessor.NAME,
+                scope -> new TrustedChecksumsArtifactResolverPostProcessor(
+                        scope.requireBean(ChecksumAlgorithmFactorySelector.class),
+                        scope.getAllBeansWithNames(TrustedChecksumsSource.class, DependencyFilter.ACCEPT)));
+
+        // remote repository filtering
+        singleton(builder, DefaultRemoteRepositoryFilterManager.class, "",
+                scope -> new DefaultRemoteRepositoryFilterManager(
+                        scope.getAllBeansWithNames(RemoteRepositoryFilterSource.class, DependencyFilter.ACCEPT)));
+        singleton(builder, GroupIdRemoteRepositoryFilterSource.class, GroupIdRemoteRepositoryFilterSource.NAME,
+                scope -> new GroupIdRemoteRepositoryFilterSource(scope.requireBean(RepositorySystemLifecycle.class)));
+        singleton(builder, PrefixesRemoteRepositoryFilterSource.class, PrefixesRemoteRepositoryFilterSource.NAME,
+                scope -> new PrefixesRemoteRepositoryFilterSource(scope.requireBean(RepositoryLayoutProvider.class)));
+
+        // synchronization
+        singleton(builder, DefaultSyncContextFactory.class, "", scope -> new DefaultSyncContextFactory(
+                scope.requireBean(NamedLockFactoryAdapterFactory.class)));
+        singleton(builder, org.eclipse.aether.internal.impl.synccontext.legacy.DefaultSyncContextFactory.class, "",
+                scope -> new org.eclipse.aether.internal.impl.synccontext.legacy.DefaultSyncContextFactory(
+                        scope.requireBean(SyncContextFactory.class)));
+        singleton(builder, NamedLockFactoryAdapterFactoryImpl.class, "", scope -> new NamedLockFactoryAdapterFactoryImpl(
+                scope.getAllBeansWithNames(NamedLockFactory.class, DependencyFilter.ACCEPT),
+                scope.getAllBeansWithNames(NameMapper.class, DependencyFilter.ACCEPT),
+                scope.requireBean(RepositorySystemLifecycle.class)));
+        singleton(builder, FileLockNamedLockFactory.class, FileLockNamedLockFactory.NAME,
+                scope -> new FileLockNamedLockFactory());
+        singleton(builder, LocalReadWriteLockNamedLockFactory.class, LocalReadWriteLockNamedLockFactory.NAME,
+                scope -> new LocalReadWriteLockNamedLockFactory());
+        singleton(builder, LocalSemaphoreNamedLockFactory.class, LocalSemaphoreNamedLockFactory.NAME,
+                scope -> new LocalSemaphoreNamedLockFactory());
+        singleton(builder, NoopNamedLockFactory.class, NoopNamedLockFactory.NAME, scope -> new NoopNamedLockFactory());
+        singleton(builder, NameMapper.class, NameMappers.STATIC_NAME, scope -> NameMappers.staticNameMapper());
+        singleton(builder, NameMapper.class, NameMappers.GAV_NAME, scope -> NameMappers.gavNameMapper());
+        singleton(builder, NameMapper.class, NameMappers.GAECV_NAME, scope -> NameMappers.gaecvNameMapper());
+        singleton(builder, NameMapper.class, NameMappers.DISCRIMINATING_NAME,
+                scope -> NameMappers.discriminatingNameMapper());
+        singleton(builder, NameMapper.class, NameMappers.FILE_GAV_NAME, scope -> NameMappers.fileGavNameMapper());
+        singleton(builder, NameMapper.class, NameMappers.FILE_GAECV_NAME, scope -> NameMappers.fileGaecvNameMapper());
+        singleton(builder, NameMapper.class, NameMappers.FILE_HGAV_NAME,
+                scope -> NameMappers.fileHashingGavNameMapper());
+        singleton(builder, NameMapper.class, NameMappers.FILE_HGAECV_NAME,
+                scope -> NameMappers.fileHashingGaecvNameMapper());
+        singleton(builder, NameMapper.class, NameMappers.FILE_STATIC_NAME, scope -> NameMappers.fileStaticNameMapper());
+
+        // connector and transports
+        singleton(builder, BasicRepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.NAME,
+                scope -> new BasicRepositoryConnectorFactory(
+                        scope.requireBean(TransporterProvider.class),
+                        scope.requireBean(RepositoryLayoutProvider.class),
+                        scope.requireBean(ChecksumPolicyProvider.class),
+                        scope.requireBean(FileProcessor.class),
+                        scope.getAllBeansWithNames(ProvidedChecksumsSource.class, DependencyFilter.ACCEPT)));
+        singleton(builder, HttpTransporterFactory.class, HttpTransporterFactory.NAME, scope -> new HttpTransporterFactory(
+                scope.getAllBeansWithNames(ChecksumExtractor.class, DependencyFilter.ACCEPT)));
+        singleton(builder, Nexus2ChecksumExtractor.class, Nexus2ChecksumExtractor.NAME,
+                scope -> new Nexus2ChecksumExtractor());
+        singleton(builder, XChecksumChecksumExtractor.class, XChecksumChecksumExtractor.NAME,
+                scope -> new XChecksumChecksumExtractor());
+        singleton(builder, WagonTransporterFactory.class, WagonTransporterFactory.NAME, scope -> new WagonTransporterFactory(
+                scope.requireBean(WagonProvider.class),
+                scope.requireBean(WagonConfigurator.class)));
+        singleton(builder, PlexusWagonProvider.class, "", scope -> new PlexusWagonProvider(
+                scope.requireBean(PlexusContainer.class)));
+        singleton(builder, PlexusWagonConfigurator.class, "", scope -> new PlexusWagonConfigurator(
+                scope.requireBean(PlexusContainer.class)));
+        singleton(builder, PlexusContainerImpl.class, "", scope -> new PlexusContainerImpl(scope.getContainer(), classLoaders));
+        // wagons are created per lookup
+        builder.addBean(Wagon.class).setName("file").setSupplier(scope -> new FileWagon()).build();
+        builder.addBean(Wagon.class).setName("http").setSupplier(scope -> new HttpWagon()).build();
+        builder.addBean(Wagon.class).setName("https").setSupplier(scope -> new HttpWagon()).build();
+    }
+
+    private static <T> void singleton(final BeanBag.Builder builder, final Class<T> type, final String name,
+            final BeanSupplier<T> supplier) {
+        builder.addBean(type)
+                .setName(name)
+                .setSingleton(true)
+                .setSupplier(supplier)
+                .build();
+    }
+
+    private static <T> Set<T> setOf(final Scope scope, final Class<T> type) {
+        return new LinkedHashSet<>(scope.getAllBeans(type));
+    }
+}
@@ -1,10 +1,19 @@
 package io.smallrye.beanbag.maven;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import org.apache.maven.settings.Settings;
 import org.apache.maven.settings.building.SettingsBuildingException;
 import org.apache.maven.settings.building.SettingsProblem;
@@ -12,16 +21,26 @@ import org.apache.maven.wagon.Wagon;
 import org.apache.maven.wagon.providers.http.HttpWagon;
 import org.codehaus.plexus.PlexusContainer;
 import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultSessionData;
+import org.eclipse.aether.RepositoryCache;
 import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.SessionData;
+import org.eclipse.aether.util.ConfigUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.sonatype.plexus.components.sec.dispatcher.SecDispatcher;
 import org.sonatype.plexus.components.sec.dispatcher.SecDispatcherException;
 
+import io.smallrye.beanbag.BeanBag;
+import io.smallrye.beanbag.maven.beans.Glycine;
 import io.smallrye.beanbag.maven.beans.Phaseolus;
 import io.smallrye.beanbag.maven.beans.Pisum;
 import io.smallrye.beanbag.maven.beans.Vigna;
 import io.smallrye.beanbag.maven.beans.africa.Cyamopsis;
 import io.smallrye.beanbag.maven.beans.africa.Tamarindus;
+import io.smallrye.beanbag.maven.beans.asia.Lens;
 
 /**
  *
@@ -66,6 +85,114 @@ public final class MavenFactoryTestCase {
         pc.lookup(SecDispatcher.class);
     }
 
+    @Test
+    public void testPlexusLookupByRoleName() throws ComponentLookupException {
+        final MavenFactory mavenFactory = MavenFactory.create(MavenFactory.class.getClassLoader());
+        PlexusContainer pc = mavenFactory.getContainer().requireBean(PlexusContainer.class);
+        final String role = Wagon.class.getName();
+        assertTrue(pc.hasComponent(role, "file"));
+        assertFalse(pc.hasComponent(role, "missing"));
+        assertFalse(pc.hasComponent("does.not.Exist"));
+        assertSame(pc.lookup(role, "file").getClass(), pc.lookup(role, "file").getClass());
+        assertEquals(pc.lookupList(role).size(), pc.lookupList(Wagon.class).size());
+        assertThrows(ComponentLookupException.class, () -> pc.lookup("does.not.Exist"));
+        assertThrows(ComponentLookupException.class, () -> pc.lookup(role, "missing"));
+    }
+
+    @Test
+    public void testTemplate() {
+        final MavenFactory.Template template = MavenFactory.template(MavenFactory.class.getClassLoader());
+        final MavenFactory first = template.create();
+        final MavenFactory second = template.create(builder -> builder.addBean(String.class)
+                .setName("tenant")
+                .setInstance("second")
+                .build());
+        assertNotSame(first.getContainer(), second.getContainer());
+        final RepositorySystem system = first.getRepositorySystem();
+        assertNotNull(system);
+        assertSame(system, first.getRepositorySystem());
+        assertNotSame(system, second.getRepositorySystem());
+        assertSame(first.getContainer(), first.getContainer().requireBean(BeanBag.class));
+        assertEquals("second", second.getContainer().requireBean(String.class, "tenant"));
+        assertNull(first.getContainer().getOptionalBean(String.class, "tenant"));
+        assertNotNull(second.getContainer().requireBean(Wagon.class, "http"));
+    }
+
+    @Test
+    public void testTemplateInterleavedLookups() {
+        final MavenFactory.Template template = MavenFactory.template(MavenFactory.class.getClassLoader());
+        final MavenFactory first = template.create();
+        final Lens lens = new Lens();
+        final MavenFactory second = template.create(builder -> builder.addBeanInstance(lens));
+        // the factories share the definition of Glycine, but each resolves its own legumes
+        for (int i = 0; i < 3; i++) {
+            assertEquals(List.of(), first.getContainer().requireBean(Glycine.class).getLegumes());
+            assertEquals(List.of(lens), second.getContainer().requireBean(Glycine.class).getLegumes());
+        }
+        assertNotSame(first.getContainer().requireBean(Glycine.class),
+                first.getContainer().requireBean(Glycine.class));
+    }
+
+    @Test
+    public void testSessionBuilder(@TempDir Path localRepository) {
+        final MavenFactory mavenFactory = MavenFactory.create(MavenFactory.class.getClassLoader());
+        final Settings settings = new Settings();
+        settings.setLocalRepository(localRepository.toString());
+        final RepositoryCache cache = new DefaultRepositoryCache();
+        final SessionData data = new DefaultSessionData();
+        final MavenFactory.SessionBuilder builder = mavenFactory.newSessionBuilder(settings)
+                .setRepositoryCache(cache)
+                .setSessionData(data)
+                .setConnectorThreads(8)
+                .setCollectorStrategy(MavenFactory.CollectorStrategy.BREADTH_FIRST)
+                .setLockFactory(MavenFactory.LockFactory.FILE)
+                .setLockNaming(MavenFactory.LockNaming.FILE_GAV)
+                .setLockTimeout(10, TimeUnit.SECONDS);
+        final RepositorySystemSession first = builder.build();
+        final RepositorySystemSession second = builder.build();
+        assertSame(cache, first.getCache());
+        assertSame(cache, second.getCache());
+        assertSame(data, second.getData());
+        assertEquals(8, ConfigUtils.getInteger(first, 0, "aether.connector.basic.threads"));
+        assertEquals("bf", ConfigUtils.getString(first, null, "aether.dependencyCollector.impl"));
+        assertEquals("file-lock", ConfigUtils.getString(first, null, "aether.syncContext.named.factory"));
+        assertEquals("file-gav", ConfigUtils.getString(first, null, "aether.syncContext.named.nameMapper"));
+        assertEquals("SECONDS", ConfigUtils.getString(first, null, "aether.syncContext.named.time.unit"));
+        assertEquals(localRepository.toFile(), first.getLocalRepository().getBasedir());
+        assertNull(mavenFactory.createSession(settings).getCache());
+        assertThrows(IllegalArgumentException.class, () -> builder.setConnectorThreads(0));
+    }
+
+    @Test
+    public void testSessionBuilderReuse(@TempDir Path localRepository) {
+        final MavenFactory mavenFactory = MavenFactory.create(MavenFactory.class.getClassLoader());
+        final Settings settings = new Settings();
+        settings.setLocalRepository(localRepository.toString());
+        final RepositoryCache cache = new DefaultRepositoryCache();
+        final MavenFactory.SessionBuilder builder = mavenFactory.newSessionBuilder(settings)
+                .setRepositoryCache(cache)
+                .setConnectorThreads(8);
+        final RepositorySystemSession first = builder.build();
+        final SessionData data = new DefaultSessionData();
+        builder.setSessionData(data).setConnectorThreads(4);
+        final RepositorySystemSession second = builder.build();
+        final RepositorySystemSession third = builder.build();
+        // changing the builder does not affect sessions which were already built
+        assertEquals(8, ConfigUtils.getInteger(first, 0, "aether.connector.basic.threads"));
+        assertEquals(4, ConfigUtils.getInteger(second, 0, "aether.connector.basic.threads"));
+        assertNotSame(first.getData(), second.getData());
+        // per-session state is never shared
+        assertNotSame(second.getLocalRepositoryManager(), third.getLocalRepositoryManager());
+        assertNotSame(second.getMirrorSelector(), third.getMirrorSelector());
+        assertNotSame(second.getProxySelector(), third.getProxySelector());
+        assertNotSame(second.getConfigProperties(), third.getConfigProperties());
+        // given instances are shared
+        assertSame(cache, first.getCache());
+        assertSame(cache, third.getCache());
+        assertSame(data, second.getData());
+        assertSame(data, third.getData());
+    }
+
     @Test
     public void testWagonThings() {
         final MavenFactory mavenFactory = MavenFactory.create(MavenFactory.class.getClassLoader());
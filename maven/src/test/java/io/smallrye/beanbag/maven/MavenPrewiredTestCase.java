@@ -0,0 +1,192 @@
+package io.smallrye.beanbag.maven;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.apache.maven.model.building.ModelBuilder;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.apache.maven.settings.building.SettingsBuilder;
+import org.apache.maven.wagon.Wagon;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.deployment.DeployRequest;
+import org.eclipse.aether.impl.ArtifactDescriptorReader;
+import org.eclipse.aether.impl.ArtifactResolver;
+import org.eclipse.aether.impl.DependencyCollector;
+import org.eclipse.aether.impl.Deployer;
+import org.eclipse.aether.impl.Installer;
+import org.eclipse.aether.impl.LocalRepositoryProvider;
+import org.eclipse.aether.impl.MetadataGeneratorFactory;
+import org.eclipse.aether.impl.MetadataResolver;
+import org.eclipse.aether.impl.RemoteRepositoryFilterManager;
+import org.eclipse.aether.impl.RemoteRepositoryManager;
+import org.eclipse.aether.impl.RepositoryConnectorProvider;
+import org.eclipse.aether.impl.UpdateCheckManager;
+import org.eclipse.aether.impl.VersionRangeResolver;
+import org.eclipse.aether.impl.VersionResolver;
+import org.eclipse.aether.internal.impl.collect.DependencyCollectorDelegate;
+import org.eclipse.aether.internal.impl.synccontext.named.NameMapper;
+import org.eclipse.aether.named.NamedLockFactory;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.spi.checksums.ProvidedChecksumsSource;
+import org.eclipse.aether.spi.checksums.TrustedChecksumsSource;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.checksum.ChecksumAlgorithmFactory;
+import org.eclipse.aether.spi.connector.filter.RemoteRepositoryFilterSource;
+import org.eclipse.aether.spi.connector.layout.RepositoryLayoutFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.spi.localrepo.LocalRepositoryManagerFactory;
+import org.eclipse.aether.spi.resolution.ArtifactResolverPostProcessor;
+import org.eclipse.aether.spi.synccontext.SyncContextFactory;
+import org.eclipse.aether.transport.http.ChecksumExtractor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.smallrye.beanbag.BeanBag;
+import io.smallrye.beanbag.DependencyFilter;
+
+/**
+ * Check that the prewired resolver components are equivalent to the discovered ones.
+ */
+public final class MavenPrewiredTestCase {
+
+    /**
+     * Types of which there is a single component.
+     */
+    private static final List<Class<?>> SINGLE_TYPES = List.of(
+            RepositorySystem.class,
+            ArtifactDescriptorReader.class,
+            ArtifactResolver.class,
+            DependencyCollector.class,
+            Deployer.class,
+            Installer.class,
+            LocalRepositoryProvider.class,
+            MetadataResolver.class,
+            RemoteRepositoryFilterManager.class,
+            RemoteRepositoryManager.class,
+            RepositoryConnectorProvider.class,
+            SyncContextFactory.class,
+            UpdateCheckManager.class,
+            VersionRangeResolver.class,
+            VersionResolver.class,
+            ModelBuilder.class,
+            SettingsBuilder.class);
+
+    /**
+     * Types which are injected as sets or maps.
+     */
+    private static final List<Class<?>> MULTIPLE_TYPES = List.of(
+            ArtifactResolverPostProcessor.class,
+            ChecksumAlgorithmFactory.class,
+            ChecksumExtractor.class,
+            DependencyCollectorDelegate.class,
+            LocalRepositoryManagerFactory.class,
+            MetadataGeneratorFactory.class,
+            NameMapper.class,
+            NamedLockFactory.class,
+            ProvidedChecksumsSource.class,
+            RemoteRepositoryFilterSource.class,
+            RepositoryConnectorFactory.class,
+            RepositoryLayoutFactory.class,
+            TransporterFactory.class,
+            TrustedChecksumsSource.class,
+            Wagon.class);
+
+    @Test
+    public void testSameComponents() {
+        final BeanBag scanned = MavenFactory.create(MavenFactory.class.getClassLoader()).getContainer();
+        final BeanBag prewired = MavenFactory.createPrewired().getContainer();
+        for (Class<?> type : SINGLE_TYPES) {
+            assertEquals(scanned.requireBean(type).getClass(), prewired.requireBean(type).getClass(), type.getName());
+        }
+        for (Class<?> type : MULTIPLE_TYPES) {
+            assertEquals(describe(scanned, type), describe(prewired, type), type.getName());
+        }
+    }
+
+    @Test
+    public void testDeployAndResolve(@TempDir Path directory) throws Exception {
+        final Path remote = directory.resolve("remote");
+        final Artifact artifact = new DefaultArtifact("io.smallrye.test", "prewired", "jar", "1.0");
+        final byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+        deploy(MavenFactory.createPrewired().getRepositorySystem(), directory.resolve("local0"), remote, artifact,
+                content);
+        final Set<String> deployed = listFiles(remote);
+        assertTrue(deployed.contains("io/smallrye/test/prewired/1.0/prewired-1.0.jar.sha1"), deployed::toString);
+        // deploying with the scanned components gives the same files
+        final Path scannedRemote = directory.resolve("scanned");
+        deploy(MavenFactory.create(MavenFactory.class.getClassLoader()).getRepositorySystem(),
+                directory.resolve("local1"), scannedRemote, artifact, content);
+        assertEquals(deployed, listFiles(scannedRemote));
+
+        final ArtifactResult result = resolve(MavenFactory.createPrewired().getRepositorySystem(),
+                directory.resolve("local2"), remote, artifact);
+        assertFalse(result.isMissing());
+        assertArrayEquals(content, Files.readAllBytes(result.getArtifact().getFile().toPath()));
+        final ArtifactResult scannedResult = resolve(MavenFactory.create(MavenFactory.class.getClassLoader())
+                .getRepositorySystem(), directory.resolve("local3"), remote, artifact);
+        assertEquals(directory.resolve("local2").relativize(result.getArtifact().getFile().toPath()),
+                directory.resolve("local3").relativize(scannedResult.getArtifact().getFile().toPath()));
+    }
+
+    private static Map<String, String> describe(BeanBag container, Class<?> type) {
+        final Map<String, String> map = new TreeMap<>();
+        container.newScope().getAllBeansWithNames(type, DependencyFilter.ACCEPT)
+                .forEach((name, bean) -> map.put(name, bean.getClass().getName()));
+        return map;
+    }
+
+    private static void deploy(RepositorySystem system, Path local, Path remote, Artifact artifact, byte[] content)
+            throws Exception {
+        final DefaultRepositorySystemSession session = newSession(system, local);
+        final Path file = Files.createDirectories(local).resolve("artifact.jar");
+        Files.write(file, content);
+        final DeployRequest request = new DeployRequest();
+        request.setRepository(remoteRepository(remote));
+        request.addArtifact(artifact.setFile(file.toFile()));
+        system.deploy(session, request);
+    }
+
+    private static ArtifactResult resolve(RepositorySystem system, Path local, Path remote, Artifact artifact)
+            throws Exception {
+        final ArtifactRequest request = new ArtifactRequest(artifact, List.of(remoteRepository(remote)), null);
+        return system.resolveArtifact(newSession(system, local), request);
+    }
+
+    private static DefaultRepositorySystemSession newSession(RepositorySystem system, Path local) {
+        final DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+        session.setLocalRepositoryManager(system.newLocalRepositoryManager(session, new LocalRepository(local.toFile())));
+        return session;
+    }
+
+    private static RemoteRepository remoteRepository(Path remote) {
+        return new RemoteRepository.Builder("test", "default", remote.toUri().toString()).build();
+    }
+
+    private static Set<String> listFiles(Path directory) throws IOException {
+        try (var stream = Files.walk(directory)) {
+            return stream.filter(Files::isRegularFile)
+                    .map(path -> directory.relativize(path).toString().replace(File.separatorChar, '/'))
+                    .collect(Collectors.toCollection(TreeSet::new));
+        }
+    }
+}
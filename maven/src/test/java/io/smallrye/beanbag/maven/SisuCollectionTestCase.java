@@ -0,0 +1,97 @@
+package io.smallrye.beanbag.maven;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.beanbag.BeanBag;
+import io.smallrye.beanbag.BeanInstantiationException;
+import io.smallrye.beanbag.DependencyFilter;
+import io.smallrye.beanbag.sisu.Sisu;
+
+/**
+ *
+ */
+public final class SisuCollectionTestCase {
+
+    @Test
+    public void testCollectionsAreInstantiatedByDefault() {
+        final AtomicInteger created = new AtomicInteger();
+        final BeanBag.Builder builder = createBuilder(created);
+        Sisu.createFor(builder).addClass(Consumer.class, DependencyFilter.ACCEPT);
+        final Consumer consumer = builder.build().requireBean(Consumer.class);
+        assertEquals(2, created.get());
+        assertEquals(2, consumer.list.size());
+        assertEquals(2, consumer.set.size());
+        assertEquals(Set.of("one", "two"), consumer.map.keySet());
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    public void testFailureAtInjection() {
+        final AtomicInteger created = new AtomicInteger();
+        final BeanBag.Builder builder = createBuilder(created);
+        addBroken(builder);
+        Sisu.createFor(builder).addClass(Consumer.class, DependencyFilter.ACCEPT);
+        final BeanBag container = builder.build();
+        assertThrows(RuntimeException.class, () -> container.requireBean(Consumer.class));
+    }
+
+    @Test
+    public void testLazyCollections() {
+        final AtomicInteger created = new AtomicInteger();
+        final BeanBag.Builder builder = createBuilder(created);
+        addBroken(builder);
+        Sisu.createFor(builder).setLazyCollections(true).addClass(Consumer.class, DependencyFilter.ACCEPT);
+        final Consumer consumer = builder.build().requireBean(Consumer.class);
+        assertEquals(0, created.get());
+        assertNotNull(consumer.map.get("one"));
+        assertEquals(1, created.get());
+        // the failure is only reported on access
+        assertThrows(BeanInstantiationException.class, () -> consumer.map.get("broken"));
+        // the size of a set instantiates every bean; failed beans are skipped
+        assertEquals(2, consumer.set.size());
+        assertEquals(2, created.get());
+        assertEquals(2, consumer.list.size());
+    }
+
+    private static BeanBag.Builder createBuilder(AtomicInteger created) {
+        final BeanBag.Builder builder = BeanBag.builder();
+        for (String name : List.of("one", "two")) {
+            builder.addBean(Runnable.class).setName(name).setSupplier(scope -> {
+                created.incrementAndGet();
+                // a distinct instance for each bean
+                return new Thread(name);
+            }).build();
+        }
+        return builder;
+    }
+
+    private static void addBroken(BeanBag.Builder builder) {
+        builder.addBean(Runnable.class).setName("broken").setSupplier(scope -> {
+            throw new IllegalStateException("Broken");
+        }).build();
+    }
+
+    public static final class Consumer {
+        final List<Runnable> list;
+        final Set<Runnable> set;
+        final Map<String, Runnable> map;
+
+        @Inject
+        public Consumer(List<Runnable> list, Set<Runnable> set, Map<String, Runnable> map) {
+            this.list = list;
+            this.set = set;
+            this.map = map;
+        }
+    }
+}
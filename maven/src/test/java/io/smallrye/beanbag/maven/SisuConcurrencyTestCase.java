@@ -0,0 +1,64 @@
+package io.smallrye.beanbag.maven;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import io.smallrye.beanbag.BeanBag;
+import io.smallrye.beanbag.DependencyFilter;
+import io.smallrye.beanbag.DependencyGraph;
+import io.smallrye.beanbag.sisu.Sisu;
+
+/**
+ *
+ */
+public final class SisuConcurrencyTestCase {
+
+    @ParameterizedTest
+    @EnumSource(Sisu.ScanConcurrency.class)
+    public void testConcurrencyPolicy(Sisu.ScanConcurrency concurrency) {
+        final BeanBag.Builder builder = BeanBag.builder();
+        final Sisu sisu = Sisu.createFor(builder).setConcurrency(concurrency);
+        sisu.addClassLoader(SisuConcurrencyTestCase.class.getClassLoader(), DependencyFilter.ACCEPT);
+        assertEquals(describe(createReference()), describe(builder.build()));
+        final List<Sisu.ScanMetric> metrics = sisu.getScanMetrics();
+        assertFalse(metrics.isEmpty());
+        for (Sisu.ScanMetric metric : metrics) {
+            assertTrue(metric.getBytesRead() > 0, metric::toString);
+        }
+    }
+
+    @Test
+    public void testExecutor() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final BeanBag.Builder builder = BeanBag.builder();
+            Sisu.createFor(builder)
+                    .setExecutor(executor)
+                    .addClassLoader(SisuConcurrencyTestCase.class.getClassLoader(), DependencyFilter.ACCEPT);
+            assertEquals(describe(createReference()), describe(builder.build()));
+            // not shut down by the configurator
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static BeanBag createReference() {
+        final BeanBag.Builder builder = BeanBag.builder();
+        Sisu.configureSisu(SisuConcurrencyTestCase.class.getClassLoader(), builder, DependencyFilter.ACCEPT);
+        return builder.build();
+    }
+
+    private static List<String> describe(BeanBag container) {
+        return container.getDependencyGraph().getNodes().stream().map(DependencyGraph.Node::toString).sorted().toList();
+    }
+}
@@ -0,0 +1,67 @@
+package io.smallrye.beanbag.maven;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Properties;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.beanbag.BeanBag;
+import io.smallrye.beanbag.DependencyFilter;
+import io.smallrye.beanbag.sisu.Sisu;
+
+/**
+ *
+ */
+public final class SisuExpressionTestCase {
+
+    @Test
+    public void testExpressions() {
+        final Properties properties = new Properties();
+        properties.setProperty("a", "A");
+        properties.setProperty("n", "2");
+        properties.setProperty("k2", "K2");
+        final BeanBag container = createContainer(properties);
+        final Expressions expressions = container.requireBean(Expressions.class);
+        assertEquals("A", expressions.plain);
+        assertEquals("<A>", expressions.withDefault);
+        assertEquals("x-A-y", expressions.nestedDefault);
+        assertEquals("K2", expressions.nestedKey);
+        assertEquals("} and :- are text", expressions.text);
+        // each injection is evaluated against the properties of the container
+        final Expressions other = createContainer(new Properties()).requireBean(Expressions.class);
+        assertEquals("", other.plain);
+        assertEquals("<default>", other.withDefault);
+        assertEquals("x-A-y", other.nestedDefault);
+        assertEquals("", other.nestedKey);
+    }
+
+    private static BeanBag createContainer(Properties properties) {
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addBean(Properties.class).setInstance(properties).build();
+        Sisu.createFor(builder).addClass(Expressions.class, DependencyFilter.ACCEPT);
+        return builder.build();
+    }
+
+    public static final class Expressions {
+        final String plain;
+        final String withDefault;
+        final String nestedDefault;
+        final String nestedKey;
+        final String text;
+
+        @Inject
+        public Expressions(@Named("${a}") String plain, @Named("<${a:-default}>") String withDefault,
+                @Named("x-${missing:-${missing2:-A}}-y") String nestedDefault, @Named("${k${n}}") String nestedKey,
+                @Named("} and :- are text") String text) {
+            this.plain = plain;
+            this.withDefault = withDefault;
+            this.nestedDefault = nestedDefault;
+            this.nestedKey = nestedKey;
+            this.text = text;
+        }
+    }
+}
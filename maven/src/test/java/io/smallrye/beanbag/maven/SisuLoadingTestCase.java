@@ -0,0 +1,109 @@
+package io.smallrye.beanbag.maven;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.smallrye.beanbag.BeanBag;
+import io.smallrye.beanbag.DependencyFilter;
+import io.smallrye.beanbag.sisu.Sisu;
+
+/**
+ *
+ */
+public final class SisuLoadingTestCase {
+    private static final String NAMED = "META-INF/sisu/javax.inject.Named";
+    private static final String COMPONENTS = "META-INF/plexus/components.xml";
+
+    @Test
+    public void testIntrospectionFailure(@TempDir Path directory) throws IOException {
+        final ClassLoader classLoader = metadataLoader(directory, Map.of(NAMED, BrokenProvider.class.getName()));
+        final Path cacheDirectory = directory.resolve("cache");
+        // cold cache, then warm cache
+        for (int i = 0; i < 2; i++) {
+            final Sisu sisu = Sisu.createFor(BeanBag.builder()).setCacheDirectory(cacheDirectory);
+            final RuntimeException e = assertThrows(RuntimeException.class,
+                    () -> sisu.addClassLoader(classLoader, DependencyFilter.ACCEPT));
+            assertEquals("Failed to load beans, please see the errors logged above", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testNamedAndPlexusComponent(@TempDir Path directory) throws IOException {
+        final ClassLoader classLoader = metadataLoader(directory, Map.of(
+                NAMED, Dual.class.getName(),
+                COMPONENTS, "<component-set><components><component><implementation>" + Dual.class.getName()
+                        + "</implementation></component></components></component-set>"));
+        final BeanBag.Builder builder = BeanBag.builder();
+        Sisu.createFor(builder).addClassLoader(classLoader, DependencyFilter.ACCEPT);
+        assertEquals(1, builder.build().getAllBeans(Dual.class).size());
+    }
+
+    @Test
+    public void testSharedDefiningLoader(@TempDir Path directory) throws IOException {
+        final Map<String, String> resources = Map.of(NAMED, Dual.class.getName());
+        final BeanBag.Builder builder = BeanBag.builder();
+        final Sisu sisu = Sisu.createFor(builder);
+        // both class loaders delegate to the class loader of the test
+        sisu.addClassLoader(metadataLoader(directory, resources), DependencyFilter.ACCEPT);
+        sisu.addClassLoader(metadataLoader(directory, resources), DependencyFilter.ACCEPT);
+        sisu.addClass(Dual.class, DependencyFilter.ACCEPT);
+        assertEquals(1, builder.build().getAllBeans(Dual.class).size());
+    }
+
+    /**
+     * Create a class loader which loads classes from the class loader of the test, but whose only metadata resources
+     * are the given ones.
+     */
+    static ClassLoader metadataLoader(Path directory, Map<String, String> resources) throws IOException {
+        final Map<String, URL> urls = new HashMap<>();
+        for (Map.Entry<String, String> entry : resources.entrySet()) {
+            final Path file = Files.createTempFile(directory, "resource", ".txt");
+            Files.writeString(file, entry.getValue() + "\n", StandardCharsets.UTF_8);
+            urls.put(entry.getKey(), file.toUri().toURL());
+        }
+        return new ClassLoader(SisuLoadingTestCase.class.getClassLoader()) {
+            public Enumeration<URL> getResources(final String name) throws IOException {
+                if (name.startsWith("META-INF/")) {
+                    final URL url = urls.get(name);
+                    return url == null ? Collections.emptyEnumeration() : Collections.enumeration(List.of(url));
+                }
+                return super.getResources(name);
+            }
+        };
+    }
+
+    @Named
+    public static final class Dual implements Runnable {
+        public void run() {
+        }
+    }
+
+    public static final class BrokenProvider implements Provider<Runnable> {
+        // only maps with string keys can be injected
+        @Inject
+        Map<Integer, Runnable> runnables;
+
+        public Runnable get() {
+            return () -> {
+            };
+        }
+    }
+}
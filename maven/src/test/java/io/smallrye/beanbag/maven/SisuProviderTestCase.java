@@ -0,0 +1,65 @@
+package io.smallrye.beanbag.maven;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+import org.junit.jupiter.api.Test;
+
+import io.smallrye.beanbag.BeanBag;
+import io.smallrye.beanbag.DependencyFilter;
+import io.smallrye.beanbag.NoSuchBeanException;
+import io.smallrye.beanbag.Scope;
+import io.smallrye.beanbag.sisu.Sisu;
+
+/**
+ *
+ */
+public final class SisuProviderTestCase {
+
+    @Test
+    public void testProviderResolvesOnce() {
+        final AtomicInteger created = new AtomicInteger();
+        final BeanBag.Builder builder = BeanBag.builder();
+        builder.addBean(StringBuilder.class).setSupplier(scope -> {
+            created.incrementAndGet();
+            return new StringBuilder();
+        }).build();
+        Sisu.createFor(builder).addClass(Consumer.class, DependencyFilter.ACCEPT);
+        final BeanBag container = builder.build();
+        final Scope scope = container.newScope();
+        final Consumer consumer = scope.requireBean(Consumer.class);
+        final StringBuilder first = consumer.provider.get();
+        for (int i = 0; i < 10; i++) {
+            assertSame(first, consumer.provider.get());
+        }
+        assertSame(first, scope.requireBean(StringBuilder.class));
+        assertEquals(1, created.get());
+        // another scope has its own instance
+        assertNotSame(first, container.newScope().requireBean(Consumer.class).provider.get());
+    }
+
+    @Test
+    public void testMissingBeanIsResolvedAgain() {
+        final BeanBag.Builder builder = BeanBag.builder();
+        Sisu.createFor(builder).addClass(Consumer.class, DependencyFilter.ACCEPT);
+        final Consumer consumer = builder.build().requireBean(Consumer.class);
+        assertThrows(NoSuchBeanException.class, consumer.provider::get);
+        assertThrows(NoSuchBeanException.class, consumer.provider::get);
+    }
+
+    public static final class Consumer {
+        final Provider<StringBuilder> provider;
+
+        @Inject
+        public Consumer(Provider<StringBuilder> provider) {
+            this.provider = provider;
+        }
+    }
+}
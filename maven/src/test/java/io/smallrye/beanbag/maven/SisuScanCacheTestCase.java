@@ -0,0 +1,150 @@
+package io.smallrye.beanbag.maven;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import org.eclipse.aether.RepositorySystem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.smallrye.beanbag.BeanBag;
+import io.smallrye.beanbag.DependencyFilter;
+import io.smallrye.beanbag.DependencyGraph;
+import io.smallrye.beanbag.maven.beans.Legume;
+import io.smallrye.beanbag.maven.beans.asia.Lens;
+import io.smallrye.beanbag.sisu.Sisu;
+
+/**
+ *
+ */
+public final class SisuScanCacheTestCase {
+
+    @Test
+    public void testCachedScanIsEquivalent(@TempDir Path cacheDirectory) throws IOException {
+        final List<String> expected = describe(createContainer(null));
+        // cold cache
+        assertEquals(expected, describe(createContainer(cacheDirectory)));
+        final List<Path> cacheFiles = listFiles(cacheDirectory);
+        assertFalse(cacheFiles.isEmpty());
+        // warm cache
+        final BeanBag container = createContainer(cacheDirectory);
+        assertEquals(expected, describe(container));
+        assertNotNull(container.requireBean(RepositorySystem.class));
+        // damaged cache files are ignored and replaced
+        for (Path cacheFile : cacheFiles) {
+            Files.write(cacheFile, new byte[] { 1, 2, 3 });
+        }
+        assertEquals(expected, describe(createContainer(cacheDirectory)));
+        assertEquals(cacheFiles, listFiles(cacheDirectory));
+        assertEquals(expected, describe(createContainer(cacheDirectory)));
+    }
+
+    @Test
+    public void testDependencyJarChanges(@TempDir Path directory) throws Exception {
+        final Path cacheDirectory = directory.resolve("cache");
+        final Path beansJar = createJar(directory.resolve("beans.jar"), Map.of(
+                "META-INF/sisu/javax.inject.Named", (Lens.class.getName() + "\n").getBytes(StandardCharsets.UTF_8),
+                classFileName(Lens.class), classFile(Lens.class)));
+        final Path apiJar = createJar(directory.resolve("api.jar"),
+                Map.of(classFileName(Legume.class), classFile(Legume.class)));
+        final Path shadowJar = createJar(directory.resolve("shadow.jar"),
+                Map.of(classFileName(Legume.class), classFile(Legume.class)));
+        // cold cache
+        assertLens(cacheDirectory, beansJar, apiJar);
+        final List<Path> cacheFiles = listFiles(cacheDirectory);
+        assertEquals(1, cacheFiles.size());
+        final Path cacheFile = cacheFiles.get(0);
+        final FileTime marker = FileTime.fromMillis(0);
+        // warm cache; the cache file is not replaced
+        Files.setLastModifiedTime(cacheFile, marker);
+        assertLens(cacheDirectory, beansJar, apiJar);
+        assertEquals(marker, Files.getLastModifiedTime(cacheFile));
+        // the JAR of a supertype changes
+        Files.setLastModifiedTime(apiJar, FileTime.fromMillis(Files.getLastModifiedTime(apiJar).toMillis() + 10_000));
+        assertLens(cacheDirectory, beansJar, apiJar);
+        assertNotEquals(marker, Files.getLastModifiedTime(cacheFile));
+        Files.setLastModifiedTime(cacheFile, marker);
+        assertLens(cacheDirectory, beansJar, apiJar);
+        assertEquals(marker, Files.getLastModifiedTime(cacheFile));
+        // a supertype is now found in another JAR
+        assertLens(cacheDirectory, beansJar, shadowJar, apiJar);
+        assertNotEquals(marker, Files.getLastModifiedTime(cacheFile));
+    }
+
+    private static void assertLens(Path cacheDirectory, Path... jars) throws Exception {
+        final URL[] urls = new URL[jars.length];
+        for (int i = 0; i < jars.length; i++) {
+            urls[i] = jars[i].toUri().toURL();
+        }
+        try (URLClassLoader classLoader = new URLClassLoader(urls, ClassLoader.getPlatformClassLoader())) {
+            final BeanBag.Builder builder = BeanBag.builder();
+            Sisu.createFor(builder)
+                    .setCacheDirectory(cacheDirectory)
+                    .addClassLoader(classLoader, DependencyFilter.ACCEPT);
+            final BeanBag container = builder.build();
+            final Class<?> legume = classLoader.loadClass(Legume.class.getName());
+            final Object lens = container.requireBean(legume);
+            assertEquals(Lens.class.getName(), lens.getClass().getName());
+            assertInstanceOf(legume, lens);
+        }
+    }
+
+    private static Path createJar(Path path, Map<String, byte[]> entries) throws IOException {
+        try (OutputStream os = Files.newOutputStream(path)) {
+            try (JarOutputStream jos = new JarOutputStream(os)) {
+                for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                    jos.putNextEntry(new JarEntry(entry.getKey()));
+                    jos.write(entry.getValue());
+                    jos.closeEntry();
+                }
+            }
+        }
+        return path;
+    }
+
+    private static String classFileName(Class<?> clazz) {
+        return clazz.getName().replace('.', '/') + ".class";
+    }
+
+    private static byte[] classFile(Class<?> clazz) throws IOException {
+        try (InputStream is = clazz.getClassLoader().getResourceAsStream(classFileName(clazz))) {
+            return is.readAllBytes();
+        }
+    }
+
+    private static BeanBag createContainer(Path cacheDirectory) {
+        final BeanBag.Builder builder = BeanBag.builder();
+        Sisu.createFor(builder)
+                .setCacheDirectory(cacheDirectory)
+                .addClassLoader(SisuScanCacheTestCase.class.getClassLoader(), DependencyFilter.ACCEPT);
+        return builder.build();
+    }
+
+    private static List<String> describe(BeanBag container) {
+        return container.getDependencyGraph().getNodes().stream().map(DependencyGraph.Node::toString).sorted().toList();
+    }
+
+    private static List<Path> listFiles(Path directory) throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.smallrye.beanbag.maven.beans;
+
+import java.util.List;
+
+import javax.inject.Inject;
+
+public class Glycine {
+    private final List<Legume> legumes;
+
+    @Inject
+    public Glycine(final List<Legume> legumes) {
+        this.legumes = legumes;
+    }
+
+    public List<Legume> getLegumes() {
+        return legumes;
+    }
+}
@@ -0,0 +1,4 @@
+package io.smallrye.beanbag.maven.beans;
+
+public interface Legume {
+}
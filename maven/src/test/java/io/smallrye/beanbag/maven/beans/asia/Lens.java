@@ -0,0 +1,6 @@
+package io.smallrye.beanbag.maven.beans.asia;
+
+import io.smallrye.beanbag.maven.beans.Legume;
+
+public class Lens implements Legume {
+}
@@ -1,25 +1,62 @@
 package io.smallrye.beanbag.sisu;
 
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.concurrent.CompletableFuture;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Phaser;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.jboss.logging.Logger;
 
 /**
  * Task runner that runs {@link BeanLoadingTask}s asynchronously and in parallel
+ * <p>
+ * The work for a single metadata resource may itself be split into stages, where each stage processes the items of
+ * the resource in batches which run in parallel, and the next stage starts once every batch of the previous stage
+ * has completed.
  */
 class BeanLoadingTaskRunner {
 
     private static final Logger log = Logger.getLogger(BeanLoadingTaskRunner.class);
 
+    /**
+     * The number of items processed by a single task of a stage
+     */
+    static final int BATCH_SIZE = 16;
+
+    /**
+     * The resource scan that the current thread is working on, if any
+     */
+    private static final ThreadLocal<ResourceScan> currentScan = new ThreadLocal<>();
+
     private final Phaser phaser = new Phaser(1);
+    private final Executor executor;
+    private final Collection<Sisu.ScanMetric> metrics;
     /**
      * Errors caught while running tasks
      */
     private final Collection<Exception> errors = new ConcurrentLinkedDeque<>();
 
+    /**
+     * Construct a new instance.
+     *
+     * @param executor the executor to run tasks with
+     * @param metrics the collection to add the metrics of each resource scan to
+     */
+    BeanLoadingTaskRunner(final Executor executor, final Collection<Sisu.ScanMetric> metrics) {
+        this.executor = executor;
+        this.metrics = metrics;
+    }
+
     /**
      * Runs a bean loading task asynchronously. This method may return before the task has completed.
      *
@@ -27,15 +64,110 @@ class BeanLoadingTaskRunner {
      */
     void run(BeanLoadingTask task) {
         phaser.register();
-        CompletableFuture.runAsync(() -> {
-            try {
-                task.run();
-            } catch (Exception e) {
-                errors.add(e);
-            } finally {
-                phaser.arriveAndDeregister();
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    errors.add(e);
+                } finally {
+                    phaser.arriveAndDeregister();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            errors.add(e);
+            phaser.arriveAndDeregister();
+        }
+    }
+
+    /**
+     * Runs a bean loading task for the given resource asynchronously, recording the wall time and the number of bytes
+     * read by the task and by all the stages it starts.
+     * This method may return before the task has completed.
+     *
+     * @param url the resource URL
+     * @param task task to run
+     */
+    void run(URL url, BeanLoadingTask task) {
+        final ResourceScan scan = new ResourceScan(url);
+        run(() -> scan.run(task));
+    }
+
+    /**
+     * Run a stage of the resource scan of the current task, applying the given function to each item in batches which
+     * run in parallel, and then run the given continuation with the results in item order.
+     * Items for which the function fails have a {@code null} result; a {@link RuntimeException} is also recorded as
+     * an error of the bean loading, whereas a {@link LinkageError} only skips the item.
+     * This method may return before the stage has completed.
+     *
+     * @param items the items to process
+     * @param function the function to apply to each item
+     * @param continuation the continuation to run with the results
+     * @param <T> the item type
+     * @param <R> the result type
+     */
+    @SuppressWarnings("unchecked")
+    <T, R> void runStage(List<T> items, Function<T, R> function, Consumer<List<R>> continuation) {
+        final int size = items.size();
+        if (size <= BATCH_SIZE) {
+            // not worth another task
+            final List<R> results = new ArrayList<>(size);
+            for (T item : items) {
+                results.add(apply(function, item));
             }
-        });
+            continuation.accept(results);
+            return;
+        }
+        final ResourceScan scan = currentScan.get();
+        final Object[] results = new Object[size];
+        final int batches = (size + BATCH_SIZE - 1) / BATCH_SIZE;
+        final AtomicInteger remaining = new AtomicInteger(batches);
+        for (int batch = 0; batch < batches; batch++) {
+            final int from = batch * BATCH_SIZE;
+            final int to = Math.min(size, from + BATCH_SIZE);
+            scan.fork(() -> {
+                for (int i = from; i < to; i++) {
+                    results[i] = apply(function, items.get(i));
+                }
+                // the last batch to finish continues with the next stage
+                if (remaining.decrementAndGet() == 0) {
+                    continuation.accept((List<R>) Arrays.asList(results));
+                }
+            });
+        }
+    }
+
+    private <T, R> R apply(Function<T, R> function, T item) {
+        try {
+            return function.apply(item);
+        } catch (RuntimeException e) {
+            addError(e);
+            return null;
+        } catch (LinkageError e) {
+            log.debugf(e, "Failed to process %s", item);
+            return null;
+        }
+    }
+
+    /**
+     * Record an error which was caught while loading beans, so that {@link #waitForCompletion()} fails.
+     *
+     * @param e the error
+     */
+    void addError(Exception e) {
+        errors.add(e);
+    }
+
+    /**
+     * Record that the given number of bytes was read by the resource scan of the current thread, if any.
+     *
+     * @param count the number of bytes
+     */
+    static void recordBytesRead(long count) {
+        final ResourceScan scan = currentScan.get();
+        if (scan != null) {
+            scan.bytesRead.add(count);
+        }
     }
 
     /**
@@ -55,4 +187,44 @@ class BeanLoadingTaskRunner {
             throw new RuntimeException("Failed to load beans, please see the errors logged above");
         }
     }
+
+    /**
+     * The state of the scan of a single resource, which may span several tasks.
+     */
+    final class ResourceScan {
+        private final URL url;
+        private final long start = System.nanoTime();
+        private final LongAdder bytesRead = new LongAdder();
+        private final AtomicInteger tasks = new AtomicInteger(1);
+
+        ResourceScan(final URL url) {
+            this.url = url;
+        }
+
+        void fork(BeanLoadingTask task) {
+            tasks.incrementAndGet();
+            BeanLoadingTaskRunner.this.run(() -> run(task));
+        }
+
+        void run(BeanLoadingTask task) throws IOException {
+            // tasks may run in the thread of another task
+            final ResourceScan previous = currentScan.get();
+            currentScan.set(this);
+            try {
+                task.run();
+            } finally {
+                currentScan.set(previous);
+                if (tasks.decrementAndGet() == 0) {
+                    complete();
+                }
+            }
+        }
+
+        private void complete() {
+            final long nanos = System.nanoTime() - start;
+            final long bytes = bytesRead.sum();
+            metrics.add(new Sisu.ScanMetric(url, nanos, bytes));
+            log.debugf("Scanned %s in %d ms (%d bytes read)", url, Long.valueOf(nanos / 1_000_000L), Long.valueOf(bytes));
+        }
+    }
 }
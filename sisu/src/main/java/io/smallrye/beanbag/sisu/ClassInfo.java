@@ -0,0 +1,548 @@
+package io.smallrye.beanbag.sisu;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The SISU-relevant metadata of a class, read directly from its class file where possible so that the class
+ * (and the types of its members) need not be loaded in order to decide how it is to be injected.
+ */
+final class ClassInfo {
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_ENUM = 0x4000;
+
+    private static final List<Sisu.Annotations> NO_PARAMETERS = List.of();
+
+    private static final ClassValue<ClassInfo> CACHE = new ClassValue<ClassInfo>() {
+        protected ClassInfo computeValue(final Class<?> type) {
+            final ClassInfo info = read(type);
+            return info != null ? info : reflect(type);
+        }
+    };
+
+    private final String name;
+    private final int access;
+    private final String superName;
+    private final List<String> interfaceNames;
+    private final Sisu.Annotations annotations;
+    private final List<MemberInfo> constructors;
+    private final List<MemberInfo> fields;
+    private final List<MemberInfo> methods;
+
+    ClassInfo(final String name, final int access, final String superName, final List<String> interfaceNames,
+            final Sisu.Annotations annotations, final List<MemberInfo> constructors, final List<MemberInfo> fields,
+            final List<MemberInfo> methods) {
+        this.name = name;
+        this.access = access;
+        this.superName = superName;
+        this.interfaceNames = interfaceNames;
+        this.annotations = annotations;
+        this.constructors = constructors;
+        this.fields = fields;
+        this.methods = methods;
+    }
+
+    /**
+     * Get the information for a loaded class.
+     * The information is read from the class file if it can be found, or else from reflection.
+     *
+     * @param clazz the class (must not be {@code null})
+     * @return the class information (not {@code null})
+     */
+    static ClassInfo of(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    /**
+     * Read the information for a class which has not necessarily been loaded.
+     *
+     * @param classLoader the class loader to read the class file from (must not be {@code null})
+     * @param className the binary name of the class (must not be {@code null})
+     * @param sources the map in which to record the location of the class file, or {@code null} to not record it
+     * @return the class information, or {@code null} if the class file could not be found or read
+     */
+    static ClassInfo read(ClassLoader classLoader, String className, Map<String, URL> sources) {
+        final URL url = classLoader.getResource(className.replace('.', '/') + ".class");
+        if (url == null) {
+            return null;
+        }
+        if (sources != null) {
+            sources.put(className, url);
+        }
+        try (InputStream is = url.openStream()) {
+            final byte[] bytes = is.readAllBytes();
+            BeanLoadingTaskRunner.recordBytesRead(bytes.length);
+            return parse(new ByteArrayInputStream(bytes));
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ClassInfo read(Class<?> clazz) {
+        if (clazz.isHidden() || clazz.isArray() || clazz.isPrimitive()) {
+            return null;
+        }
+        final String name = clazz.getName();
+        // class files are never encapsulated
+        try (InputStream is = clazz.getResourceAsStream("/" + name.replace('.', '/') + ".class")) {
+            final ClassInfo info = is == null ? null : parse(is);
+            // guard against a stale or unrelated resource
+            return info != null && info.name.equals(name) ? info : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * {@return the binary name of the superclass, or {@code null} if there is none}
+     */
+    String getSuperName() {
+        return superName;
+    }
+
+    /**
+     * {@return the binary names of the interfaces directly implemented by the class}
+     */
+    List<String> getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    /**
+     * {@return {@code true} if the class could be a bean, i.e. it is a concrete, non-enum class}
+     */
+    boolean isConcrete() {
+        return (access & (ACC_INTERFACE | ACC_ABSTRACT | ACC_ANNOTATION | ACC_ENUM)) == 0;
+    }
+
+    Sisu.Annotations getAnnotations() {
+        return annotations;
+    }
+
+    List<MemberInfo> getConstructors() {
+        return constructors;
+    }
+
+    List<MemberInfo> getFields() {
+        return fields;
+    }
+
+    List<MemberInfo> getMethods() {
+        return methods;
+    }
+
+    /**
+     * Get the parameter types of the given method descriptor.
+     *
+     * @param descriptor the method descriptor (must not be {@code null})
+     * @param classLoader the class loader to load the parameter types from
+     * @return the parameter types (not {@code null})
+     * @throws ClassNotFoundException if a parameter type cannot be loaded
+     */
+    static Class<?>[] parameterTypes(String descriptor, ClassLoader classLoader) throws ClassNotFoundException {
+        final List<Class<?>> list = new ArrayList<>();
+        int i = 1;
+        while (descriptor.charAt(i) != ')') {
+            final int start = i;
+            while (descriptor.charAt(i) == '[') {
+                i++;
+            }
+            if (descriptor.charAt(i) == 'L') {
+                i = descriptor.indexOf(';', i);
+            }
+            i++;
+            list.add(typeOf(descriptor.substring(start, i), classLoader));
+        }
+        return list.toArray(Class<?>[]::new);
+    }
+
+    private static Class<?> typeOf(String descriptor, ClassLoader classLoader) throws ClassNotFoundException {
+        return switch (descriptor.charAt(0)) {
+            case 'Z' -> boolean.class;
+            case 'B' -> byte.class;
+            case 'C' -> char.class;
+            case 'S' -> short.class;
+            case 'I' -> int.class;
+            case 'J' -> long.class;
+            case 'F' -> float.class;
+            case 'D' -> double.class;
+            case 'L' -> Class.forName(descriptor.substring(1, descriptor.length() - 1).replace('/', '.'), false,
+                    classLoader);
+            // arrays
+            default -> Class.forName(descriptor.replace('/', '.'), false, classLoader);
+        };
+    }
+
+    /**
+     * Parse a class file.
+     *
+     * @param is the class file stream (must not be {@code null})
+     * @return the class information (not {@code null})
+     * @throws IOException if the class file could not be read or is malformed
+     */
+    static ClassInfo parse(InputStream is) throws IOException {
+        return new Parser(new DataInputStream(is)).parse();
+    }
+
+    private static ClassInfo reflect(Class<?> clazz) {
+        final List<MemberInfo> constructors = new ArrayList<>();
+        for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+            constructors.add(MemberInfo.reflect("<init>", constructor));
+        }
+        final List<MemberInfo> fields = new ArrayList<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            fields.add(new MemberInfo(field.getName(), descriptorOf(field.getType()), field.getModifiers(),
+                    Sisu.Annotations.of(field), NO_PARAMETERS));
+        }
+        final List<MemberInfo> methods = new ArrayList<>();
+        for (Method method : clazz.getDeclaredMethods()) {
+            methods.add(MemberInfo.reflect(method.getName(), method));
+        }
+        final Class<?> superclass = clazz.getSuperclass();
+        int access = clazz.getModifiers();
+        if (clazz.isEnum()) {
+            access |= ACC_ENUM;
+        }
+        final List<String> interfaceNames = new ArrayList<>();
+        for (Class<?> anInterface : clazz.getInterfaces()) {
+            interfaceNames.add(anInterface.getName());
+        }
+        return new ClassInfo(clazz.getName(), access, superclass == null ? null : superclass.getName(),
+                List.copyOf(interfaceNames), Sisu.Annotations.of(clazz), List.copyOf(constructors), List.copyOf(fields),
+                List.copyOf(methods));
+    }
+
+    private static String descriptorOf(Class<?> type) {
+        return type.descriptorString();
+    }
+
+    /**
+     * The information for a constructor, field, or method.
+     */
+    static final class MemberInfo {
+        private final String name;
+        private final String descriptor;
+        private final int access;
+        private final Sisu.Annotations annotations;
+        private final List<Sisu.Annotations> parameterAnnotations;
+
+        MemberInfo(final String name, final String descriptor, final int access, final Sisu.Annotations annotations,
+                final List<Sisu.Annotations> parameterAnnotations) {
+            this.name = name;
+            this.descriptor = descriptor;
+            this.access = access;
+            this.annotations = annotations;
+            this.parameterAnnotations = parameterAnnotations;
+        }
+
+        static MemberInfo reflect(String name, Executable executable) {
+            final StringBuilder b = new StringBuilder("(");
+            for (Class<?> parameterType : executable.getParameterTypes()) {
+                b.append(descriptorOf(parameterType));
+            }
+            b.append(')').append(executable instanceof Method m ? descriptorOf(m.getReturnType()) : "V");
+            final List<Sisu.Annotations> parameterAnnotations = new ArrayList<>();
+            for (Parameter parameter : executable.getParameters()) {
+                parameterAnnotations.add(Sisu.Annotations.of(parameter));
+            }
+            return new MemberInfo(name, b.toString(), executable.getModifiers(), Sisu.Annotations.of(executable),
+                    List.copyOf(parameterAnnotations));
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getDescriptor() {
+            return descriptor;
+        }
+
+        boolean isPublic() {
+            return (access & ACC_PUBLIC) != 0;
+        }
+
+        boolean isStatic() {
+            return (access & ACC_STATIC) != 0;
+        }
+
+        boolean isFinal() {
+            return (access & ACC_FINAL) != 0;
+        }
+
+        Sisu.Annotations getAnnotations() {
+            return annotations;
+        }
+
+        /**
+         * Get the annotations of the parameter with the given index.
+         *
+         * @param index the parameter index
+         * @return the parameter annotations (not {@code null})
+         */
+        Sisu.Annotations getParameterAnnotations(int index) {
+            return index < parameterAnnotations.size() ? parameterAnnotations.get(index) : Sisu.Annotations.NONE;
+        }
+    }
+
+    /**
+     * A minimal class file parser which extracts only what SISU needs.
+     */
+    static final class Parser {
+        private static final int CONSTANT_UTF8 = 1;
+        private static final int CONSTANT_INTEGER = 3;
+        private static final int CONSTANT_FLOAT = 4;
+        private static final int CONSTANT_LONG = 5;
+        private static final int CONSTANT_DOUBLE = 6;
+        private static final int CONSTANT_CLASS = 7;
+        private static final int CONSTANT_METHOD_HANDLE = 15;
+
+        private final DataInputStream is;
+        private Object[] constants;
+        private int[] classNameIndexes;
+
+        Parser(final DataInputStream is) {
+            this.is = is;
+        }
+
+        ClassInfo parse() throws IOException {
+            if (is.readInt() != 0xCAFEBABE) {
+                throw new IOException("Not a class file");
+            }
+            // minor, major
+            is.readUnsignedShort();
+            is.readUnsignedShort();
+            readConstantPool();
+            final int access = is.readUnsignedShort();
+            final String name = className(is.readUnsignedShort());
+            final int superIndex = is.readUnsignedShort();
+            final String superName = superIndex == 0 ? null : className(superIndex);
+            final String[] interfaceNames = new String[is.readUnsignedShort()];
+            for (int i = 0; i < interfaceNames.length; i++) {
+                interfaceNames[i] = className(is.readUnsignedShort());
+            }
+            final List<MemberInfo> fields = readMembers(false);
+            final List<MemberInfo> methods = new ArrayList<>();
+            final List<MemberInfo> constructors = new ArrayList<>();
+            for (MemberInfo method : readMembers(true)) {
+                if (method.getName().equals("<init>")) {
+                    constructors.add(method);
+                } else if (!method.getName().equals("<clinit>")) {
+                    methods.add(method);
+                }
+            }
+            final Sisu.Annotations.Collector collector = new Sisu.Annotations.Collector();
+            final int attributeCount = is.readUnsignedShort();
+            for (int i = 0; i < attributeCount; i++) {
+                readAttribute(collector, null);
+            }
+            return new ClassInfo(name, access, superName, List.of(interfaceNames), collector.build(), List.copyOf(constructors),
+                    List.copyOf(fields), List.copyOf(methods));
+        }
+
+        private void readConstantPool() throws IOException {
+            final int count = is.readUnsignedShort();
+            constants = new Object[count];
+            classNameIndexes = new int[count];
+            for (int i = 1; i < count; i++) {
+                final int tag = is.readUnsignedByte();
+                switch (tag) {
+                    case CONSTANT_UTF8 -> constants[i] = is.readUTF();
+                    case CONSTANT_INTEGER -> constants[i] = Integer.valueOf(is.readInt());
+                    case CONSTANT_FLOAT -> skip(4);
+                    case CONSTANT_LONG, CONSTANT_DOUBLE -> {
+                        skip(8);
+                        // takes two slots
+                        i++;
+                    }
+                    case CONSTANT_CLASS -> classNameIndexes[i] = is.readUnsignedShort();
+                    // String, MethodType, Module, Package
+                    case 8, 16, 19, 20 -> skip(2);
+                    // Fieldref, Methodref, InterfaceMethodref, NameAndType, Dynamic, InvokeDynamic
+                    case 9, 10, 11, 12, 17, 18 -> skip(4);
+                    case CONSTANT_METHOD_HANDLE -> skip(3);
+                    default -> throw new IOException("Unknown constant pool tag " + tag);
+                }
+            }
+        }
+
+        private List<MemberInfo> readMembers(boolean methods) throws IOException {
+            final int count = is.readUnsignedShort();
+            final List<MemberInfo> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final int access = is.readUnsignedShort();
+                final String name = utf8(is.readUnsignedShort());
+                final String descriptor = utf8(is.readUnsignedShort());
+                final Sisu.Annotations.Collector collector = new Sisu.Annotations.Collector();
+                final List<Sisu.Annotations.Collector> parameters = methods ? new ArrayList<>() : null;
+                final int attributeCount = is.readUnsignedShort();
+                for (int j = 0; j < attributeCount; j++) {
+                    readAttribute(collector, parameters);
+                }
+                List<Sisu.Annotations> parameterAnnotations = NO_PARAMETERS;
+                if (parameters != null && !parameters.isEmpty()) {
+                    final Sisu.Annotations[] array = new Sisu.Annotations[parameters.size()];
+                    for (int j = 0; j < array.length; j++) {
+                        array[j] = parameters.get(j).build();
+                    }
+                    parameterAnnotations = alignParameters(descriptor, Arrays.asList(array));
+                }
+                list.add(new MemberInfo(name, descriptor, access, collector.build(), parameterAnnotations));
+            }
+            return list;
+        }
+
+        private static List<Sisu.Annotations> alignParameters(String descriptor, List<Sisu.Annotations> list)
+                throws IOException {
+            int count = 0;
+            int i = 1;
+            while (descriptor.charAt(i) != ')') {
+                while (descriptor.charAt(i) == '[') {
+                    i++;
+                }
+                if (descriptor.charAt(i) == 'L') {
+                    i = descriptor.indexOf(';', i);
+                }
+                i++;
+                count++;
+            }
+            if (list.size() >= count) {
+                return List.copyOf(list);
+            }
+            // synthetic leading parameters (e.g. outer instances) carry no annotations
+            final List<Sisu.Annotations> aligned = new ArrayList<>(count);
+            for (int j = list.size(); j < count; j++) {
+                aligned.add(Sisu.Annotations.NONE);
+            }
+            aligned.addAll(list);
+            return List.copyOf(aligned);
+        }
+
+        private void readAttribute(Sisu.Annotations.Collector collector, List<Sisu.Annotations.Collector> parameters)
+                throws IOException {
+            final String name = utf8(is.readUnsignedShort());
+            final int length = is.readInt();
+            switch (name) {
+                case "RuntimeVisibleAnnotations" -> readAnnotations(collector);
+                case "RuntimeVisibleParameterAnnotations" -> {
+                    if (parameters == null) {
+                        skip(length);
+                    } else {
+                        final int count = is.readUnsignedByte();
+                        for (int i = 0; i < count; i++) {
+                            final Sisu.Annotations.Collector parameter = new Sisu.Annotations.Collector();
+                            readAnnotations(parameter);
+                            parameters.add(parameter);
+                        }
+                    }
+                }
+                default -> skip(length);
+            }
+        }
+
+        private void readAnnotations(Sisu.Annotations.Collector collector) throws IOException {
+            final int count = is.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                readAnnotation(collector);
+            }
+        }
+
+        private void readAnnotation(Sisu.Annotations.Collector collector) throws IOException {
+            final String descriptor = utf8(is.readUnsignedShort());
+            final String annotationName = collector == null || descriptor.length() < 3 ? ""
+                    : descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+            final int pairs = is.readUnsignedShort();
+            Object value = null;
+            for (int i = 0; i < pairs; i++) {
+                final String elementName = utf8(is.readUnsignedShort());
+                final Object elementValue = readElementValue();
+                if (elementName.equals("value")) {
+                    value = elementValue;
+                }
+            }
+            if (collector != null) {
+                collector.add(annotationName, value);
+            }
+        }
+
+        /**
+         * Read an element value.
+         *
+         * @return the value if it is a string, integer, class name, or array of class names, or {@code null} otherwise
+         */
+        private Object readElementValue() throws IOException {
+            final int tag = is.readUnsignedByte();
+            switch (tag) {
+                case 's' -> {
+                    return utf8(is.readUnsignedShort());
+                }
+                case 'I' -> {
+                    return constants[is.readUnsignedShort()];
+                }
+                case 'B', 'C', 'D', 'F', 'J', 'S', 'Z' -> {
+                    skip(2);
+                    return null;
+                }
+                case 'c' -> {
+                    final String descriptor = utf8(is.readUnsignedShort());
+                    return descriptor.startsWith("L")
+                            ? descriptor.substring(1, descriptor.length() - 1).replace('/', '.')
+                            : descriptor.replace('/', '.');
+                }
+                case 'e' -> {
+                    skip(4);
+                    return null;
+                }
+                case '@' -> {
+                    readAnnotation(null);
+                    return null;
+                }
+                case '[' -> {
+                    final int count = is.readUnsignedShort();
+                    final List<String> names = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        if (readElementValue() instanceof String s) {
+                            names.add(s);
+                        }
+                    }
+                    return List.copyOf(names);
+                }
+                default -> throw new IOException("Unknown element value tag " + tag);
+            }
+        }
+
+        private String utf8(int index) throws IOException {
+            if (constants[index] instanceof String s) {
+                return s;
+            }
+            throw new IOException("Invalid constant pool reference " + index);
+        }
+
+        private String className(int index) throws IOException {
+            return utf8(classNameIndexes[index]).replace('/', '.');
+        }
+
+        private void skip(int count) throws IOException {
+            is.skipNBytes(count);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package io.smallrye.beanbag.sisu;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A compiled SISU string expression such as {@code ${key:-default}}, made of literal text and property references
+ * whose keys and default values may themselves be expressions.
+ * Expressions are compiled once and may be evaluated any number of times against different properties.
+ */
+final class ExpressionTemplate {
+    private static final int MAX_RECURSION = 10;
+
+    /**
+     * The value of the template if it has no property references, or {@code null} if it has some
+     */
+    private final String literal;
+    private final Part[] parts;
+
+    private ExpressionTemplate(final List<Part> parts) {
+        if (parts.isEmpty()) {
+            literal = "";
+        } else if (parts.size() == 1 && parts.get(0) instanceof Literal l) {
+            literal = l.text;
+        } else {
+            literal = null;
+        }
+        this.parts = parts.toArray(Part[]::new);
+    }
+
+    /**
+     * Compile the given expression string.
+     * A malformed expression compiles to a template whose evaluation always fails.
+     *
+     * @param expression the expression string (must not be {@code null})
+     * @return the compiled template (not {@code null})
+     */
+    static ExpressionTemplate compile(String expression) {
+        try {
+            return parse(new StringItr(expression), 0, false);
+        } catch (IllegalStateException e) {
+            return new ExpressionTemplate(List.of(new Failure(e.getMessage())));
+        }
+    }
+
+    /**
+     * Evaluate this template.
+     *
+     * @param properties the properties to resolve keys against, or {@code null} if there are none
+     * @return the expanded string (not {@code null})
+     */
+    String evaluate(Properties properties) {
+        final String literal = this.literal;
+        if (literal != null) {
+            return literal;
+        }
+        final StringBuilder b = new StringBuilder();
+        appendTo(b, properties);
+        return b.toString();
+    }
+
+    private void appendTo(StringBuilder b, Properties properties) {
+        for (Part part : parts) {
+            part.appendTo(b, properties);
+        }
+    }
+
+    private static ExpressionTemplate parse(StringItr itr, int recursion, boolean stopOnDefault) {
+        if (recursion > MAX_RECURSION) {
+            throw new IllegalStateException("Deep recursion");
+        }
+        final List<Part> parts = new ArrayList<>();
+        final StringBuilder b = new StringBuilder();
+        while (itr.hasNext()) {
+            if (recursion > 0 && (itr.nextMatches("}") || stopOnDefault && itr.nextMatches(":-"))) {
+                // end
+                break;
+            } else if (itr.match("${")) {
+                if (!b.isEmpty()) {
+                    parts.add(new Literal(b.toString()));
+                    b.setLength(0);
+                }
+                parts.add(parseReference(itr, recursion + 1));
+            } else {
+                // plain text
+                b.append(itr.next());
+            }
+        }
+        if (!b.isEmpty()) {
+            parts.add(new Literal(b.toString()));
+        }
+        return new ExpressionTemplate(parts);
+    }
+
+    private static Part parseReference(StringItr itr, int recursion) {
+        final ExpressionTemplate key = parse(itr, recursion, true);
+        if (itr.match("}") || !itr.hasNext()) {
+            return new Reference(key, null);
+        } else if (itr.match(":-")) {
+            final ExpressionTemplate defaultValue = parse(itr, recursion, false);
+            // consume end of expr
+            itr.match("}");
+            return new Reference(key, defaultValue);
+        } else {
+            // ???
+            throw new IllegalStateException();
+        }
+    }
+
+    private interface Part {
+        void appendTo(StringBuilder b, Properties properties);
+    }
+
+    private static final class Literal implements Part {
+        private final String text;
+
+        Literal(final String text) {
+            this.text = text;
+        }
+
+        public void appendTo(final StringBuilder b, final Properties properties) {
+            b.append(text);
+        }
+    }
+
+    private static final class Reference implements Part {
+        private final ExpressionTemplate key;
+        private final ExpressionTemplate defaultValue;
+
+        Reference(final ExpressionTemplate key, final ExpressionTemplate defaultValue) {
+            this.key = key;
+            this.defaultValue = defaultValue;
+        }
+
+        public void appendTo(final StringBuilder b, final Properties properties) {
+            final String value = properties == null ? null : properties.getProperty(key.evaluate(properties));
+            if (value != null) {
+                b.append(value);
+            } else if (defaultValue != null) {
+                defaultValue.appendTo(b, properties);
+            }
+        }
+    }
+
+    private static final class Failure implements Part {
+        private final String message;
+
+        Failure(final String message) {
+            this.message = message;
+        }
+
+        public void appendTo(final StringBuilder b, final Properties properties) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private static final class StringItr {
+        final String s;
+        int pos;
+        final int end;
+
+        StringItr(String s) {
+            this.s = s;
+            this.pos = 0;
+            this.end = s.length();
+        }
+
+        boolean hasNext() {
+            return pos < end;
+        }
+
+        char next() {
+            return s.charAt(pos++);
+        }
+
+        boolean nextMatches(String cmp) {
+            int cmpLen = cmp.length();
+            return pos + cmpLen <= end && s.regionMatches(pos, cmp, 0, cmpLen);
+        }
+
+        boolean match(String cmp) {
+            boolean b = nextMatches(cmp);
+            if (b) {
+                pos += cmp.length();
+            }
+            return b;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package io.smallrye.beanbag.sisu;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The injection points declared by a single class, resolved through reflection and made accessible.
+ * The information does not depend on the container being built, so it is computed once per class and shared by all
+ * containers; the suppliers for the injection points are created by each container.
+ */
+final class InjectionInfo {
+    private static final ClassValue<InjectionInfo> CACHE = new ClassValue<InjectionInfo>() {
+        protected InjectionInfo computeValue(final Class<?> type) {
+            return new InjectionInfo(type, ClassInfo.of(type));
+        }
+    };
+
+    private final Class<?> clazz;
+    private final ClassInfo classInfo;
+    private final List<FieldInjection> fields;
+    private final List<MethodInjection> methods;
+    private volatile ConstructorInjection constructor;
+
+    private InjectionInfo(final Class<?> clazz, final ClassInfo classInfo) {
+        this.clazz = clazz;
+        this.classInfo = classInfo;
+        final boolean open = Sisu.isOpen(clazz);
+        final boolean publicClass = Modifier.isPublic(clazz.getModifiers());
+        fields = findFields(clazz, classInfo, open, publicClass);
+        methods = findMethods(clazz, classInfo, open, publicClass);
+    }
+
+    /**
+     * Get the injection information for a class.
+     *
+     * @param clazz the class (must not be {@code null})
+     * @return the injection information (not {@code null})
+     */
+    static InjectionInfo of(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    /**
+     * {@return the accessible injectable fields declared by the class}
+     */
+    List<FieldInjection> getFields() {
+        return fields;
+    }
+
+    /**
+     * {@return the accessible injectable methods declared by the class}
+     */
+    List<MethodInjection> getMethods() {
+        return methods;
+    }
+
+    /**
+     * Get the constructor to use for the class: the {@code @Inject} constructor if there is one, or else
+     * the no-argument constructor.
+     *
+     * @return the constructor (not {@code null})
+     * @throws RuntimeException if there is no valid constructor
+     */
+    ConstructorInjection getConstructor() {
+        ConstructorInjection constructor = this.constructor;
+        if (constructor == null) {
+            // benign race
+            this.constructor = constructor = findConstructor();
+        }
+        if (constructor.problem != null) {
+            throw new RuntimeException(constructor.problem, constructor.cause);
+        }
+        return constructor;
+    }
+
+    private static List<FieldInjection> findFields(Class<?> clazz, ClassInfo classInfo, boolean open,
+            boolean publicClass) {
+        final List<FieldInjection> fields = new ArrayList<>();
+        for (ClassInfo.MemberInfo fieldInfo : classInfo.getFields()) {
+            if (fieldInfo.isStatic() || fieldInfo.isFinal()) {
+                continue;
+            }
+            final Sisu.Annotations fieldAnnotations = fieldInfo.getAnnotations();
+            if (!fieldAnnotations.isInject()) {
+                continue;
+            }
+            // only reflect on the fields which are actually injected
+            final Field field;
+            try {
+                field = clazz.getDeclaredField(fieldInfo.getName());
+            } catch (NoSuchFieldException e) {
+                continue;
+            }
+            if (!(publicClass && Modifier.isPublic(field.getModifiers()) || open && field.trySetAccessible())) {
+                continue;
+            }
+            fields.add(new FieldInjection(field, nameOf(fieldAnnotations), fieldAnnotations.isNullable()));
+        }
+        return List.copyOf(fields);
+    }
+
+    private static List<MethodInjection> findMethods(Class<?> clazz, ClassInfo classInfo, boolean open,
+            boolean publicClass) {
+        final List<MethodInjection> methods = new ArrayList<>();
+        for (ClassInfo.MemberInfo methodInfo : classInfo.getMethods()) {
+            if (methodInfo.isStatic()) {
+                continue;
+            }
+            final Sisu.Annotations methodAnnotations = methodInfo.getAnnotations();
+            if (!methodAnnotations.isInject()) {
+                continue;
+            }
+            // only reflect on the methods which are actually injected
+            final Method method;
+            try {
+                method = clazz.getDeclaredMethod(methodInfo.getName(),
+                        ClassInfo.parameterTypes(methodInfo.getDescriptor(), clazz.getClassLoader()));
+            } catch (NoSuchMethodException | ClassNotFoundException e) {
+                continue;
+            }
+            if (method.getParameterCount() != 1) {
+                continue;
+            }
+            if (!(publicClass && Modifier.isPublic(method.getModifiers()) || open && method.trySetAccessible())) {
+                continue;
+            }
+            methods.add(new MethodInjection(method, nameOf(methodAnnotations),
+                    methodInfo.getParameterAnnotations(0).isNullable()));
+        }
+        return List.copyOf(methods);
+    }
+
+    private ConstructorInjection findConstructor() {
+        final boolean open = Sisu.isOpen(clazz);
+        final boolean publicClass = Modifier.isPublic(clazz.getModifiers());
+        ClassInfo.MemberInfo ctorInfo = null;
+        ClassInfo.MemberInfo defaultConstructor = null;
+        for (ClassInfo.MemberInfo info : classInfo.getConstructors()) {
+            if (info.getAnnotations().isInject() && (publicClass && info.isPublic() || open)) {
+                ctorInfo = info;
+                break;
+            } else if (info.getDescriptor().equals("()V")) {
+                defaultConstructor = info;
+            }
+        }
+        if (ctorInfo == null && defaultConstructor != null && (publicClass && defaultConstructor.isPublic() || open)) {
+            ctorInfo = defaultConstructor;
+        }
+        if (ctorInfo == null) {
+            return new ConstructorInjection("No valid constructor found on " + clazz, null);
+        }
+        final Constructor<?> ctor;
+        try {
+            ctor = clazz.getDeclaredConstructor(ClassInfo.parameterTypes(ctorInfo.getDescriptor(), clazz.getClassLoader()));
+        } catch (Throwable t) {
+            return new ConstructorInjection("Cannot get declared constructor from " + clazz, t);
+        }
+        if (!(publicClass && Modifier.isPublic(ctor.getModifiers()) || open && ctor.trySetAccessible())) {
+            return new ConstructorInjection("No valid constructor found on " + clazz, null);
+        }
+        return new ConstructorInjection(ctor, ctorInfo);
+    }
+
+    private static String nameOf(Sisu.Annotations annotations) {
+        final String named = annotations.getNamed();
+        return named == null ? "" : named;
+    }
+
+    /**
+     * An injectable field.
+     */
+    static final class FieldInjection {
+        private final Field field;
+        private final String name;
+        private final boolean optional;
+
+        FieldInjection(final Field field, final String name, final boolean optional) {
+            this.field = field;
+            this.name = name;
+            this.optional = optional;
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        boolean isOptional() {
+            return optional;
+        }
+    }
+
+    /**
+     * An injectable single-argument method.
+     */
+    static final class MethodInjection {
+        private final Method method;
+        private final String name;
+        private final boolean optional;
+
+        MethodInjection(final Method method, final String name, final boolean optional) {
+            this.method = method;
+            this.name = name;
+            this.optional = optional;
+        }
+
+        Method getMethod() {
+            return method;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        boolean isOptional() {
+            return optional;
+        }
+    }
+
+    /**
+     * The injectable constructor of a class, or the reason why there is none.
+     */
+    static final class ConstructorInjection {
+        private final Constructor<?> constructor;
+        private final ClassInfo.MemberInfo info;
+        private final String problem;
+        private final Throwable cause;
+
+        ConstructorInjection(final Constructor<?> constructor, final ClassInfo.MemberInfo info) {
+            this.constructor = constructor;
+            this.info = info;
+            this.problem = null;
+            this.cause = null;
+        }
+
+        ConstructorInjection(final String problem, final Throwable cause) {
+            this.constructor = null;
+            this.info = null;
+            this.problem = problem;
+            this.cause = cause;
+        }
+
+        Constructor<?> getConstructor() {
+            return constructor;
+        }
+
+        Sisu.Annotations getParameterAnnotations(int index) {
+            return info.getParameterAnnotations(index);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.smallrye.beanbag.sisu;
+
+import java.util.AbstractSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable set view of the distinct elements of a list, which accesses the list only as far as needed.
+ * This keeps the elements of a lazily instantiated list of beans uninstantiated until the set is used.
+ */
+final class LazySet<T> extends AbstractSet<T> {
+    private final List<T> list;
+
+    LazySet(final List<T> list) {
+        this.list = list;
+    }
+
+    public boolean contains(final Object o) {
+        return list.contains(o);
+    }
+
+    public boolean isEmpty() {
+        return list.isEmpty();
+    }
+
+    public int size() {
+        return list.size() <= 1 ? list.size() : new HashSet<>(list).size();
+    }
+
+    public Iterator<T> iterator() {
+        final Iterator<T> iterator = list.iterator();
+        return new Iterator<T>() {
+            private final Set<T> seen = new HashSet<>();
+            private T next;
+
+            public boolean hasNext() {
+                while (next == null && iterator.hasNext()) {
+                    final T item = iterator.next();
+                    if (seen.add(item)) {
+                        next = item;
+                    }
+                }
+                return next != null;
+            }
+
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final T item = next;
+                next = null;
+                return item;
+            }
+        };
+    }
+}
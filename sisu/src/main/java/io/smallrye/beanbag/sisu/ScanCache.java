@@ -0,0 +1,389 @@
+package io.smallrye.beanbag.sisu;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+import org.jboss.logging.Logger;
+
+/**
+ * An on-disk cache of the scanned content of SISU metadata resources.
+ * <p>
+ * Each cached resource is stored in its own file in a compact binary format.
+ * A cache file is only used if the path, size and modification time of the JAR containing the resource, as well as
+ * the length and checksum of the resource content, are unchanged; otherwise the resource is scanned again and the
+ * cache file is replaced.
+ * The scanned content of a resource may also depend on class files in other JARs, such as those of the supertypes of
+ * the beans it names; the path, size and modification time of each such JAR are checked as well, and each class file
+ * from another JAR must still be found in the same JAR.
+ * Only resources and class files contained in JAR files are cached, because the classes in a directory may change
+ * without the metadata resource changing.
+ */
+final class ScanCache {
+    private static final Logger log = Logger.getLogger(ScanCache.class);
+
+    private static final int MAGIC = 0x53495355;
+    private static final int VERSION = 2;
+    private static final String RUNTIME_VERSION = Runtime.version().toString();
+
+    private final Path directory;
+
+    ScanCache(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Load the cached scanned content of the given resource.
+     *
+     * @param url the resource URL (must not be {@code null})
+     * @param content the current resource content (must not be {@code null})
+     * @param format the format of the scanned content (must not be {@code null})
+     * @param classLoader the class loader which the class files of the scanned content were read from (must not be
+     *        {@code null})
+     * @return the cached scanned content, or {@code null} if there is none or if it is out of date
+     * @param <T> the scanned item type
+     */
+    <T> List<T> load(URL url, byte[] content, Format<T> format, ClassLoader classLoader) {
+        final Key key = getKey(url, content, format);
+        return key == null ? null : read(key, format, classLoader);
+    }
+
+    /**
+     * Store the scanned content of the given resource, if it can be cached.
+     *
+     * @param url the resource URL (must not be {@code null})
+     * @param content the resource content that was scanned (must not be {@code null})
+     * @param format the format of the scanned content (must not be {@code null})
+     * @param items the scanned content (must not be {@code null})
+     * @param sources the location of each class file which was read in order to scan the content (must not be
+     *        {@code null})
+     * @param <T> the scanned item type
+     */
+    <T> void store(URL url, byte[] content, Format<T> format, List<T> items, Map<String, URL> sources) {
+        final Key key = getKey(url, content, format);
+        if (key == null) {
+            return;
+        }
+        final List<Jar> jars = new ArrayList<>();
+        final Map<Path, Integer> jarIndexes = new HashMap<>();
+        final Map<String, Integer> classes = new TreeMap<>();
+        for (Map.Entry<String, URL> entry : sources.entrySet()) {
+            final Path jarPath = getJarPath(entry.getValue());
+            if (jarPath == null) {
+                // a class file outside of a JAR may change at any time
+                return;
+            }
+            if (jarPath.equals(key.jar.path)) {
+                // covered by the key
+                continue;
+            }
+            Integer index = jarIndexes.get(jarPath);
+            if (index == null) {
+                final Jar jar = Jar.of(jarPath);
+                if (jar == null) {
+                    return;
+                }
+                index = Integer.valueOf(jars.size());
+                jars.add(jar);
+                jarIndexes.put(jarPath, index);
+            }
+            classes.put(entry.getKey(), index);
+        }
+        write(key, format, items, jars, classes);
+    }
+
+    private Key getKey(URL url, byte[] content, Format<?> format) {
+        final Path jarPath = getJarPath(url);
+        if (jarPath == null) {
+            return null;
+        }
+        final Jar jar = Jar.of(jarPath);
+        if (jar == null) {
+            return null;
+        }
+        final CRC32C crc = new CRC32C();
+        crc.update(content);
+        final String name = format.getName() + ":" + url.toExternalForm();
+        final Path cacheFile = directory.resolve(jarPath.getFileName() + "-" + Integer.toHexString(name.hashCode())
+                + "." + format.getName());
+        return new Key(cacheFile, name, jar, content.length, crc.getValue());
+    }
+
+    private static Path getJarPath(URL url) {
+        if (url.getProtocol().equals("jar")) {
+            final String spec = url.getPath();
+            final int idx = spec.indexOf("!/");
+            final URL jarFileURL;
+            try {
+                jarFileURL = new URL(idx == -1 ? spec : spec.substring(0, idx));
+            } catch (MalformedURLException e) {
+                return null;
+            }
+            if (jarFileURL.getProtocol().equals("file")) {
+                try {
+                    return Path.of(jarFileURL.toURI());
+                } catch (URISyntaxException | IllegalArgumentException ignored) {
+                    // not cacheable
+                }
+            }
+        }
+        return null;
+    }
+
+    private <T> List<T> read(Key key, Format<T> format, ClassLoader classLoader) {
+        final Path cacheFile = key.cacheFile;
+        try {
+            // read rather than map the file, so that it is never held open while it is being replaced
+            final byte[] bytes = Files.readAllBytes(cacheFile);
+            BeanLoadingTaskRunner.recordBytesRead(bytes.length);
+            final Input input = new Input(ByteBuffer.wrap(bytes));
+            if (input.readInt() != MAGIC || input.readInt() != VERSION || !key.name.equals(input.readString())
+                    || !RUNTIME_VERSION.equals(input.readString()) || !key.jar.equals(Jar.read(input))
+                    || input.readInt() != key.length || input.readLong() != key.checksum) {
+                return null;
+            }
+            final int jarCount = input.readInt();
+            final List<Jar> jars = new ArrayList<>(Math.min(jarCount, 16));
+            for (int i = 0; i < jarCount; i++) {
+                final Jar jar = Jar.read(input);
+                if (!jar.equals(Jar.of(jar.path))) {
+                    return null;
+                }
+                jars.add(jar);
+            }
+            final int classCount = input.readInt();
+            for (int i = 0; i < classCount; i++) {
+                final String className = input.readString();
+                final Path expected = jars.get(input.readInt()).path;
+                // the class file must not have moved to (or be shadowed by) another JAR
+                final URL classUrl = classLoader.getResource(className.replace('.', '/') + ".class");
+                if (classUrl == null || !expected.equals(getJarPath(classUrl))) {
+                    return null;
+                }
+            }
+            final int count = input.readInt();
+            final List<T> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                list.add(format.read(input));
+            }
+            return List.copyOf(list);
+        } catch (NoSuchFileException ignored) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.debugf(e, "Ignoring unreadable scan cache file %s", cacheFile);
+            return null;
+        }
+    }
+
+    private <T> void write(Key key, Format<T> format, List<T> items, List<Jar> jars, Map<String, Integer> classes) {
+        final Path cacheFile = key.cacheFile;
+        try {
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try (DataOutputStream os = new DataOutputStream(bos)) {
+                os.writeInt(MAGIC);
+                os.writeInt(VERSION);
+                writeString(os, key.name);
+                writeString(os, RUNTIME_VERSION);
+                key.jar.write(os);
+                os.writeInt(key.length);
+                os.writeLong(key.checksum);
+                os.writeInt(jars.size());
+                for (Jar jar : jars) {
+                    jar.write(os);
+                }
+                os.writeInt(classes.size());
+                for (Map.Entry<String, Integer> entry : classes.entrySet()) {
+                    writeString(os, entry.getKey());
+                    os.writeInt(entry.getValue().intValue());
+                }
+                os.writeInt(items.size());
+                for (T item : items) {
+                    format.write(item, os);
+                }
+            }
+            Files.createDirectories(directory);
+            // other processes may be reading the old file
+            final Path tempFile = Files.createTempFile(directory, cacheFile.getFileName().toString(), ".tmp");
+            try {
+                Files.write(tempFile, bos.toByteArray());
+                Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            log.debugf(e, "Failed to write scan cache file %s", cacheFile);
+        }
+    }
+
+    static void writeString(DataOutputStream os, String string) throws IOException {
+        if (string == null) {
+            os.writeInt(-1);
+        } else {
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            os.writeInt(bytes.length);
+            os.write(bytes);
+        }
+    }
+
+    static void writeStrings(DataOutputStream os, List<String> strings) throws IOException {
+        if (strings == null) {
+            os.writeInt(-1);
+        } else {
+            os.writeInt(strings.size());
+            for (String string : strings) {
+                writeString(os, string);
+            }
+        }
+    }
+
+    /**
+     * The identity of a cached resource.
+     */
+    private static final class Key {
+        private final Path cacheFile;
+        private final String name;
+        private final Jar jar;
+        private final int length;
+        private final long checksum;
+
+        Key(final Path cacheFile, final String name, final Jar jar, final int length, final long checksum) {
+            this.cacheFile = cacheFile;
+            this.name = name;
+            this.jar = jar;
+            this.length = length;
+            this.checksum = checksum;
+        }
+    }
+
+    /**
+     * The identity of a JAR file which scanned content was read from.
+     */
+    private static final class Jar {
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+
+        Jar(final Path path, final long size, final long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * {@return the current identity of the JAR file at the given path, or {@code null} if it cannot be read}
+         */
+        static Jar of(Path path) {
+            final BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (IOException e) {
+                return null;
+            }
+            return new Jar(path, attributes.size(), attributes.lastModifiedTime().toMillis());
+        }
+
+        static Jar read(Input input) {
+            return new Jar(Path.of(input.readString()), input.readLong(), input.readLong());
+        }
+
+        void write(DataOutputStream os) throws IOException {
+            writeString(os, path.toString());
+            os.writeLong(size);
+            os.writeLong(lastModified);
+        }
+
+        public boolean equals(final Object obj) {
+            return obj instanceof Jar jar && path.equals(jar.path) && size == jar.size && lastModified == jar.lastModified;
+        }
+
+        public int hashCode() {
+            return path.hashCode();
+        }
+    }
+
+    /**
+     * A reader for the content of a cache file.
+     */
+    static final class Input {
+        private final ByteBuffer buffer;
+
+        Input(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int readInt() {
+            return buffer.getInt();
+        }
+
+        long readLong() {
+            return buffer.getLong();
+        }
+
+        int readByte() {
+            return buffer.get() & 0xff;
+        }
+
+        boolean readBoolean() {
+            return buffer.get() != 0;
+        }
+
+        String readString() {
+            final int length = buffer.getInt();
+            if (length == -1) {
+                return null;
+            }
+            if (length < 0 || length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            final byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        List<String> readStrings() {
+            final int count = buffer.getInt();
+            if (count == -1) {
+                return null;
+            }
+            final List<String> list = new ArrayList<>(Math.min(count, 16));
+            for (int i = 0; i < count; i++) {
+                list.add(readString());
+            }
+            return List.copyOf(list);
+        }
+    }
+
+    /**
+     * The binary format of a scanned item.
+     *
+     * @param <T> the item type
+     */
+    interface Format<T> {
+        /**
+         * {@return the name of the format, which distinguishes cache files of different formats}
+         */
+        String getName();
+
+        void write(T item, DataOutputStream os) throws IOException;
+
+        T read(Input input);
+    }
+
+}
@@ -1,37 +1,51 @@
 package io.smallrye.beanbag.sisu;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.lang.reflect.WildcardType;
 import java.net.URL;
-import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import javax.inject.Provider;
@@ -42,14 +56,26 @@ import javax.xml.stream.XMLStreamReader;
 import io.smallrye.beanbag.BeanBag;
 import io.smallrye.beanbag.BeanSupplier;
 import io.smallrye.beanbag.DependencyFilter;
+import io.smallrye.beanbag.LazyBeanInitializer;
+import io.smallrye.beanbag.Scope;
 import io.smallrye.common.constraint.Assert;
 
 /**
  * A utility which can configure a {@link BeanBag} using Eclipse SISU resources and annotations.
  */
 public final class Sisu {
-    private final Map<Class<?>, Class<?>> visited = new ConcurrentHashMap<>();
+    private static final String PROVIDER = Provider.class.getName();
+
+    /**
+     * The names of the classes which were added so far, by defining class loader.
+     */
+    private final Map<ClassLoader, Set<String>> visited = new ConcurrentHashMap<>();
     private final BeanBag.Builder builder;
+    private final Collection<ScanMetric> scanMetrics = new ConcurrentLinkedDeque<>();
+    private ScanCache scanCache;
+    private ScanConcurrency concurrency = ScanConcurrency.COMMON_POOL;
+    private Executor executor;
+    private boolean lazyCollections;
 
     /**
      * Reads metadata from a {@link URL} and loads beans
@@ -68,6 +94,66 @@ public final class Sisu {
         this.builder = builder;
     }
 
+    /**
+     * Set the directory in which the scanned content of SISU metadata resources is cached between runs.
+     * Metadata in a JAR file which is unchanged since it was cached is not parsed again, and the class files of the
+     * beans it names are not read again, as long as the JAR files of the supertypes of those beans are unchanged too.
+     * The directory is created if it does not exist.
+     *
+     * @param cacheDirectory the cache directory, or {@code null} to disable caching
+     * @return this configurator (not {@code null})
+     */
+    public Sisu setCacheDirectory(Path cacheDirectory) {
+        scanCache = cacheDirectory == null ? null : new ScanCache(cacheDirectory);
+        return this;
+    }
+
+    /**
+     * Set the concurrency policy used to scan class loaders.
+     * The default policy is {@link ScanConcurrency#COMMON_POOL}.
+     * The policy has no effect if an {@linkplain #setExecutor(Executor) executor} is set.
+     *
+     * @param concurrency the concurrency policy (must not be {@code null})
+     * @return this configurator (not {@code null})
+     */
+    public Sisu setConcurrency(ScanConcurrency concurrency) {
+        Assert.checkNotNullParam("concurrency", concurrency);
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Set whether {@code List}, {@code Collection}, {@code Set} and {@code Map<String, T>} injection points
+     * receive lazily instantiated views instead of fully instantiated collections.
+     * By default, every bean of such a collection is instantiated when the collection is injected.
+     * <p>
+     * A lazy view instantiates each bean on first access, which avoids instantiating beans that are never used.
+     * However, a bean which fails to instantiate is only reported when the view reaches it, the injected view keeps
+     * the scope it was resolved from reachable, and the size of a lazy {@code List} or {@code Set} can only be
+     * determined by instantiating all of its beans.
+     * This setting applies to beans which are introspected after it is changed.
+     *
+     * @param lazyCollections {@code true} to inject lazy views, or {@code false} to inject instantiated collections
+     * @return this configurator (not {@code null})
+     */
+    public Sisu setLazyCollections(boolean lazyCollections) {
+        this.lazyCollections = lazyCollections;
+        return this;
+    }
+
+    /**
+     * Set the executor used to scan class loaders, overriding the {@linkplain #setConcurrency(ScanConcurrency)
+     * concurrency policy}.
+     * Each metadata resource is scanned in a separate task; the executor is not shut down by this configurator.
+     *
+     * @param executor the executor, or {@code null} to use the concurrency policy
+     * @return this configurator (not {@code null})
+     */
+    public Sisu setExecutor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
     /**
      * Scan the given class loader for additional SISU items.
      *
@@ -78,14 +164,45 @@ public final class Sisu {
         Assert.checkNotNullParam("classLoader", classLoader);
         Assert.checkNotNullParam("filter", filter);
 
-        final BeanLoadingTaskRunner taskRunner = new BeanLoadingTaskRunner();
+        Executor executor = this.executor;
+        final ExecutorService ownExecutor = executor == null ? concurrency.createExecutor() : null;
+        if (executor == null) {
+            executor = ownExecutor == null ? concurrency.getSharedExecutor() : ownExecutor;
+        }
+        try {
+            final BeanLoadingTaskRunner taskRunner = new BeanLoadingTaskRunner(executor, scanMetrics);
+
+            loadBeans(classLoader, "META-INF/sisu/javax.inject.Named", url -> addNamed(classLoader, filter, url, taskRunner),
+                    taskRunner);
+            // these are deprecated but still used in Maven < 4.x
+            loadBeans(classLoader, "META-INF/plexus/components.xml",
+                    url -> addPlexusComponents(classLoader, filter, url, taskRunner),
+                    taskRunner);
+
+            taskRunner.waitForCompletion();
+        } finally {
+            if (ownExecutor != null) {
+                ownExecutor.shutdown();
+            }
+        }
+    }
 
-        loadBeans(classLoader, "META-INF/sisu/javax.inject.Named", url -> addNamed(classLoader, filter, url), taskRunner);
-        // these are deprecated but still used in Maven < 4.x
-        loadBeans(classLoader, "META-INF/plexus/components.xml", url -> addPlexusComponents(classLoader, filter, url),
-                taskRunner);
+    /**
+     * Get the metrics of each metadata resource scanned by this configurator so far, in order of completion.
+     *
+     * @return the scan metrics (not {@code null})
+     */
+    public List<ScanMetric> getScanMetrics() {
+        return List.copyOf(scanMetrics);
+    }
 
-        taskRunner.waitForCompletion();
+    private static byte[] readResource(URL url) throws IOException {
+        final byte[] content;
+        try (InputStream is = url.openConnection().getInputStream()) {
+            content = is.readAllBytes();
+        }
+        BeanLoadingTaskRunner.recordBytesRead(content.length);
+        return content;
     }
 
     /**
@@ -101,84 +218,277 @@ public final class Sisu {
             final Enumeration<URL> e = classLoader.getResources(resource);
             while (e.hasMoreElements()) {
                 final URL url = e.nextElement();
-                taskRunner.run(() -> beanLoader.loadBeans(url));
+                taskRunner.run(url, () -> beanLoader.loadBeans(url));
             }
         });
     }
 
     /**
      * Creates beans from Plexus component metadata.
+     * The classes named by the components are resolved in one stage and the components are introspected in another,
+     * both in parallel batches; the beans are then registered in the order of the metadata.
      *
      * @param classLoader classloader bean classes should be loaded from
      * @param filter bean dependency filter
      * @param url Plexus component metadata URL
+     * @param taskRunner the task runner to run the stages with
      * @throws IOException in case of a failure
      */
-    private void addPlexusComponents(ClassLoader classLoader, DependencyFilter filter, URL url) throws IOException {
-        final URLConnection conn = url.openConnection();
-        final Map<Class<?>, Component<?>> map = new HashMap<>();
-        try (InputStream is = conn.getInputStream()) {
-            try (InputStreamReader isr = new InputStreamReader(is, StandardCharsets.UTF_8)) {
-                try (BufferedReader br = new BufferedReader(isr)) {
-                    XMLStreamReader xr = XMLInputFactory.newDefaultFactory().createXMLStreamReader(br);
-                    try (XMLCloser ignored = xr::close) {
-                        while (xr.hasNext()) {
-                            if (xr.next() == XMLStreamReader.START_ELEMENT) {
-                                if (xr.getLocalName().equals("component-set")) {
-                                    parseComponentSet(xr, map, classLoader, filter);
-                                } else {
-                                    consume(xr);
-                                }
+    private void addPlexusComponents(ClassLoader classLoader, DependencyFilter filter, URL url,
+            BeanLoadingTaskRunner taskRunner) throws IOException {
+        final ScanCache scanCache = this.scanCache;
+        final byte[] content = readResource(url);
+        final List<ComponentDescriptor> cached = scanCache == null ? null
+                : scanCache.load(url, content, ComponentDescriptor.FORMAT, classLoader);
+        final List<ComponentDescriptor> descriptors;
+        if (cached == null) {
+            descriptors = parsePlexusComponents(new ByteArrayInputStream(content));
+            if (scanCache != null) {
+                scanCache.store(url, content, ComponentDescriptor.FORMAT, descriptors, Map.of());
+            }
+        } else {
+            descriptors = cached;
+        }
+        final Set<String> classNames = new LinkedHashSet<>();
+        for (ComponentDescriptor descriptor : descriptors) {
+            if (descriptor.implementation != null && !builder.isTypeFilteredOut(descriptor.implementation)) {
+                classNames.add(descriptor.implementation);
+            }
+            if (descriptor.role != null && !builder.isTypeFilteredOut(descriptor.role)) {
+                classNames.add(descriptor.role);
+            }
+        }
+        final List<String> classNameList = List.copyOf(classNames);
+        taskRunner.runStage(classNameList, className -> loadClass(classLoader, className), classes -> {
+            final Map<String, Class<?>> resolved = new HashMap<>();
+            for (int i = 0; i < classNameList.size(); i++) {
+                final Class<?> clazz = classes.get(i);
+                if (clazz != null) {
+                    resolved.put(classNameList.get(i), clazz);
+                }
+            }
+            final Map<Class<?>, Component<?>> map = new LinkedHashMap<>();
+            for (ComponentDescriptor descriptor : descriptors) {
+                addComponent(descriptor, map, resolved, filter);
+            }
+            taskRunner.runStage(List.copyOf(map.values()), component -> prepareBeanFromXml(component, filter, classLoader),
+                    registrations -> {
+                        for (Runnable registration : registrations) {
+                            if (registration != null) {
+                                registration.run();
+                            }
+                        }
+                    });
+        });
+    }
+
+    private static Class<?> loadClass(ClassLoader classLoader, String className) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException ex) {
+            // todo: log it
+            return null;
+        }
+    }
+
+    private List<ComponentDescriptor> parsePlexusComponents(InputStream is) throws IOException {
+        final List<ComponentDescriptor> descriptors = new ArrayList<>();
+        try (InputStreamReader isr = new InputStreamReader(is, StandardCharsets.UTF_8)) {
+            try (BufferedReader br = new BufferedReader(isr)) {
+                XMLStreamReader xr = XMLInputFactory.newDefaultFactory().createXMLStreamReader(br);
+                try (XMLCloser ignored = xr::close) {
+                    while (xr.hasNext()) {
+                        if (xr.next() == XMLStreamReader.START_ELEMENT) {
+                            if (xr.getLocalName().equals("component-set")) {
+                                parseComponentSet(xr, descriptors);
+                            } else {
+                                consume(xr);
                             }
                         }
                     }
-                } catch (XMLStreamException ex) {
-                    throw new RuntimeException(ex);
                 }
+            } catch (XMLStreamException ex) {
+                throw new RuntimeException(ex);
             }
         }
-        for (Component<?> component : map.values()) {
-            try {
-                addBeanFromXml(component, filter, classLoader);
-            } catch (LinkageError ignored) {
-                // skip
-            }
-        }
+        return descriptors;
     }
 
     /**
      * Creates beans from {@code META-INF/sisu/javax.inject.Named} metadata.
+     * The class files of the named classes are scanned in parallel batches, and the classes which cannot be added
+     * lazily are loaded and introspected in the same batches; the beans are then registered in the order of the
+     * metadata.
      *
      * @param classLoader classloader bean classes should be loaded from
      * @param filter bean dependency filter
      * @param url metadata URL
+     * @param taskRunner the task runner to run the scanning stage with
      * @throws IOException in case of a failure
      */
-    private void addNamed(ClassLoader classLoader, DependencyFilter filter, URL url) throws IOException {
-        final URLConnection conn = url.openConnection();
-        try (InputStream is = conn.getInputStream()) {
-            try (InputStreamReader isr = new InputStreamReader(is, StandardCharsets.UTF_8)) {
-                try (BufferedReader br = new BufferedReader(isr)) {
-                    String line;
-                    while ((line = (br.readLine())) != null) {
-                        int idx = line.indexOf('#');
-                        if (idx != -1) {
-                            line = line.substring(0, idx);
-                        }
-                        final String className = line.trim();
-                        if (className.isBlank() || builder.isTypeFilteredOut(className)) {
-                            continue;
-                        }
-                        try {
-                            final Class<?> clazz = Class.forName(className, false, classLoader);
-                            addClass(clazz, filter);
-                        } catch (ClassNotFoundException | LinkageError ex) {
-                            // todo: log it
-                        }
+    private void addNamed(ClassLoader classLoader, DependencyFilter filter, URL url, BeanLoadingTaskRunner taskRunner)
+            throws IOException {
+        final ScanCache scanCache = this.scanCache;
+        final byte[] content = readResource(url);
+        final List<NamedBean> cached = scanCache == null ? null
+                : scanCache.load(url, content, NamedBean.FORMAT, classLoader);
+        if (cached != null) {
+            addNamedBeans(classLoader, filter, cached, taskRunner);
+            return;
+        }
+        // supertypes are shared by many beans
+        final Map<String, ClassInfo> supertypes = new ConcurrentHashMap<>();
+        // the scanned content depends on every class file that is read, wherever it comes from
+        final Map<String, URL> sources = scanCache == null ? null : new ConcurrentHashMap<>();
+        // the scanned bean does not depend on the configuration of the container builder, so that it may be cached;
+        // classes which are filtered out are recorded without being scanned
+        taskRunner.runStage(parseNamed(content), className -> {
+            final NamedBean bean = builder.isTypeFilteredOut(className)
+                    ? new NamedBean(className, NamedBean.UNSCANNED, null, Annotations.NONE)
+                    : scanNamed(classLoader, className, supertypes, sources);
+            if (bean == null) {
+                return null;
+            }
+            // the scanned bean is cached even if it cannot be introspected
+            Runnable registration = null;
+            try {
+                registration = prepareNamed(classLoader, bean, filter, supertypes);
+            } catch (RuntimeException e) {
+                taskRunner.addError(e);
+            }
+            return new PreparedBean(bean, registration);
+        }, prepared -> {
+            final List<NamedBean> beans = new ArrayList<>(prepared.size());
+            for (PreparedBean preparedBean : prepared) {
+                if (preparedBean != null) {
+                    beans.add(preparedBean.bean);
+                }
+            }
+            if (scanCache != null) {
+                scanCache.store(url, content, NamedBean.FORMAT, beans, sources);
+            }
+            for (PreparedBean preparedBean : prepared) {
+                if (preparedBean != null && preparedBean.registration != null) {
+                    preparedBean.registration.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Add previously scanned beans.
+     * Any class which must be loaded is loaded and introspected in parallel batches; the beans are then registered in
+     * the order of the metadata.
+     */
+    private void addNamedBeans(ClassLoader classLoader, DependencyFilter filter, List<NamedBean> beans,
+            BeanLoadingTaskRunner taskRunner) {
+        final Map<String, ClassInfo> supertypes = new ConcurrentHashMap<>();
+        taskRunner.runStage(beans, bean -> prepareNamed(classLoader, bean, filter, supertypes), registrations -> {
+            for (Runnable registration : registrations) {
+                if (registration != null) {
+                    registration.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Prepare a scanned bean for registration.
+     * A lazy bean is registered as it is; any other bean is scanned if it was not scanned before, and then its class is
+     * loaded and introspected.
+     *
+     * @return the action which registers the bean, or {@code null} if there is nothing to register
+     */
+    private Runnable prepareNamed(ClassLoader classLoader, NamedBean bean, DependencyFilter filter,
+            Map<String, ClassInfo> supertypes) {
+        if (builder.isTypeFilteredOut(bean.className)) {
+            return null;
+        }
+        if (bean.kind == NamedBean.UNSCANNED) {
+            bean = scanNamed(classLoader, bean.className, supertypes, null);
+            if (bean == null) {
+                return null;
+            }
+        }
+        if (bean.kind == NamedBean.LAZY) {
+            final NamedBean lazyBean = bean;
+            final ClassLoader definingLoader = getDefiningLoader(classLoader, bean.className);
+            return () -> addLazyClass(classLoader, definingLoader, lazyBean, filter);
+        }
+        try {
+            final Class<?> clazz = Class.forName(bean.className, false, classLoader);
+            return prepareClass(clazz, filter);
+        } catch (ClassNotFoundException | LinkageError ex) {
+            // todo: log it
+            return null;
+        }
+    }
+
+    /**
+     * A scanned bean along with the action which registers it.
+     */
+    static final class PreparedBean {
+        final NamedBean bean;
+        final Runnable registration;
+
+        PreparedBean(final NamedBean bean, final Runnable registration) {
+            this.bean = bean;
+            this.registration = registration;
+        }
+    }
+
+    /**
+     * Parse the class names listed in a {@code META-INF/sisu/javax.inject.Named} resource.
+     *
+     * @param content the resource content
+     * @return the class names (not {@code null})
+     * @throws IOException in case of a failure
+     */
+    private static List<String> parseNamed(byte[] content) throws IOException {
+        final List<String> classNames = new ArrayList<>();
+        try (InputStreamReader isr = new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8)) {
+            try (BufferedReader br = new BufferedReader(isr)) {
+                String line;
+                while ((line = (br.readLine())) != null) {
+                    int idx = line.indexOf('#');
+                    if (idx != -1) {
+                        line = line.substring(0, idx);
+                    }
+                    final String className = line.trim();
+                    if (!className.isBlank()) {
+                        classNames.add(className);
                     }
                 }
             }
         }
+        return classNames;
+    }
+
+    /**
+     * Scan a single class named in a {@code META-INF/sisu/javax.inject.Named} resource by reading its class file.
+     * The location of every class file which is read is recorded in the given sources map, if any.
+     *
+     * @return the scanned bean, or {@code null} if the class cannot be a bean
+     */
+    private static NamedBean scanNamed(ClassLoader classLoader, String className, Map<String, ClassInfo> supertypes,
+            Map<String, URL> sources) {
+        // read the class file first, so that classes which cannot be beans are never loaded
+        final ClassInfo classInfo = ClassInfo.read(classLoader, className, sources);
+        if (classInfo == null || !classInfo.getName().equals(className)) {
+            return new NamedBean(className, NamedBean.EAGER, null, Annotations.NONE);
+        }
+        if (!classInfo.isConcrete()) {
+            return null;
+        }
+        if (classInfo.getInterfaceNames().contains(PROVIDER)) {
+            // providers are registered under their provided type, which needs the generic signature
+            return new NamedBean(className, NamedBean.EAGER, null, Annotations.NONE);
+        }
+        final Set<String> typeNames = getSupertypeNames(classLoader, classInfo, supertypes, sources);
+        if (typeNames == null) {
+            return new NamedBean(className, NamedBean.EAGER, null, Annotations.NONE);
+        }
+        return new NamedBean(className, NamedBean.LAZY, List.copyOf(typeNames), classInfo.getAnnotations());
     }
 
     interface XMLCloser extends AutoCloseable {
@@ -196,8 +506,7 @@ public final class Sisu {
         }
     }
 
-    private void parseComponentSet(final XMLStreamReader xr, final Map<Class<?>, Component<?>> map,
-            final ClassLoader classLoader, final DependencyFilter filter)
+    private void parseComponentSet(final XMLStreamReader xr, final List<ComponentDescriptor> descriptors)
             throws XMLStreamException {
         while (xr.hasNext()) {
             switch (xr.next()) {
@@ -206,7 +515,7 @@ public final class Sisu {
                 }
                 case XMLStreamReader.START_ELEMENT -> {
                     if (xr.getLocalName().equals("components")) {
-                        parseComponents(xr, map, classLoader, filter);
+                        parseComponents(xr, descriptors);
                     } else {
                         consume(xr);
                     }
@@ -215,8 +524,7 @@ public final class Sisu {
         }
     }
 
-    private void parseComponents(final XMLStreamReader xr, final Map<Class<?>, Component<?>> map, final ClassLoader classLoader,
-            final DependencyFilter filter)
+    private void parseComponents(final XMLStreamReader xr, final List<ComponentDescriptor> descriptors)
             throws XMLStreamException {
         while (xr.hasNext()) {
             switch (xr.next()) {
@@ -225,7 +533,7 @@ public final class Sisu {
                 }
                 case XMLStreamReader.START_ELEMENT -> {
                     if (xr.getLocalName().equals("component")) {
-                        parseComponent(xr, map, classLoader, filter);
+                        descriptors.add(parseComponent(xr));
                     } else {
                         consume(xr);
                     }
@@ -234,15 +542,8 @@ public final class Sisu {
         }
     }
 
-    private void parseComponent(final XMLStreamReader xr, final Map<Class<?>, Component<?>> map, final ClassLoader classLoader,
-            final DependencyFilter filter)
-            throws XMLStreamException {
-
-        Class<?> clazz = null;
-        Class<?> type = null;
-        String name = null;
-        boolean singleton = false;
-        List<Requirement> requirements = List.of();
+    private ComponentDescriptor parseComponent(final XMLStreamReader xr) throws XMLStreamException {
+        final ComponentDescriptor descriptor = new ComponentDescriptor();
 
         loop: while (xr.hasNext()) {
             switch (xr.next()) {
@@ -253,53 +554,24 @@ public final class Sisu {
                 case XMLStreamReader.START_ELEMENT -> {
                     switch (xr.getLocalName()) {
                         case "implementation" -> {
-                            if (clazz == null) {
-                                // try to load it up
-                                final String className = xr.getElementText();
-                                if (builder.isTypeFilteredOut(className)) {
-                                    continue;
-                                }
-                                try {
-                                    clazz = Class.forName(className, false, classLoader);
-                                } catch (ClassNotFoundException | LinkageError ex) {
-                                    // todo: log it
-                                    continue;
-                                }
-                                if (new Annotations(clazz).getNamed() != null) {
-                                    // it's a proper component; use the annotations to parse it
-                                    try {
-                                        addClass(clazz, filter);
-                                    } catch (LinkageError ex) {
-                                        // todo: log it
-                                    }
-                                    consume(xr);
-                                    return;
-                                }
+                            if (descriptor.implementation == null) {
+                                descriptor.implementation = xr.getElementText();
                             } else {
                                 consume(xr);
                             }
                         }
                         case "role" -> {
-                            if (type == null) {
-                                final String className = xr.getElementText();
-                                if (builder.isTypeFilteredOut(className)) {
-                                    continue;
-                                }
-                                try {
-                                    type = Class.forName(className, false, classLoader);
-                                } catch (ClassNotFoundException | LinkageError ex) {
-                                    // todo: log it
-                                    continue;
-                                }
+                            if (descriptor.role == null) {
+                                descriptor.role = xr.getElementText();
                             } else {
                                 consume(xr);
                             }
                         }
                         case "role-hint" -> {
-                            if (name == null) {
-                                name = xr.getElementText();
-                                if (name.equals("default")) {
-                                    name = "";
+                            if (descriptor.roleHint == null) {
+                                descriptor.roleHint = xr.getElementText();
+                                if (descriptor.roleHint.equals("default")) {
+                                    descriptor.roleHint = "";
                                 }
                             } else {
                                 consume(xr);
@@ -307,16 +579,42 @@ public final class Sisu {
                         }
                         case "instantiation-strategy" -> {
                             switch (xr.getElementText()) {
-                                case "per-lookup" -> singleton = false;
-                                case "poolable", "keep-alive", "singleton" -> singleton = true;
+                                case "per-lookup" -> descriptor.singleton = false;
+                                case "poolable", "keep-alive", "singleton" -> descriptor.singleton = true;
                             }
                         }
-                        case "requirements" -> requirements = parseRequirements(xr, classLoader, filter);
+                        case "requirements" -> descriptor.requirements = parseRequirements(xr);
                         default -> consume(xr);
                     }
                 }
             }
         }
+        return descriptor;
+    }
+
+    private void addComponent(final ComponentDescriptor descriptor, final Map<Class<?>, Component<?>> map,
+            final Map<String, Class<?>> resolved, final DependencyFilter filter) {
+
+        Class<?> clazz = null;
+        Class<?> type = null;
+        final String name = descriptor.roleHint;
+        final String className = descriptor.implementation;
+        if (className != null) {
+            clazz = resolved.get(className);
+            if (clazz != null && ClassInfo.of(clazz).getAnnotations().getNamed() != null) {
+                // it's a proper component; use the annotations to parse it
+                try {
+                    addClass(clazz, filter);
+                } catch (LinkageError ex) {
+                    // todo: log it
+                }
+                return;
+            }
+        }
+        final String roleName = descriptor.role;
+        if (roleName != null) {
+            type = resolved.get(roleName);
+        }
         if (clazz == null || clazz.isInterface()) {
             if (type == null || type.isInterface()) {
                 // ??? no component
@@ -328,7 +626,7 @@ public final class Sisu {
 
         Component<?> component = map.get(clazz);
         if (component == null) {
-            component = Component.of(clazz, type, name, singleton, requirements);
+            component = Component.of(clazz, type, name, descriptor.singleton, descriptor.requirements);
             map.put(clazz, component);
         } else {
             assert clazz == component.clazz;
@@ -343,7 +641,7 @@ public final class Sisu {
                 }
                 aliases.add(name);
             }
-            component.requirements = concatenate(component.requirements, requirements);
+            component.requirements = concatenate(component.requirements, descriptor.requirements);
         }
     }
 
@@ -366,8 +664,7 @@ public final class Sisu {
         }
     }
 
-    private List<Requirement> parseRequirements(final XMLStreamReader xr, final ClassLoader classLoader,
-            final DependencyFilter filter) throws XMLStreamException {
+    private List<Requirement> parseRequirements(final XMLStreamReader xr) throws XMLStreamException {
         List<Requirement> list = null;
         loop: while (xr.hasNext()) {
             switch (xr.next()) {
@@ -380,7 +677,7 @@ public final class Sisu {
                             if (list == null) {
                                 list = new ArrayList<>();
                             }
-                            list.add(parseRequirement(xr, classLoader, filter));
+                            list.add(parseRequirement(xr));
                         }
                         default -> consume(xr);
                     }
@@ -390,8 +687,7 @@ public final class Sisu {
         return list == null ? List.of() : List.copyOf(list);
     }
 
-    private Requirement parseRequirement(final XMLStreamReader xr, final ClassLoader classLoader, final DependencyFilter filter)
-            throws XMLStreamException {
+    private Requirement parseRequirement(final XMLStreamReader xr) throws XMLStreamException {
         final Requirement requirement = new Requirement();
         while (xr.hasNext()) {
             switch (xr.next()) {
@@ -418,6 +714,116 @@ public final class Sisu {
         return null;
     }
 
+    /**
+     * A concurrency policy for the scanning of class loaders.
+     */
+    public enum ScanConcurrency {
+        /**
+         * Scan resources in the common fork/join pool.
+         */
+        COMMON_POOL,
+        /**
+         * Scan each resource in its own virtual thread, or use {@link #PLATFORM_POOL} if virtual threads are not
+         * supported by the running JVM.
+         */
+        VIRTUAL_THREADS,
+        /**
+         * Scan resources in a pool of platform threads which is bounded by the number of available processors, and
+         * which exists for the duration of each scan.
+         */
+        PLATFORM_POOL,
+        /**
+         * Scan resources in the calling thread.
+         */
+        CALLER_RUNS,
+        ;
+
+        private static final MethodHandle newVirtualThreadPerTaskExecutor;
+
+        static {
+            MethodHandle handle;
+            try {
+                handle = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                        MethodType.methodType(ExecutorService.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                handle = null;
+            }
+            newVirtualThreadPerTaskExecutor = handle;
+        }
+
+        ExecutorService createExecutor() {
+            switch (this) {
+                case VIRTUAL_THREADS -> {
+                    if (newVirtualThreadPerTaskExecutor != null) {
+                        try {
+                            return (ExecutorService) newVirtualThreadPerTaskExecutor.invokeExact();
+                        } catch (RuntimeException | Error e) {
+                            throw e;
+                        } catch (Throwable t) {
+                            throw new UndeclaredThrowableException(t);
+                        }
+                    }
+                    return PLATFORM_POOL.createExecutor();
+                }
+                case PLATFORM_POOL -> {
+                    final AtomicInteger count = new AtomicInteger();
+                    return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+                        final Thread thread = new Thread(r, "sisu-scan-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+                default -> {
+                    return null;
+                }
+            }
+        }
+
+        Executor getSharedExecutor() {
+            return this == CALLER_RUNS ? Runnable::run : ForkJoinPool.commonPool();
+        }
+    }
+
+    /**
+     * The metrics of the scanning of a single metadata resource.
+     */
+    public static final class ScanMetric {
+        private final URL resource;
+        private final long nanos;
+        private final long bytesRead;
+
+        ScanMetric(final URL resource, final long nanos, final long bytesRead) {
+            this.resource = resource;
+            this.nanos = nanos;
+            this.bytesRead = bytesRead;
+        }
+
+        /**
+         * {@return the URL of the metadata resource}
+         */
+        public URL getResource() {
+            return resource;
+        }
+
+        /**
+         * {@return the wall time spent scanning the resource and adding its beans}
+         */
+        public Duration getDuration() {
+            return Duration.ofNanos(nanos);
+        }
+
+        /**
+         * {@return the number of bytes read from the resource, the scan cache and the class files of the beans}
+         */
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        public String toString() {
+            return resource + ": " + getDuration().toMillis() + " ms, " + bytesRead + " bytes";
+        }
+    }
+
     static final class Component<T> {
         final Class<T> clazz;
         Set<Class<? super T>> types;
@@ -449,10 +855,137 @@ public final class Sisu {
         String fieldName;
     }
 
-    private <T> void addBeanFromXml(Component<T> component, final DependencyFilter filter, final ClassLoader classLoader) {
+    /**
+     * A Plexus component as it appears in the XML metadata, before any of its classes are loaded.
+     */
+    static final class ComponentDescriptor {
+        static final ScanCache.Format<ComponentDescriptor> FORMAT = new ScanCache.Format<ComponentDescriptor>() {
+            public String getName() {
+                return "components";
+            }
+
+            public void write(final ComponentDescriptor item, final DataOutputStream os) throws IOException {
+                ScanCache.writeString(os, item.implementation);
+                ScanCache.writeString(os, item.role);
+                ScanCache.writeString(os, item.roleHint);
+                os.writeBoolean(item.singleton);
+                os.writeInt(item.requirements.size());
+                for (Requirement requirement : item.requirements) {
+                    ScanCache.writeString(os, requirement.injectType);
+                    ScanCache.writeString(os, requirement.injectName);
+                    ScanCache.writeString(os, requirement.fieldName);
+                }
+            }
+
+            public ComponentDescriptor read(final ScanCache.Input input) {
+                final ComponentDescriptor descriptor = new ComponentDescriptor();
+                descriptor.implementation = input.readString();
+                descriptor.role = input.readString();
+                descriptor.roleHint = input.readString();
+                descriptor.singleton = input.readBoolean();
+                final int count = input.readInt();
+                if (count > 0) {
+                    final List<Requirement> requirements = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        final Requirement requirement = new Requirement();
+                        requirement.injectType = input.readString();
+                        requirement.injectName = input.readString();
+                        requirement.fieldName = input.readString();
+                        requirements.add(requirement);
+                    }
+                    descriptor.requirements = List.copyOf(requirements);
+                }
+                return descriptor;
+            }
+        };
+
+        String implementation;
+        String role;
+        String roleHint;
+        boolean singleton;
+        List<Requirement> requirements = List.of();
+    }
+
+    /**
+     * A class named in SISU index metadata, along with what was found by reading its class file.
+     */
+    static final class NamedBean {
+        /**
+         * The class must be loaded in order to be added.
+         */
+        static final int EAGER = 0;
+        /**
+         * The class may be added as a lazy bean.
+         */
+        static final int LAZY = 1;
+        /**
+         * The class was filtered out when it was scanned.
+         */
+        static final int UNSCANNED = 2;
+
+        static final ScanCache.Format<NamedBean> FORMAT = new ScanCache.Format<NamedBean>() {
+            public String getName() {
+                return "named";
+            }
+
+            public void write(final NamedBean item, final DataOutputStream os) throws IOException {
+                ScanCache.writeString(os, item.className);
+                os.writeByte(item.kind);
+                if (item.kind == LAZY) {
+                    ScanCache.writeStrings(os, item.typeNames);
+                    final Annotations annotations = item.annotations;
+                    os.writeBoolean(annotations.hasPriority());
+                    os.writeInt(annotations.getPriority());
+                    ScanCache.writeString(os, annotations.getNamed());
+                    os.writeBoolean(annotations.isSingleton());
+                    os.writeBoolean(annotations.isEager());
+                    ScanCache.writeStrings(os, annotations.getTyped());
+                }
+            }
+
+            public NamedBean read(final ScanCache.Input input) {
+                final String className = input.readString();
+                final int kind = input.readByte();
+                if (kind == EAGER || kind == UNSCANNED) {
+                    return new NamedBean(className, kind, null, Annotations.NONE);
+                } else if (kind != LAZY) {
+                    throw new IllegalArgumentException("Invalid kind " + kind);
+                }
+                final List<String> typeNames = input.readStrings();
+                final boolean hasPriority = input.readBoolean();
+                final int priority = input.readInt();
+                final String named = input.readString();
+                final boolean singleton = input.readBoolean();
+                final boolean eager = input.readBoolean();
+                final List<String> typed = input.readStrings();
+                return new NamedBean(className, LAZY, typeNames,
+                        new Annotations(hasPriority, priority, named, false, singleton, eager, false, typed));
+            }
+        };
+
+        final String className;
+        final int kind;
+        final List<String> typeNames;
+        final Annotations annotations;
+
+        NamedBean(final String className, final int kind, final List<String> typeNames, final Annotations annotations) {
+            this.className = className;
+            this.kind = kind;
+            this.typeNames = typeNames;
+            this.annotations = annotations;
+        }
+    }
+
+    /**
+     * Introspect a Plexus component, without registering it.
+     *
+     * @return the action which registers the component (not {@code null})
+     */
+    private <T> Runnable prepareBeanFromXml(Component<T> component, final DependencyFilter filter,
+            final ClassLoader classLoader) {
         Class<T> clazz = component.clazz;
         final BeanBag.BeanBuilder<T> beanBuilder = builder.addBean(clazz);
-        final Annotations clazzAnnotations = Annotations.of(clazz);
+        final Annotations clazzAnnotations = ClassInfo.of(clazz).getAnnotations();
         if (component.singleton) {
             beanBuilder.setSingleton(true);
         }
@@ -467,44 +1000,11 @@ public final class Sisu {
         }
         final BeanBag.SupplierBuilder<T> supplierBuilder = beanBuilder.buildSupplier();
         // despite being a legacy component, there's no reason why we couldn't inject things like normal
-        Constructor<T> ctor = findConstructor(clazz);
-        for (Parameter parameter : ctor.getParameters()) {
-            Annotations paramAnnotations = Annotations.of(parameter);
-            final boolean optional = paramAnnotations.isNullable();
-            final String paramNamed = paramAnnotations.getNamed();
-            final String name = paramNamed == null ? "" : paramNamed;
-            final Class<?> parameterType = parameter.getType();
-            supplierBuilder.addConstructorArgument(
-                    getSupplier(parameterType, parameter.getParameterizedType(), name, optional, filter));
-        }
-        supplierBuilder.setConstructor(ctor);
+        addConstructor(clazz, supplierBuilder, filter);
         // scan for injectable fields and methods
         addFieldInjections(clazz, supplierBuilder, filter);
         addMethodInjections(clazz, supplierBuilder, filter);
 
-        Map<String, Field> injectableFields = new HashMap<>();
-        for (Class<?> cur = clazz; cur != null; cur = cur.getSuperclass()) {
-            Module module = cur.getModule();
-            if (!module.isOpen(cur.getPackageName(), Sisu.class.getModule())) {
-                // skip fields of this class because we are not permitted to access them
-                continue;
-            }
-            Field[] declaredFields = cur.getDeclaredFields();
-            boolean open = cur.getModule().isOpen(cur.getPackageName(), Sisu.class.getModule());
-            for (Field declaredField : declaredFields) {
-                int mods = declaredField.getModifiers();
-                if (Modifier.isStatic(mods) || Modifier.isFinal(mods)
-                        || injectableFields.containsKey(declaredField.getName())) {
-                    continue;
-                }
-                if (!Modifier.isPublic(mods) && !open) {
-                    // cannot inject into this field
-                    continue;
-                }
-                injectableFields.put(declaredField.getName(), declaredField);
-            }
-        }
-
         // now add our manual injections
         for (Requirement req : component.requirements) {
             String fieldName = req.fieldName;
@@ -512,7 +1012,7 @@ public final class Sisu {
                 continue;
             }
             Field field;
-            field = injectableFields.get(fieldName);
+            field = findInjectableField(clazz, fieldName);
             if (field == null || !field.trySetAccessible()) {
                 // ignore & continue
                 continue;
@@ -531,16 +1031,19 @@ public final class Sisu {
 
         supplierBuilder.build();
 
-        beanBuilder.build();
+        final Type[] genericInterfaces = clazz.getGenericInterfaces();
+        return () -> {
+            beanBuilder.build();
 
-        // If the bean implements `Provider<Something>`, then also register the bean info under the thing it provides
+            // If the bean implements `Provider<Something>`, then also register the bean info under the thing it provides
 
-        for (Type genericInterface : clazz.getGenericInterfaces()) {
-            if (getRawType(genericInterface) == Provider.class) {
-                // it's a provider for something
-                addOneProvider(builder, genericInterface, clazz.asSubclass(Provider.class), clazzAnnotations);
+            for (Type genericInterface : genericInterfaces) {
+                if (getRawType(genericInterface) == Provider.class) {
+                    // it's a provider for something
+                    addOneProvider(builder, genericInterface, clazz.asSubclass(Provider.class), clazzAnnotations);
+                }
             }
-        }
+        };
     }
 
     /**
@@ -550,65 +1053,228 @@ public final class Sisu {
      * @param filter the dependency filter to apply (must not be {@code null})
      * @param <T> the class type
      */
-    @SuppressWarnings("unchecked")
     public <T> void addClass(Class<T> clazz, DependencyFilter filter) {
         Assert.checkNotNullParam("clazz", clazz);
         Assert.checkNotNullParam("filter", filter);
-        if (visited.putIfAbsent(clazz, clazz) != null) {
+        final Runnable registration = prepareClass(clazz, filter);
+        if (registration != null) {
+            registration.run();
+        }
+    }
+
+    /**
+     * Introspect the given class as a SISU item, without registering it.
+     *
+     * @return the action which registers the item, or {@code null} if the class was already added
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Runnable prepareClass(Class<T> clazz, DependencyFilter filter) {
+        if (!visit(clazz.getClassLoader(), clazz.getName())) {
             // duplicate
-            return;
+            return null;
         }
         final BeanBag.BeanBuilder<T> beanBuilder = builder.addBean(clazz);
-        final Annotations clazzAnnotations = Annotations.of(clazz);
+        final Annotations clazzAnnotations = ClassInfo.of(clazz).getAnnotations();
 
         final String named = clazzAnnotations.getNamed();
         if (named != null) {
             beanBuilder.setName(named);
         }
-        final List<Class<?>> typed = clazzAnnotations.getTyped();
+        final List<String> typed = clazzAnnotations.getTyped();
         if (typed != null) {
-            //noinspection RedundantCast
-            beanBuilder.addRestrictedTypes((List<Class<? super T>>) (List<?>) typed);
+            final List<Class<? super T>> types = new ArrayList<>(typed.size());
+            for (String typeName : typed) {
+                try {
+                    types.add((Class<? super T>) Class.forName(typeName, false, clazz.getClassLoader()));
+                } catch (ClassNotFoundException e) {
+                    throw new NoClassDefFoundError(typeName);
+                }
+            }
+            beanBuilder.addRestrictedTypes(types);
         }
         if (clazzAnnotations.isSingleton()) {
             beanBuilder.setSingleton(true);
         }
-        if (clazzAnnotations.hasPriority()) {
-            int pv = clazzAnnotations.getPriority();
-            if (pv >= 0 && named != null && named.equals("default")) {
-                // shift ranking in a similar way to how SISU does it
-                pv += Integer.MIN_VALUE;
-            }
-            beanBuilder.setPriority(pv);
+        if (clazzAnnotations.isEager()) {
+            beanBuilder.setEager(true);
         }
-        final BeanBag.SupplierBuilder<T> supplierBuilder = beanBuilder.buildSupplier();
-        Constructor<T> ctor = findConstructor(clazz);
-        for (Parameter parameter : ctor.getParameters()) {
-            Annotations paramAnnotations = Annotations.of(parameter);
-            final boolean optional = paramAnnotations.isNullable();
-            final String paramNamed = paramAnnotations.getNamed();
-            final String name = paramNamed == null ? "" : paramNamed;
-            final Class<?> parameterType = parameter.getType();
-            supplierBuilder.addConstructorArgument(
-                    getSupplier(parameterType, parameter.getParameterizedType(), name, optional, filter));
+        if (clazzAnnotations.hasPriority()) {
+            beanBuilder.setPriority(getPriority(clazzAnnotations));
         }
-        supplierBuilder.setConstructor(ctor);
-        // scan for injectable fields and methods
-        addFieldInjections(clazz, supplierBuilder, filter);
-        addMethodInjections(clazz, supplierBuilder, filter);
+        buildSupplier(clazz, beanBuilder, filter);
 
-        supplierBuilder.build();
+        final Type[] genericInterfaces = clazz.getGenericInterfaces();
+        return () -> {
+            beanBuilder.build();
+
+            // If the bean implements `Provider<Something>`, then also register the bean info under the thing it provides
+
+            for (Type genericInterface : genericInterfaces) {
+                if (getRawType(genericInterface) == Provider.class) {
+                    // it's a provider for something
+                    addOneProvider(builder, genericInterface, clazz.asSubclass(Provider.class), clazzAnnotations);
+                }
+            }
+        };
+    }
 
+    /**
+     * Add a scanned class as a lazily defined SISU item.
+     * The class is not loaded; instead it is registered under the names of all of its supertypes.
+     *
+     * @param classLoader the class loader of the class (must not be {@code null})
+     * @param definingLoader the class loader which is expected to define the class (must not be {@code null})
+     * @param bean the scanned bean (must not be {@code null})
+     * @param filter the dependency filter to apply (must not be {@code null})
+     */
+    private void addLazyClass(ClassLoader classLoader, ClassLoader definingLoader, NamedBean bean,
+            DependencyFilter filter) {
+        if (!visit(definingLoader, bean.className)) {
+            // duplicate
+            return;
+        }
+        final BeanBag.LazyBeanBuilder beanBuilder = builder.addLazyBean(classLoader, bean.className);
+        beanBuilder.addTypeNames(bean.typeNames);
+        final Annotations clazzAnnotations = bean.annotations;
+        final String named = clazzAnnotations.getNamed();
+        if (named != null) {
+            beanBuilder.setName(named);
+        }
+        final List<String> typed = clazzAnnotations.getTyped();
+        if (typed != null) {
+            beanBuilder.addRestrictedTypeNames(typed);
+        }
+        if (clazzAnnotations.isSingleton()) {
+            beanBuilder.setSingleton(true);
+        }
+        if (clazzAnnotations.isEager()) {
+            beanBuilder.setEager(true);
+        }
+        if (clazzAnnotations.hasPriority()) {
+            beanBuilder.setPriority(getPriority(clazzAnnotations));
+        }
+        beanBuilder.setInitializer(new LazyBeanInitializer() {
+            public <T> void initialize(final Class<T> type, final BeanBag.BeanBuilder<T> beanBuilder) {
+                buildSupplier(type, beanBuilder, filter);
+            }
+        });
         beanBuilder.build();
+    }
 
-        // If the bean implements `Provider<Something>`, then also register the bean info under the thing it provides
+    /**
+     * Record that the given class is added, whether it is added lazily or not.
+     *
+     * @param definingLoader the defining class loader of the class, or {@code null} for the bootstrap class loader
+     * @param className the binary name of the class
+     * @return {@code true} if the class was not added before, or {@code false} if it is a duplicate
+     */
+    private boolean visit(ClassLoader definingLoader, String className) {
+        // the platform class loader stands in for the bootstrap class loader, whose classes it can see
+        final ClassLoader key = definingLoader == null ? ClassLoader.getPlatformClassLoader() : definingLoader;
+        return visited.computeIfAbsent(key, ignored -> ConcurrentHashMap.newKeySet()).add(className);
+    }
 
-        for (Type genericInterface : clazz.getGenericInterfaces()) {
-            if (getRawType(genericInterface) == Provider.class) {
-                // it's a provider for something
-                addOneProvider(builder, genericInterface, clazz.asSubclass(Provider.class), clazzAnnotations);
+    /**
+     * Get the class loader which would define the given class, without loading it.
+     * Assuming parent-first delegation, this is the outermost ancestor of the given class loader which finds the same
+     * class file.
+     *
+     * @param classLoader the class loader to load the class from (must not be {@code null})
+     * @param className the binary name of the class
+     * @return the expected defining class loader (not {@code null})
+     */
+    private static ClassLoader getDefiningLoader(ClassLoader classLoader, String className) {
+        final String fileName = className.replace('.', '/') + ".class";
+        final URL url = classLoader.getResource(fileName);
+        ClassLoader definingLoader = classLoader;
+        if (url != null) {
+            // compare the external forms, because URL.equals may resolve host names
+            final String location = url.toExternalForm();
+            for (ClassLoader parent = classLoader.getParent(); parent != null; parent = parent.getParent()) {
+                final URL parentUrl = parent.getResource(fileName);
+                if (parentUrl != null && location.equals(parentUrl.toExternalForm())) {
+                    definingLoader = parent;
+                }
             }
         }
+        return definingLoader;
+    }
+
+    /**
+     * Get the binary names of all the supertypes of the given class without loading it.
+     *
+     * @return the supertype names, or {@code null} if some supertype could not be read
+     */
+    private static Set<String> getSupertypeNames(ClassLoader classLoader, ClassInfo classInfo,
+            Map<String, ClassInfo> supertypes, Map<String, URL> sources) {
+        final Set<String> names = new HashSet<>();
+        final ArrayDeque<String> queue = new ArrayDeque<>();
+        ClassInfo current = classInfo;
+        for (;;) {
+            if (current.getSuperName() != null) {
+                queue.add(current.getSuperName());
+            }
+            queue.addAll(current.getInterfaceNames());
+            current = null;
+            String name;
+            while (current == null && (name = queue.poll()) != null) {
+                if (!names.add(name) || name.equals("java.lang.Object")) {
+                    continue;
+                }
+                if (name.startsWith("java.")) {
+                    // platform types are cheap to load, and usually already are
+                    try {
+                        addSupertypeNames(Class.forName(name, false, classLoader), names);
+                    } catch (ClassNotFoundException | LinkageError e) {
+                        return null;
+                    }
+                } else {
+                    current = supertypes.get(name);
+                    if (current == null) {
+                        current = ClassInfo.read(classLoader, name, sources);
+                        if (current == null) {
+                            return null;
+                        }
+                        supertypes.put(name, current);
+                    }
+                }
+            }
+            if (current == null) {
+                return names;
+            }
+        }
+    }
+
+    private static void addSupertypeNames(Class<?> clazz, Set<String> names) {
+        names.add(clazz.getName());
+        final Class<?> superclass = clazz.getSuperclass();
+        if (superclass != null) {
+            addSupertypeNames(superclass, names);
+        }
+        for (Class<?> anInterface : clazz.getInterfaces()) {
+            addSupertypeNames(anInterface, names);
+        }
+    }
+
+    private static int getPriority(Annotations clazzAnnotations) {
+        final String named = clazzAnnotations.getNamed();
+        int pv = clazzAnnotations.getPriority();
+        if (pv >= 0 && named != null && named.equals("default")) {
+            // shift ranking in a similar way to how SISU does it
+            pv += Integer.MIN_VALUE;
+        }
+        return pv;
+    }
+
+    private <T> void buildSupplier(Class<T> clazz, BeanBag.BeanBuilder<T> beanBuilder,
+            DependencyFilter filter) {
+        final BeanBag.SupplierBuilder<T> supplierBuilder = beanBuilder.buildSupplier();
+        addConstructor(clazz, supplierBuilder, filter);
+        // scan for injectable fields and methods
+        addFieldInjections(clazz, supplierBuilder, filter);
+        addMethodInjections(clazz, supplierBuilder, filter);
+
+        supplierBuilder.build();
     }
 
     /**
@@ -658,23 +1324,32 @@ public final class Sisu {
         providedBuilder.build();
     }
 
-    private static BeanSupplier<?> getSupplier(final Class<?> rawType, final Type parameterizedType, final String name,
+    private BeanSupplier<?> getSupplier(final Class<?> rawType, final Type parameterizedType, final String name,
             final boolean optional, final DependencyFilter filter) {
         if (rawType == Provider.class) {
             final Type providerType = getTypeArgument(parameterizedType, 0);
             final BeanSupplier<?> supplier = getSupplier(getRawType(providerType), providerType, name, optional, filter);
-            return scope -> (Provider<?>) () -> supplier.get(scope);
+            return scope -> new ScopedProvider<>(supplier, scope);
         } else if (rawType == Set.class) {
             final Class<?> argType = getRawType(getTypeArgument(parameterizedType, 0));
+            if (lazyCollections) {
+                return BeanSupplier.resolvingAllLazily(argType, name, filter).transform(LazySet::new);
+            }
             return BeanSupplier.resolvingAll(argType, name, filter).transform(Set::copyOf);
         } else if (rawType == List.class || rawType == Collection.class) {
             final Class<?> argType = getRawType(getTypeArgument(parameterizedType, 0));
+            if (lazyCollections) {
+                return BeanSupplier.resolvingAllLazily(argType, name, filter);
+            }
             return BeanSupplier.resolvingAll(argType, name, filter);
         } else if (rawType == Map.class) {
             final Class<?> keyType = getRawType(getTypeArgument(parameterizedType, 0));
             final Class<?> valType = getRawType(getTypeArgument(parameterizedType, 1));
             if (keyType == String.class) {
                 // OK
+                if (lazyCollections) {
+                    return BeanSupplier.resolvingAllByNameLazily(valType, filter);
+                }
                 return BeanSupplier.resolvingAllByName(valType, filter);
             } else {
                 throw new IllegalArgumentException("Invalid key type " + keyType + " for map");
@@ -683,8 +1358,9 @@ public final class Sisu {
             // special handling! funny business!
             if (name.contains("${")) {
                 // expression! but with a weird syntax that isn't supported by smallrye-common-expression
-                return scope -> parseExpressionString(new StringItr(name), 0, false,
-                        Objects.requireNonNullElse(scope.getOptionalBean(Properties.class), new Properties()));
+                final ExpressionTemplate template = ExpressionTemplate.compile(name);
+                return BeanSupplier.resolving(Properties.class, "", true, DependencyFilter.ACCEPT)
+                        .transform(template::evaluate);
             }
             // just return the raw string
             return BeanSupplier.of(name);
@@ -693,71 +1369,30 @@ public final class Sisu {
         }
     }
 
-    private static final class StringItr {
-        final String s;
-        int pos;
-        final int end;
-
-        StringItr(String s) {
-            this.s = s;
-            this.pos = 0;
-            this.end = s.length();
-        }
-
-        boolean hasNext() {
-            return pos < end;
-        }
-
-        char next() {
-            return s.charAt(pos++);
-        }
-
-        boolean nextMatches(String cmp) {
-            int cmpLen = cmp.length();
-            return pos + cmpLen <= end && s.regionMatches(pos, cmp, 0, cmpLen);
-        }
-
-        boolean match(String cmp) {
-            boolean b = nextMatches(cmp);
-            if (b) {
-                pos += cmp.length();
-            }
-            return b;
-        }
-    }
-
-    private static String parseExpressionString(StringItr itr, int recursion, boolean stopOnDefault, Properties properties) {
-        if (recursion > 10) {
-            throw new IllegalStateException("Deep recursion");
-        }
-        StringBuilder b = new StringBuilder();
-        while (itr.hasNext()) {
-            if (recursion > 0 && (itr.nextMatches("}") || stopOnDefault && itr.nextMatches(":-"))) {
-                // end
-                break;
-            } else if (itr.match("${")) {
-                doExprPart(b, itr, recursion + 1, properties);
-            } else {
-                // plain text
-                b.append(itr.next());
+    /**
+     * A provider which resolves its value from a scope on first use and then returns the same value.
+     * Bean holders never change once they have produced an instance, so this is equivalent to resolving the value
+     * on every call; results which are {@code null} or which fail are not remembered, so they are resolved again
+     * on the next call.
+     */
+    private static final class ScopedProvider<T> implements Provider<T> {
+        private final BeanSupplier<T> supplier;
+        private final Scope scope;
+        private volatile T value;
+
+        ScopedProvider(final BeanSupplier<T> supplier, final Scope scope) {
+            this.supplier = supplier;
+            this.scope = scope;
+        }
+
+        public T get() {
+            T value = this.value;
+            if (value == null) {
+                value = supplier.get(scope);
+                // benign race
+                this.value = value;
             }
-        }
-        return b.toString();
-    }
-
-    private static void doExprPart(final StringBuilder b, final StringItr itr, final int recursion, Properties properties) {
-        String key = parseExpressionString(itr, recursion, true, properties);
-        if (itr.match("}") || !itr.hasNext()) {
-            b.append(properties.getProperty(key, ""));
-            return;
-        } else if (itr.match(":-")) {
-            b.append(properties.getProperty(key, parseExpressionString(itr, recursion, false, properties)));
-            // consume end of expr
-            itr.match("}");
-            return;
-        } else {
-            // ???
-            throw new IllegalStateException();
+            return value;
         }
     }
 
@@ -799,47 +1434,66 @@ public final class Sisu {
         return (Class<T[]>) arrayTypes.get(elementType);
     }
 
-    private static <T> void addFieldInjections(final Class<? super T> clazz, final BeanBag.SupplierBuilder<T> supplierBuilder,
-            final DependencyFilter filter) {
-        if (clazz == Object.class) {
+    /**
+     * Check whether the given class is a platform class, which will never carry injection annotations.
+     *
+     * @param clazz the class (must not be {@code null})
+     * @return {@code true} if the class is a platform class
+     */
+    static boolean isPlatformClass(Class<?> clazz) {
+        return clazz.getName().startsWith("java.");
+    }
+
+    static boolean isOpen(Class<?> clazz) {
+        return clazz.getModule().isOpen(clazz.getPackageName(), Sisu.class.getModule());
+    }
+
+    private static Field findInjectableField(Class<?> clazz, String fieldName) {
+        for (Class<?> cur = clazz; cur != null && !isPlatformClass(cur); cur = cur.getSuperclass()) {
+            if (!isOpen(cur)) {
+                // skip fields of this class because we are not permitted to access them
+                continue;
+            }
+            for (ClassInfo.MemberInfo fieldInfo : ClassInfo.of(cur).getFields()) {
+                if (fieldInfo.getName().equals(fieldName) && !fieldInfo.isStatic() && !fieldInfo.isFinal()) {
+                    try {
+                        return cur.getDeclaredField(fieldName);
+                    } catch (NoSuchFieldException e) {
+                        return null;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private <T> void addFieldInjections(final Class<? super T> clazz,
+            final BeanBag.SupplierBuilder<T> supplierBuilder, final DependencyFilter filter) {
+        if (isPlatformClass(clazz)) {
             return;
         }
         final Class<? super T> superclass = clazz.getSuperclass();
         if (superclass != null) {
             addFieldInjections(superclass, supplierBuilder, filter);
         }
-        boolean open = clazz.getModule().isOpen(clazz.getPackageName(), Sisu.class.getModule());
-        boolean publicClass = Modifier.isPublic(clazz.getModifiers());
-        for (Field field : clazz.getDeclaredFields()) {
-            final int mods = field.getModifiers();
-            if (Modifier.isStatic(mods) || Modifier.isFinal(mods)) {
-                continue;
-            }
-            final Annotations fieldAnnotations = Annotations.of(field);
-            if (!fieldAnnotations.isInject()) {
-                continue;
-            }
-            if (!(publicClass && Modifier.isPublic(mods) || open && field.trySetAccessible())) {
-                continue;
-            }
-            boolean optional = fieldAnnotations.isNullable();
-            final String paramNamed = fieldAnnotations.getNamed();
-            final String name = paramNamed == null ? "" : paramNamed;
-            final Class<?> fieldType = field.getType();
-            supplierBuilder.injectField(field, getSupplier(fieldType, field.getGenericType(), name, optional, filter));
+        for (InjectionInfo.FieldInjection injection : InjectionInfo.of(clazz).getFields()) {
+            final Field field = injection.getField();
+            supplierBuilder.injectField(field,
+                    getSupplier(field.getType(), field.getGenericType(), injection.getName(), injection.isOptional(), filter));
         }
     }
 
-    private static <T> void addMethodInjections(final Class<? super T> clazz, final BeanBag.SupplierBuilder<T> supplierBuilder,
-            final DependencyFilter filter) {
+    private <T> void addMethodInjections(final Class<? super T> clazz,
+            final BeanBag.SupplierBuilder<T> supplierBuilder, final DependencyFilter filter) {
         addMethodInjections(clazz, supplierBuilder, filter, new HashSet<>());
     }
 
     @SuppressWarnings("unchecked")
-    private static <T> void addMethodInjections(final Class<? super T> clazz, final BeanBag.SupplierBuilder<T> supplierBuilder,
-            final DependencyFilter filter, final Set<Class<? super T>> visited) {
+    private <T> void addMethodInjections(final Class<? super T> clazz,
+            final BeanBag.SupplierBuilder<T> supplierBuilder, final DependencyFilter filter,
+            final Set<Class<? super T>> visited) {
         if (visited.add(clazz)) {
-            if (clazz == Object.class) {
+            if (isPlatformClass(clazz)) {
                 return;
             }
             final Class<? super T> superclass = clazz.getSuperclass();
@@ -849,60 +1503,32 @@ public final class Sisu {
             for (Class<?> anInterface : clazz.getInterfaces()) {
                 addMethodInjections((Class<? super T>) anInterface, supplierBuilder, filter);
             }
-            boolean open = clazz.getModule().isOpen(clazz.getPackageName(), Sisu.class.getModule());
-            boolean publicClass = Modifier.isPublic(clazz.getModifiers());
-            for (Method method : clazz.getDeclaredMethods()) {
-                final int mods = method.getModifiers();
-                if (Modifier.isStatic(mods)) {
-                    continue;
-                }
-                final Annotations methodAnnotations = Annotations.of(method);
-                if (!methodAnnotations.isInject()) {
-                    continue;
-                }
-                if (method.getParameterCount() != 1) {
-                    continue;
-                }
-                if (!(publicClass && Modifier.isPublic(mods) || open && method.trySetAccessible())) {
-                    continue;
-                }
-                final String named = methodAnnotations.getNamed();
-                final String name = named == null ? "" : named;
-                final Parameter argParam = method.getParameters()[0];
-                boolean optional = Annotations.of(argParam).isNullable();
-                supplierBuilder.injectMethod(method, argParam.getType(), name, optional, filter);
+            for (InjectionInfo.MethodInjection injection : InjectionInfo.of(clazz).getMethods()) {
+                final Method method = injection.getMethod();
+                supplierBuilder.injectMethod(method, method.getParameterTypes()[0], injection.getName(),
+                        injection.isOptional(), filter);
             }
         }
 
     }
 
     @SuppressWarnings("unchecked")
-    private static <T> Constructor<T> findConstructor(Class<T> clazz) {
-        Constructor<T> defaultConstructor = null;
-        final Constructor<?>[] declaredConstructors;
-        try {
-            declaredConstructors = clazz.getDeclaredConstructors();
-        } catch (Throwable t) {
-            throw new RuntimeException("Cannot get declared constructors from " + clazz, t);
-        }
-        boolean open = clazz.getModule().isOpen(clazz.getPackageName(), Sisu.class.getModule());
-        boolean publicClass = Modifier.isPublic(clazz.getModifiers());
-        for (Constructor<?> constructor : declaredConstructors) {
-            final int mods = constructor.getModifiers();
-            if (Annotations.of(constructor).isInject()
-                    && (publicClass && Modifier.isPublic(mods) || open && constructor.trySetAccessible())) {
-                return (Constructor<T>) constructor;
-            } else if (constructor.getParameterCount() == 0) {
-                defaultConstructor = (Constructor<T>) constructor;
-            }
-        }
-        if (defaultConstructor != null) {
-            final int mods = defaultConstructor.getModifiers();
-            if (publicClass && Modifier.isPublic(mods) || open && defaultConstructor.trySetAccessible()) {
-                return defaultConstructor;
-            }
+    private <T> void addConstructor(final Class<T> clazz, final BeanBag.SupplierBuilder<T> supplierBuilder,
+            final DependencyFilter filter) {
+        final InjectionInfo.ConstructorInjection injection = InjectionInfo.of(clazz).getConstructor();
+        final Constructor<T> ctor = (Constructor<T>) injection.getConstructor();
+        final Parameter[] parameters = ctor.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            final Parameter parameter = parameters[i];
+            Annotations paramAnnotations = injection.getParameterAnnotations(i);
+            final boolean optional = paramAnnotations.isNullable();
+            final String paramNamed = paramAnnotations.getNamed();
+            final String name = paramNamed == null ? "" : paramNamed;
+            final Class<?> parameterType = parameter.getType();
+            supplierBuilder.addConstructorArgument(
+                    getSupplier(parameterType, parameter.getParameterizedType(), name, optional, filter));
         }
-        throw new RuntimeException("No valid constructor found on " + clazz);
+        supplierBuilder.setConstructor(ctor);
     }
 
     private static final ClassValue<Function<Annotation, String>> GET_NAMED_VALUE_FN = new ClassValue<Function<Annotation, String>>() {
@@ -923,8 +1549,11 @@ public final class Sisu {
         }
     };
 
+    /**
+     * A function which reads the {@code value} of an annotation through a method handle.
+     */
     static class MethodFunction<R> implements Function<Annotation, R> {
-        private final Method method;
+        private final MethodHandle handle;
 
         MethodFunction(Class<?> type, String expectedName) {
             final Class<? extends Annotation> annotationType = type.asSubclass(Annotation.class);
@@ -937,72 +1566,131 @@ public final class Sisu {
             } catch (NoSuchMethodException e) {
                 throw new RuntimeException(e);
             }
-            this.method = method;
+            try {
+                handle = MethodHandles.publicLookup().unreflect(method)
+                        .asType(MethodType.methodType(Object.class, Annotation.class));
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
         }
 
         @SuppressWarnings("unchecked")
         public R apply(final Annotation annotation) {
             try {
-                return (R) method.invoke(annotation);
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                throw new RuntimeException(e);
+                return (R) handle.invokeExact(annotation);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new UndeclaredThrowableException(t);
             }
         }
     }
 
     static class Annotations {
+        static final Annotations NONE = new Annotations(false, 0, null, false, false, false, false, null);
+
         private final boolean hasPriority;
         private final int priority;
         private final String named;
         private final boolean inject;
         private final boolean singleton;
+        private final boolean eager;
         private final boolean nullable;
-        private final List<Class<?>> typed;
-
-        private Annotations(AnnotatedElement element) {
-            boolean hasPriority = false;
-            int priority = 0;
-            String named = null;
-            boolean inject = false;
-            boolean singleton = false;
-            boolean nullable = false;
-            List<Class<?>> typed = null;
+        private final List<String> typed;
+
+        Annotations(final boolean hasPriority, final int priority, final String named, final boolean inject,
+                final boolean singleton, final boolean eager, final boolean nullable, final List<String> typed) {
+            this.hasPriority = hasPriority;
+            this.priority = priority;
+            this.named = named;
+            this.inject = inject;
+            this.singleton = singleton;
+            this.eager = eager;
+            this.nullable = nullable;
+            this.typed = typed;
+        }
+
+        static Annotations of(AnnotatedElement element) {
+            final Collector collector = new Collector();
             for (Annotation annotation : element.getAnnotations()) {
                 final Class<? extends Annotation> annoType = annotation.annotationType();
                 final String annoName = annoType.getName();
+                final Object value = switch (annoName) {
+                    case "javax.inject.Named" -> GET_NAMED_VALUE_FN.get(annoType).apply(annotation);
+                    case "org.eclipse.sisu.Priority" -> GET_PRIORITY_VALUE_FN.get(annoType).apply(annotation);
+                    case "org.eclipse.sisu.Typed" -> {
+                        final Class<?>[] classes = GET_TYPED_VALUE_FN.get(annoType).apply(annotation);
+                        final List<String> names = new ArrayList<>(classes.length);
+                        for (Class<?> clazz : classes) {
+                            names.add(clazz.getName());
+                        }
+                        yield List.copyOf(names);
+                    }
+                    default -> null;
+                };
+                collector.add(annoName, value);
+            }
+            return collector.build();
+        }
+
+        /**
+         * A collector for annotation information, which may come from reflection or from a class file.
+         */
+        static final class Collector {
+            private boolean hasPriority;
+            private int priority;
+            private String named;
+            private boolean inject;
+            private boolean singleton;
+            private boolean eager;
+            private boolean nullable;
+            private List<String> typed;
+
+            /**
+             * Add an annotation.
+             *
+             * @param annoName the annotation type name (must not be {@code null})
+             * @param value the annotation {@code value}, which is a {@code String}, an {@code Integer}, or a list of
+             *        class names, or {@code null} if it has none
+             */
+            @SuppressWarnings("unchecked")
+            void add(String annoName, Object value) {
                 switch (annoName) {
                     case "javax.inject.Inject" -> {
                         inject = true;
                     }
-                    case "javax.inject.Singleton", "org.eclipse.sisu.EagerSingleton", "org.sonatype.inject.EagerSingleton" -> {
+                    case "javax.inject.Singleton" -> {
+                        singleton = true;
+                    }
+                    case "org.eclipse.sisu.EagerSingleton", "org.sonatype.inject.EagerSingleton" -> {
                         singleton = true;
+                        eager = true;
                     }
                     case "javax.inject.Named" -> {
-                        named = GET_NAMED_VALUE_FN.get(annoType).apply(annotation);
+                        // an empty name is the default value
+                        named = value instanceof String str ? str : "";
                     }
                     case "org.eclipse.sisu.Nullable", "org.sonatype.inject.Nullable" -> {
                         nullable = true;
                     }
                     case "org.eclipse.sisu.Priority" -> {
-                        priority = GET_PRIORITY_VALUE_FN.get(annoType).apply(annotation).intValue();
-                        hasPriority = true;
+                        if (value instanceof Integer integer) {
+                            priority = integer.intValue();
+                            hasPriority = true;
+                        }
                     }
                     case "org.eclipse.sisu.Typed" -> {
-                        typed = List.of(GET_TYPED_VALUE_FN.get(annoType).apply(annotation));
+                        typed = value instanceof List<?> list ? (List<String>) list : List.of();
                     }
                 }
             }
-            this.hasPriority = hasPriority;
-            this.priority = priority;
-            this.named = named;
-            this.inject = inject;
-            this.singleton = singleton;
-            this.nullable = nullable;
-            this.typed = typed;
-        }
 
-        static Annotations of(AnnotatedElement element) {
-            return new Annotations(element);
+            Annotations build() {
+                if (!hasPriority && named == null && !inject && !singleton && !nullable && typed == null) {
+                    return NONE;
+                }
+                return new Annotations(hasPriority, priority, named, inject, singleton, eager, nullable, typed);
+            }
         }
 
         boolean hasPriority() {
@@ -1025,11 +1713,15 @@ public final class Sisu {
             return singleton;
         }
 
+        boolean isEager() {
+            return eager;
+        }
+
         boolean isNullable() {
             return nullable;
         }
 
-        List<Class<?>> getTyped() {
+        List<String> getTyped() {
             return typed;
         }
     }